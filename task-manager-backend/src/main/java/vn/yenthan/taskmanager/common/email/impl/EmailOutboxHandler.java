@@ -0,0 +1,87 @@
+package vn.yenthan.taskmanager.common.email.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import vn.yenthan.taskmanager.core.outbox.OutboxHandler;
+import vn.yenthan.taskmanager.core.outbox.OutboxMessage;
+import vn.yenthan.taskmanager.core.outbox.OutboxRetryException;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gửi email lấy từ outbox (OutboxRelay lo nhận batch, giữ hạn, thử lại và FAILED).
+ * Cả batch đi qua một kết nối SMTP; email nào bị từ chối thì chỉ email đó được thử lại.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxHandler implements OutboxHandler {
+
+    public static final String DESTINATION = "email.send";
+
+    private final JavaMailSender mailSender;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.mail.username:}")
+    private String fromAddress;
+
+    @Override
+    public String destination() {
+        return DESTINATION;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) throws Exception {
+        Map<SimpleMailMessage, OutboxMessage> mails = new IdentityHashMap<>();
+        for (OutboxMessage message : messages) {
+            Email email = objectMapper.readValue(message.payload(), Email.class);
+            if (fromAddress == null || fromAddress.isBlank()) {
+                log.info("[EMAIL FAKE SEND] to={}, subject={}, body=\n{}", email.recipient(), email.subject(), email.body());
+                continue;
+            }
+            SimpleMailMessage mail = new SimpleMailMessage();
+            mail.setFrom(fromAddress);
+            mail.setTo(email.recipient());
+            mail.setSubject(email.subject());
+            mail.setText(email.body());
+            mails.put(mail, message);
+        }
+        if (mails.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(mails.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            // Không có danh sách email lỗi (không kết nối/xác thực được): cả batch thử lại
+            if (e.getFailedMessages().isEmpty()) {
+                throw e;
+            }
+            List<Long> failed = new ArrayList<>();
+            e.getFailedMessages().forEach((mail, error) -> {
+                OutboxMessage message = mails.get(mail);
+                if (message != null) {
+                    log.warn("Failed to send email {} (attempt {}): {}", message.id(), message.attempts(), error.getMessage());
+                    failed.add(message.id());
+                }
+            });
+            throw new OutboxRetryException(e.getMessage(), failed);
+        }
+        log.info("Sent {} email(s) from outbox", mails.size());
+    }
+
+    /**
+     * Payload của một email trong outbox.
+     */
+    public record Email(String recipient, String subject, String body) {
+    }
+}
@@ -2,22 +2,16 @@ package vn.yenthan.taskmanager.common.email.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 import vn.yenthan.taskmanager.common.email.EmailService;
+import vn.yenthan.taskmanager.core.outbox.OutboxService;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username:}")
-    private String fromAddress;
+    private final OutboxService outboxService;
 
     @Override
     public void sendBoardInvite(String toEmail, String boardName, String invitedByName, String acceptLink, long hoursToExpire) {
@@ -39,23 +33,12 @@ public class EmailServiceImpl implements EmailService {
         sendEmail(toEmail, subject, text);
     }
 
+    /**
+     * Chỉ ghi email vào outbox trong transaction của thao tác gọi (rollback thì không gửi);
+     * EmailOutboxHandler gửi sau commit, request không phải chờ SMTP.
+     */
     private void sendEmail(String to, String subject, String text) {
-        try {
-            if (fromAddress == null || fromAddress.isBlank()) {
-                log.info("[EMAIL FAKE SEND] to={}, subject={}, body=\n{}", to, subject, text);
-                return;
-            }
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromAddress);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-            log.info("Email sent to {} with subject {}", to, subject);
-        } catch (MailException e) {
-            log.error("Failed to send email to {}: {}", to, e.getMessage());
-        }
+        outboxService.record(EmailOutboxHandler.DESTINATION, null, new EmailOutboxHandler.Email(to, subject, text));
+        log.info("Queued email to {} with subject {}", to, subject);
     }
 }
-
-
@@ -0,0 +1,57 @@
+package vn.yenthan.taskmanager.core.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import vn.yenthan.taskmanager.core.util.StripedExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /**
+     * Xử lý file đính kèm sau commit (tạo thumbnail, xóa object). Hàng đợi có giới hạn:
+     * khi đầy thì chạy trên thread gọi, không bỏ việc xóa object (bỏ sẽ để lại file mồ côi).
+     */
+    @Bean
+    public ThreadPoolTaskExecutor attachmentExecutor(
+            @Value("${attachment.executor.pool-size:2}") int poolSize,
+            @Value("${attachment.executor.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("attachment-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Relay của outbox (broadcast, tạo thông báo, email): mỗi destination chạy tối đa một relay trên một thread.
+     * pool-size không nhỏ hơn số destination, để batch email chờ SMTP không giữ thread của broadcast board.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor outboxExecutor(@Value("${outbox.executor.pool-size:4}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize);
+        executor.setThreadNamePrefix("outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+    /**
+     * Gửi message Redis pub/sub tới WebSocket: cùng board/user luôn trên cùng một thread nên giữ thứ tự.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public StripedExecutor pubSubExecutor(@Value("${websocket.pubsub.threads:4}") int threads,
+                                          @Value("${websocket.pubsub.queue-capacity:1000}") int queueCapacity) {
+        return new StripedExecutor("pubsub-", threads, queueCapacity);
+    }
+}
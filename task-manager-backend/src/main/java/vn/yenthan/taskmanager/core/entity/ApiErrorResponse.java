@@ -15,4 +15,5 @@ public class ApiErrorResponse {
     private Object message;
     private Integer code;
     private Instant timestamp;
+    private Object data;
 }
@@ -0,0 +1,26 @@
+package vn.yenthan.taskmanager.core.entity;
+
+
+import lombok.Getter;
+import lombok.ToString;
+import vn.yenthan.taskmanager.core.util.BaseResponse;
+
+import java.util.List;
+
+/**
+ * Phân trang keyset: client gửi lại nextCursor để lấy trang tiếp theo, null khi đã hết dữ liệu.
+ */
+@Getter
+@ToString(callSuper = true)
+public class CursorResponse<T> extends BaseResponse {
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasMore;
+
+    public CursorResponse(List<T> content, String nextCursor, String message, Integer code) {
+        super(true, message, code);
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+}
@@ -15,6 +15,8 @@ public enum ErrorCode {
     SYSTEM_VALIDATION_FAILED(1002, MessageKeys.SYSTEM_VALIDATION_FAILED, HttpStatus.BAD_REQUEST),
     SYSTEM_METHOD_NOT_ALLOWED(1003, MessageKeys.SYSTEM_METHOD_NOT_ALLOWED, HttpStatus.METHOD_NOT_ALLOWED),
     SYSTEM_NOT_FOUND(1004, MessageKeys.SYSTEM_NOT_FOUND, HttpStatus.NOT_FOUND),
+    SYSTEM_CONFLICT(1005, MessageKeys.SYSTEM_CONFLICT, HttpStatus.CONFLICT),
+    SYSTEM_PAYLOAD_TOO_LARGE(1006, MessageKeys.SYSTEM_PAYLOAD_TOO_LARGE, HttpStatus.PAYLOAD_TOO_LARGE),
 
     // --- AUTH / SECURITY (2000-2999)
     AUTH_UNAUTHENTICATED(2000, MessageKeys.AUTH_UNAUTHENTICATED, HttpStatus.UNAUTHORIZED),
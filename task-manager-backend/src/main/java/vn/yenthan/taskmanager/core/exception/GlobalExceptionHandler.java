@@ -4,12 +4,16 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import vn.yenthan.taskmanager.core.component.LocalizationComponent;
 import vn.yenthan.taskmanager.core.component.TranslateMessage;
 import vn.yenthan.taskmanager.core.entity.ApiErrorResponse;
+import vn.yenthan.taskmanager.core.exception.payload.ConflictException;
 import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
 import vn.yenthan.taskmanager.core.exception.payload.ValidationException;
+import vn.yenthan.taskmanager.core.util.ETagUtils;
+import vn.yenthan.taskmanager.core.util.Versioned;
 import vn.yenthan.taskmanager.util.MessageKeys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,6 +21,7 @@ import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import jakarta.validation.ConstraintViolationException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
@@ -68,6 +73,35 @@ public class GlobalExceptionHandler extends TranslateMessage {
         );
     }
 
+    // ------------------- Optimistic locking -------------------
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiErrorResponse> handleConflict(ConflictException ex, WebRequest request) {
+        ApiErrorResponse response = ApiErrorResponse.builder()
+                .code(ErrorCode.SYSTEM_CONFLICT.getCode())
+                .message(translate(ErrorCode.SYSTEM_CONFLICT.getMessage()))
+                .path(request.getDescription(false).replace("uri=", ""))
+                .timestamp(Instant.now())
+                .data(ex.getCurrent())
+                .build();
+        // Kèm ETag của trạng thái hiện tại để client sửa lại và gửi If-Match mới
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(ErrorCode.SYSTEM_CONFLICT.getHttpStatus());
+        if (ex.getCurrent() instanceof Versioned versioned && versioned.getVersion() != null) {
+            builder.eTag(ETagUtils.fromVersion(versioned.getVersion()));
+        }
+        return builder.body(response);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        log.warn("Optimistic locking failure: {}", ex.getMessage());
+        return buildResponseEntity(
+                ErrorCode.SYSTEM_CONFLICT.getCode(),
+                ErrorCode.SYSTEM_CONFLICT.getMessage(),
+                ErrorCode.SYSTEM_CONFLICT.getHttpStatus(),
+                request
+        );
+    }
+
     // ------------------- Spring Security -------------------
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiErrorResponse> handleAccessDenied(WebRequest request) {
@@ -119,6 +153,16 @@ public class GlobalExceptionHandler extends TranslateMessage {
         );
     }
 
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ApiErrorResponse> handleMaxUploadSize(WebRequest request) {
+        return buildResponseEntity(
+                ErrorCode.SYSTEM_PAYLOAD_TOO_LARGE.getCode(),
+                ErrorCode.SYSTEM_PAYLOAD_TOO_LARGE.getMessage(),
+                ErrorCode.SYSTEM_PAYLOAD_TOO_LARGE.getHttpStatus(),
+                request
+        );
+    }
+
     // ------------------- Constraint -------------------
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiErrorResponse> handleMethodArgNotValid(MethodArgumentNotValidException ex, WebRequest request) {
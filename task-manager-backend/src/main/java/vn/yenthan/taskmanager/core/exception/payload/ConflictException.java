@@ -0,0 +1,17 @@
+package vn.yenthan.taskmanager.core.exception.payload;
+
+import lombok.Getter;
+
+/**
+ * Ném ra khi client cập nhật dựa trên một version cũ, kèm trạng thái hiện tại để client retry.
+ */
+@Getter
+public class ConflictException extends RuntimeException {
+
+    private final transient Object current;
+
+    public ConflictException(String message, Object current) {
+        super(message);
+        this.current = current;
+    }
+}
@@ -0,0 +1,14 @@
+package vn.yenthan.taskmanager.core.outbox;
+
+import java.util.List;
+
+/**
+ * Xử lý các message của một destination, theo batch và theo thứ tự ghi.
+ * Ném exception thì cả batch được thử lại sau (at-least-once): handler phải chịu được message lặp.
+ */
+public interface OutboxHandler {
+
+    String destination();
+
+    void handle(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,11 @@
+package vn.yenthan.taskmanager.core.outbox;
+
+import java.time.Instant;
+
+/**
+ * Một dòng tbl_outbox đã được relay nhận. payload là JSON đã serialize lúc ghi.
+ * id và createdAt không đổi giữa các lần thử lại, handler dùng làm khóa chống ghi trùng.
+ */
+public record OutboxMessage(long id, String destination, String aggregateKey, String payload, int attempts,
+                            Instant createdAt) {
+}
@@ -0,0 +1,236 @@
+package vn.yenthan.taskmanager.core.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chuyển message trong tbl_outbox tới handler của destination, theo batch.
+ * Mỗi destination có relay riêng (nhận batch chỉ của destination đó, tối đa một lần chạy trên mỗi node),
+ * nên gửi email chờ SMTP không giữ chân broadcast board hay tạo thông báo.
+ * Batch được nhận bằng FOR UPDATE SKIP LOCKED kèm hạn giữ (next_attempt_at), nên nhiều node chạy relay
+ * không nhận trùng, node chết giữa chừng thì batch được nhận lại. Xử lý xong thì xóa dòng;
+ * lỗi thì thử lại với backoff, quá max-attempts thì đánh dấu FAILED.
+ * Message cùng (destination, aggregate_key) đi theo thứ tự id: không nhận message khi message trước của cùng
+ * aggregate đang được node khác giữ hoặc đang chờ thử lại. Lần nhận của một destination được tuần tự hóa bằng
+ * advisory lock để hai node không cùng lúc nhận hai message liên tiếp của một aggregate.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    // Advisory lock ("outb", hash của destination) tuần tự hóa các lần nhận batch của một destination
+    private static final int CLAIM_LOCK_CLASS = 0x6f757462;
+
+    private static final String CLAIM_SQL = """
+            UPDATE tbl_outbox o
+            SET attempts = o.attempts + 1, next_attempt_at = NOW() + make_interval(secs => ?)
+            WHERE o.id IN (
+                SELECT c.id FROM tbl_outbox c
+                WHERE c.destination = ? AND c.status = 'PENDING' AND c.next_attempt_at <= NOW()
+                  AND NOT EXISTS (
+                      SELECT 1 FROM tbl_outbox e
+                      WHERE e.destination = c.destination AND e.aggregate_key = c.aggregate_key
+                        AND e.id < c.id AND e.status = 'PENDING' AND e.next_attempt_at > NOW()
+                  )
+                ORDER BY c.id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING o.id, o.destination, o.aggregate_key, CAST(o.payload AS TEXT) AS payload, o.attempts, o.created_at
+            """;
+
+    private static final String RETRY_SQL = """
+            UPDATE tbl_outbox
+            SET status = CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                next_attempt_at = NOW() + make_interval(secs => LEAST(? * POWER(2, attempts - 1), ?)),
+                last_error = ?
+            WHERE id = ANY(?)
+            """;
+
+    // Trả lại message chưa lỗi nhưng phải đi sau message lỗi cùng aggregate: không tính lần thử,
+    // message trước đang chờ thử lại nên lần nhận sau vẫn đúng thứ tự
+    private static final String RELEASE_SQL = """
+            UPDATE tbl_outbox SET attempts = attempts - 1, next_attempt_at = NOW()
+            WHERE id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, OutboxHandler> handlers;
+    private final TaskExecutor outboxExecutor;
+    private final Map<String, Semaphore> workers;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.lease-seconds:60}")
+    private int leaseSeconds;
+
+    @Value("${outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${outbox.backoff-seconds:2}")
+    private int backoffSeconds;
+
+    @Value("${outbox.max-backoff-seconds:300}")
+    private int maxBackoffSeconds;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, List<OutboxHandler> handlers,
+                       @Qualifier("outboxExecutor") TaskExecutor outboxExecutor,
+                       @Value("${outbox.executor.pool-size:4}") int poolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxHandler::destination, Function.identity()));
+        this.outboxExecutor = outboxExecutor;
+        this.workers = this.handlers.keySet().stream().collect(Collectors.toMap(Function.identity(), d -> new Semaphore(1)));
+        if (poolSize < this.handlers.size()) {
+            log.warn("outbox.executor.pool-size {} is smaller than the {} outbox destinations: "
+                    + "relays of different destinations will wait for each other", poolSize, this.handlers.size());
+        }
+    }
+
+    /**
+     * Có message mới đã commit: chạy relay của destination ngay nếu nó chưa chạy, không chờ lượt quét định kỳ.
+     */
+    public void wakeUp(String destination) {
+        Semaphore worker = workers.get(destination);
+        // Node chưa có handler (đang rolling deploy) thì để message cho node khác
+        if (worker == null || !worker.tryAcquire()) {
+            return;
+        }
+        try {
+            outboxExecutor.execute(() -> {
+                try {
+                    drain(destination);
+                } finally {
+                    worker.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            worker.release();
+            log.warn("Cannot start outbox relay for {}: {}", destination, e.getMessage());
+        }
+    }
+
+    // Bắt message đến hạn thử lại và message mà lần đánh thức bị bỏ lỡ (relay đang bận)
+    @Scheduled(initialDelayString = "${outbox.poll-interval-ms:1000}",
+            fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        handlers.keySet().forEach(this::wakeUp);
+    }
+
+    private void drain(String destination) {
+        try {
+            List<OutboxMessage> batch;
+            do {
+                batch = claim(destination);
+                if (!batch.isEmpty()) {
+                    dispatch(destination, batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Error relaying outbox {}: {}", destination, e.getMessage(), e);
+        }
+    }
+
+    private List<OutboxMessage> claim(String destination) {
+        return transactionTemplate.execute(status -> {
+            // Đợi lần nhận của node khác commit: câu CLAIM sau đó thấy hạn giữ mới của các message trước
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, hashtext(?))", rs -> {
+            }, CLAIM_LOCK_CLASS, destination);
+            return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxMessage(rs.getLong("id"),
+                    rs.getString("destination"), rs.getString("aggregate_key"), rs.getString("payload"),
+                    rs.getInt("attempts"), rs.getTimestamp("created_at").toInstant()),
+                    leaseSeconds, destination, batchSize);
+        });
+    }
+
+    private void dispatch(String destination, List<OutboxMessage> batch) {
+        List<Long> ids = batch.stream().map(OutboxMessage::id).toList();
+        OutboxHandler handler = handlers.get(destination);
+        try {
+            handler.handle(batch);
+        } catch (OutboxRetryException e) {
+            log.warn("Outbox handler {} failed for {} of {} message(s): {}", destination, e.getFailedIds().size(),
+                    batch.size(), e.getMessage());
+            partialRetry(batch, e);
+            return;
+        } catch (Exception e) {
+            log.warn("Outbox handler {} failed for {} message(s): {}", destination, batch.size(), e.getMessage());
+            retryLater(ids, String.valueOf(e.getMessage()));
+            return;
+        }
+        delete(ids);
+        log.debug("Relayed {} outbox message(s) to {}", batch.size(), destination);
+    }
+
+    // Chỉ thử lại message lỗi; message sau nó trong cùng aggregate được trả lại để chạy lại sau nó,
+    // dù handler đã xử lý, để aggregate không bị xử lý lệch thứ tự
+    private void partialRetry(List<OutboxMessage> batch, OutboxRetryException e) {
+        List<Long> failed = new ArrayList<>();
+        List<Long> held = new ArrayList<>();
+        List<Long> done = new ArrayList<>();
+        Set<String> stoppedAggregates = new HashSet<>();
+        for (OutboxMessage message : batch) {
+            if (e.getFailedIds().contains(message.id())) {
+                failed.add(message.id());
+                if (message.aggregateKey() != null) {
+                    stoppedAggregates.add(message.aggregateKey());
+                }
+            } else if (message.aggregateKey() != null && stoppedAggregates.contains(message.aggregateKey())) {
+                held.add(message.id());
+            } else {
+                done.add(message.id());
+            }
+        }
+        delete(done);
+        if (!held.isEmpty()) {
+            updateIds(RELEASE_SQL, held);
+        }
+        if (!failed.isEmpty()) {
+            retryLater(failed, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void delete(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            updateIds("DELETE FROM tbl_outbox WHERE id = ANY(?)", ids);
+        }
+    }
+
+    private void updateIds(String sql, List<Long> ids) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+
+    private void retryLater(List<Long> ids, String error) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RETRY_SQL);
+            ps.setInt(1, maxAttempts);
+            ps.setInt(2, backoffSeconds);
+            ps.setInt(3, maxBackoffSeconds);
+            ps.setString(4, error);
+            ps.setArray(5, connection.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package vn.yenthan.taskmanager.core.outbox;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Handler ném ra khi chỉ một phần batch lỗi: relay xóa các message còn lại và chỉ thử lại các message này.
+ */
+public class OutboxRetryException extends RuntimeException {
+
+    private final Set<Long> failedIds;
+
+    public OutboxRetryException(String message, Collection<Long> failedIds) {
+        super(message);
+        this.failedIds = Set.copyOf(failedIds);
+    }
+
+    public Set<Long> getFailedIds() {
+        return failedIds;
+    }
+}
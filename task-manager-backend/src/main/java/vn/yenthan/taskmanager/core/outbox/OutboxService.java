@@ -0,0 +1,62 @@
+package vn.yenthan.taskmanager.core.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Ghi side effect (broadcast WebSocket, tạo thông báo) vào tbl_outbox trong cùng transaction với thay đổi dữ liệu:
+ * rollback thì không có gì được gửi, commit thì OutboxRelay chắc chắn gửi (ít nhất một lần).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxRelay outboxRelay;
+
+    @Transactional
+    public void record(String destination, Object aggregateKey, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload for " + destination, e);
+        }
+        jdbcTemplate.update("INSERT INTO tbl_outbox (destination, aggregate_key, payload) VALUES (?, ?, CAST(? AS JSONB))",
+                destination, aggregateKey != null ? aggregateKey.toString() : null, json);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            outboxRelay.wakeUp(destination);
+            return;
+        }
+        // Mỗi transaction chỉ đánh thức relay của mỗi destination một lần
+        @SuppressWarnings("unchecked")
+        Set<String> destinations = (Set<String>) TransactionSynchronizationManager.getResource(OutboxRelay.class);
+        if (destinations == null) {
+            Set<String> pending = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(OutboxRelay.class, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxRelay.class);
+                    if (status == STATUS_COMMITTED) {
+                        pending.forEach(outboxRelay::wakeUp);
+                    }
+                }
+            });
+            destinations = pending;
+        }
+        destinations.add(destination);
+    }
+}
@@ -0,0 +1,42 @@
+package vn.yenthan.taskmanager.core.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Cursor của phân trang keyset: các giá trị sắp xếp của dòng cuối nối bằng '|' rồi mã hóa base64url,
+ * client chỉ coi là chuỗi mờ và gửi lại nguyên vẹn.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... values) {
+        String raw = Arrays.stream(values).map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã cursor gồm đúng count giá trị. Cursor hỏng, kể cả khi parser không đọc được giá trị,
+     * là IllegalArgumentException.
+     */
+    public static <T> T decode(String cursor, int count, Function<String[], T> parser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] values = raw.split(Pattern.quote(SEPARATOR), -1);
+            if (values.length != count) {
+                throw new IllegalArgumentException("Expected " + count + " values");
+            }
+            return parser.apply(values);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
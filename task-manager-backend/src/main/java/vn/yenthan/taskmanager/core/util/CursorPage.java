@@ -0,0 +1,9 @@
+package vn.yenthan.taskmanager.core.util;
+
+import java.util.List;
+
+/**
+ * Một trang kết quả phân trang keyset do service trả về, nextCursor = null khi là trang cuối.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+}
@@ -0,0 +1,87 @@
+package vn.yenthan.taskmanager.core.util;
+
+import vn.yenthan.taskmanager.core.exception.payload.ValidationException;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class ETagUtils {
+
+    private static final Pattern BOARD_REVISION = Pattern.compile("b(\\d+)-r(\\d+)(?:-v(\\d+))?");
+
+    private ETagUtils() {
+    }
+
+    public static String fromVersion(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    /**
+     * ETag của các API đọc board/list: đổi khi bất kỳ thứ gì trong board đổi.
+     * API đọc board kèm thêm version của board, để ETag đó dùng được làm If-Match khi sửa board.
+     */
+    public static String fromBoardRevision(Long boardId, Long revision, Long version) {
+        if (revision == null) {
+            return null;
+        }
+        return "\"b" + boardId + "-r" + revision + (version != null ? "-v" + version : "") + "\"";
+    }
+
+    /**
+     * Đọc version từ header If-Match ("3", W/"3" hoặc 3). Trả về null nếu không có hoặc là "*".
+     */
+    public static Long parseVersion(String ifMatch) {
+        String value = unquote(ifMatch);
+        if (value == null) {
+            return null;
+        }
+        if (BOARD_REVISION.matcher(value).matches()) {
+            throw new ValidationException("If-Match must be the version of the edited entity, not a board ETag: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    /**
+     * Version của board trong If-Match khi sửa board: nhận ETag version hoặc ETag của API đọc board
+     * ("b{boardId}-r{revision}-v{version}"). Revision không được so, vì nó đổi theo mọi thay đổi trong board.
+     */
+    public static Long parseBoardVersion(String ifMatch, Long boardId) {
+        String value = unquote(ifMatch);
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = BOARD_REVISION.matcher(value);
+        if (!matcher.matches()) {
+            return parseVersion(ifMatch);
+        }
+        if (!matcher.group(1).equals(String.valueOf(boardId))) {
+            throw new ValidationException("If-Match header is for another board: " + ifMatch);
+        }
+        if (matcher.group(3) == null) {
+            throw new ValidationException("If-Match header does not carry the board version: " + ifMatch);
+        }
+        try {
+            return Long.parseLong(matcher.group(3));
+        } catch (NumberFormatException e) {
+            throw new ValidationException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private static String unquote(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        return value.replace("\"", "");
+    }
+}
@@ -1,6 +1,7 @@
 package vn.yenthan.taskmanager.core.util;
 
 import org.springframework.data.domain.Page;
+import vn.yenthan.taskmanager.core.entity.CursorResponse;
 import vn.yenthan.taskmanager.core.entity.PageResponse;
 import vn.yenthan.taskmanager.core.entity.SuccessResponse;
 
@@ -32,5 +33,10 @@ public class ResponseUtil {
         return new PageResponse<>(content, page, size, total, code);
     }
 
+    //==================== CURSOR RESPONSE ====================
+    public static <T> CursorResponse<T> ok(Integer code, String message, CursorPage<T> cursorPage) {
+        return new CursorResponse<>(cursorPage.content(), cursorPage.nextCursor(), message, code);
+    }
+
 
 }
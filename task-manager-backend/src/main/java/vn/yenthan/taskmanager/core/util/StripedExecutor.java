@@ -0,0 +1,39 @@
+package vn.yenthan.taskmanager.core.util;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chạy task theo key trên một số thread cố định: cùng key luôn vào cùng một thread nên giữ thứ tự,
+ * key khác nhau chạy song song. Mỗi thread có hàng đợi giới hạn; đầy thì execute ném RejectedExecutionException.
+ */
+public class StripedExecutor {
+
+    private final ThreadPoolExecutor[] stripes;
+
+    public StripedExecutor(String threadNamePrefix, int stripeCount, int queueCapacity) {
+        if (stripeCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Stripe count and queue capacity must be positive");
+        }
+        stripes = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(threadNamePrefix + i + "-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    public void execute(Object key, Runnable task) throws RejectedExecutionException {
+        stripes[Math.floorMod(key.hashCode(), stripes.length)].execute(task);
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+}
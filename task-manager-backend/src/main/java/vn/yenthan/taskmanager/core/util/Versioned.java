@@ -0,0 +1,9 @@
+package vn.yenthan.taskmanager.core.util;
+
+/**
+ * DTO mang version của entity (optimistic locking), dùng cho ETag và thứ tự message WebSocket.
+ */
+public interface Versioned {
+
+    Long getVersion();
+}
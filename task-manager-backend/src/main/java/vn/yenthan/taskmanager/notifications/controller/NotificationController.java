@@ -9,14 +9,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import vn.yenthan.taskmanager.core.entity.CursorResponse;
 import vn.yenthan.taskmanager.core.entity.SuccessResponse;
 import vn.yenthan.taskmanager.core.entity.PageResponse;
 import vn.yenthan.taskmanager.core.util.ResponseUtil;
+import vn.yenthan.taskmanager.notifications.dto.request.UpdateNotificationPreferencesRequest;
 import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationPreferencesDto;
 import vn.yenthan.taskmanager.notifications.service.NotificationService;
+import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
 import vn.yenthan.taskmanager.core.component.TranslateMessage;
 import vn.yenthan.taskmanager.util.MessageKeys;
 
+import java.security.Principal;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -28,6 +34,7 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final TranslateMessage translateMessage;
+    private final UserRepository userRepository;
 
     @GetMapping
     @Operation(summary = "Get notifications by user ID", description = "Retrieve paginated notifications for a user")
@@ -42,8 +49,22 @@ public class NotificationController {
                 notifications);
     }
 
+    @GetMapping("/feed")
+    @Operation(summary = "Get notification feed", description = "Notifications of the current user, newest first, keyset paginated without a total count")
+    public CursorResponse<NotificationDto> getNotificationFeed(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Only unread notifications") @RequestParam(defaultValue = "false") boolean unreadOnly,
+            Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        log.info("GET /api/notifications/feed?size={}&unreadOnly={} - Fetching notification feed of user {}", size, unreadOnly, userId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.NOTIFICATION_GET_SUCCESS),
+                notificationService.getNotificationFeed(userId, cursor, size, unreadOnly));
+    }
+
     @GetMapping("/unread")
-    @Operation(summary = "Get unread notifications", description = "Retrieve all unread notifications for a user")
+    @Operation(summary = "Get unread notifications", description = "Retrieve the newest unread notifications for a user (max 100), use the feed for more")
     public SuccessResponse<List<NotificationDto>> getUnreadNotifications(
             @Parameter(description = "User ID") @RequestParam Long userId) {
         log.info("GET /api/notifications/unread?userId={} - Fetching unread notifications for user", userId);
@@ -62,12 +83,36 @@ public class NotificationController {
                 notificationService.getUnreadNotificationCount(userId));
     }
 
+    @GetMapping("/preferences")
+    @Operation(summary = "Get notification preferences", description = "Channels and categories the current user receives notifications for")
+    public SuccessResponse<NotificationPreferencesDto> getNotificationPreferences(Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        log.info("GET /api/notifications/preferences - Fetching notification preferences of user {}", userId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.NOTIFICATION_PREFERENCES_GET_SUCCESS),
+                notificationService.getNotificationPreferences(userId));
+    }
+
+    @PutMapping("/preferences")
+    @Operation(summary = "Update notification preferences", description = "Update some notification preferences, omitted fields are kept")
+    public SuccessResponse<NotificationPreferencesDto> updateNotificationPreferences(
+            @RequestBody UpdateNotificationPreferencesRequest request,
+            Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        log.info("PUT /api/notifications/preferences - Updating notification preferences of user {}", userId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.NOTIFICATION_PREFERENCES_UPDATE_SUCCESS),
+                notificationService.updateNotificationPreferences(userId, request));
+    }
+
     @PutMapping("/{id}/read")
     @Operation(summary = "Mark notification as read", description = "Mark a specific notification as read")
     public SuccessResponse<String> markNotificationAsRead(
-            @Parameter(description = "Notification ID") @PathVariable Long id) {
+            @Parameter(description = "Notification ID") @PathVariable Long id,
+            @Parameter(description = "createdAt of the notification, lets the database read only its partition")
+            @RequestParam(required = false) Instant createdAt) {
         log.info("PUT /api/notifications/{}/read - Marking notification as read", id);
-        notificationService.markNotificationAsRead(id);
+        notificationService.markNotificationAsRead(id, createdAt);
         return ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.NOTIFICATION_MARK_READ_SUCCESS));
     }
@@ -82,13 +127,68 @@ public class NotificationController {
                 translateMessage.translate(MessageKeys.NOTIFICATION_MARK_ALL_READ_SUCCESS));
     }
 
+    @PutMapping("/read-up-to")
+    @Operation(summary = "Mark notifications as read up to a point",
+            description = "Mark unread notifications up to an ID or creation time as read, newer ones stay unread")
+    public SuccessResponse<Integer> markNotificationsAsReadUpTo(
+            @Parameter(description = "Highest notification ID to mark as read") @RequestParam(required = false) Long maxId,
+            @Parameter(description = "Mark notifications created at or before this instant (ISO-8601)")
+            @RequestParam(required = false) Instant before,
+            Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        log.info("PUT /api/notifications/read-up-to?maxId={}&before={} - user {}", maxId, before, userId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.NOTIFICATION_MARK_READ_UP_TO_SUCCESS),
+                notificationService.markNotificationsAsReadUpTo(userId, maxId, before));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Delete notifications", description = "Delete several notifications of the current user (max 1000 IDs)")
+    public SuccessResponse<Integer> deleteNotifications(
+            @Parameter(description = "Notification IDs") @RequestParam List<Long> ids,
+            @Parameter(description = "Oldest createdAt among the IDs, lets the database skip older partitions")
+            @RequestParam(required = false) Instant from,
+            Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        log.info("DELETE /api/notifications - Deleting {} notifications of user {}", ids.size(), userId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.NOTIFICATION_BULK_DELETE_SUCCESS),
+                notificationService.deleteNotifications(userId, ids, from));
+    }
+
+    @DeleteMapping("/read")
+    @Operation(summary = "Delete read notifications", description = "Delete all read notifications of the current user")
+    public SuccessResponse<Integer> deleteReadNotifications(Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+        log.info("DELETE /api/notifications/read - Deleting read notifications of user {}", userId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.NOTIFICATION_BULK_DELETE_SUCCESS),
+                notificationService.deleteReadNotifications(userId));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete notification", description = "Delete a specific notification")
     public SuccessResponse<String> deleteNotification(
-            @Parameter(description = "Notification ID") @PathVariable Long id) {
+            @Parameter(description = "Notification ID") @PathVariable Long id,
+            @Parameter(description = "createdAt of the notification, lets the database read only its partition")
+            @RequestParam(required = false) Instant createdAt) {
         log.info("DELETE /api/notifications/{} - Deleting notification", id);
-        notificationService.deleteNotification(id);
+        notificationService.deleteNotification(id, createdAt);
         return ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.NOTIFICATION_DELETE_SUCCESS));
     }
+
+    private Long extractUserIdFromPrincipal(Principal principal) {
+        if (principal == null) {
+            throw new IllegalArgumentException("User not authenticated");
+        }
+        try {
+            String username = principal.getName();
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found with username: " + username))
+                    .getId();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid user authentication: " + e.getMessage());
+        }
+    }
 }
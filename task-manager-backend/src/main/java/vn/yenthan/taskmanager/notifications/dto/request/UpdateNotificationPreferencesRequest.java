@@ -0,0 +1,20 @@
+package vn.yenthan.taskmanager.notifications.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Trường null: giữ nguyên giá trị hiện tại
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateNotificationPreferencesRequest {
+    private Boolean email;
+    private Boolean push;
+    private Boolean inApp;
+    private Boolean cardUpdates;
+    private Boolean boardUpdates;
+    private Boolean memberUpdates;
+}
@@ -1,5 +1,6 @@
 package vn.yenthan.taskmanager.notifications.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonRawValue;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,5 +24,7 @@ public class NotificationDto {
     private String actorAvatar;
     private Boolean isRead;
     private String createdAt;
-    private Object metadata;
+    // JSON đã serialize sẵn trong DB, ghi nguyên văn vào response
+    @JsonRawValue
+    private String metadata;
 }
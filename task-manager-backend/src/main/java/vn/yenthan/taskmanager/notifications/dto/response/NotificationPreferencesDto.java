@@ -0,0 +1,19 @@
+package vn.yenthan.taskmanager.notifications.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreferencesDto {
+    private Boolean email;
+    private Boolean push;
+    private Boolean inApp;
+    private Boolean cardUpdates;
+    private Boolean boardUpdates;
+    private Boolean memberUpdates;
+}
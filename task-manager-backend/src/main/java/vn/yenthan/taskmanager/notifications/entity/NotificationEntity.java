@@ -41,8 +41,9 @@ public class NotificationEntity extends EntityBase {
     @JoinColumn(name = "card_id")
     private CardEntity card;
 
+    // null: thông báo do hệ thống tạo (nhắc hạn)
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "actor_id", nullable = false)
+    @JoinColumn(name = "actor_id")
     private User actor;
 
     @Column(name = "is_read")
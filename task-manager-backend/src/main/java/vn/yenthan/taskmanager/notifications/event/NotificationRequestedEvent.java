@@ -0,0 +1,38 @@
+package vn.yenthan.taskmanager.notifications.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * Yêu cầu tạo cùng một thông báo cho nhiều người nhận, ghi vào outbox trong transaction của thao tác gây ra thông báo.
+ * Chỉ được ghi vào tbl_notification sau khi transaction đó commit.
+ */
+@Getter
+@ToString
+@Builder
+@Jacksonized
+@AllArgsConstructor
+public class NotificationRequestedEvent {
+
+    private final String type;
+    private final String title;
+    private final String message;
+    private final Long boardId;
+    private final Long cardId;
+    // null: thông báo hệ thống
+    private final Long actorId;
+    private final String metadata;
+    private final List<Long> recipientIds;
+    // Giá trị created_by/updated_by, lấy từ user đang đăng nhập lúc phát event
+    private final String auditor;
+
+    public NotificationRequestedEvent withRecipientIds(List<Long> recipientIds) {
+        return new NotificationRequestedEvent(type, title, message, boardId, cardId, actorId, metadata,
+                recipientIds, auditor);
+    }
+}
@@ -0,0 +1,19 @@
+package vn.yenthan.taskmanager.notifications.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+
+import java.util.List;
+
+/**
+ * Các thông báo vừa được ghi vào tbl_notification, để đẩy tới người nhận.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NotificationsCreatedEvent {
+
+    private final List<NotificationDto> notifications;
+}
@@ -0,0 +1,19 @@
+package vn.yenthan.taskmanager.notifications.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+
+import java.util.List;
+
+/**
+ * Các thông báo digest vừa được gộp thêm nội dung; không đổi số chưa đọc.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class NotificationsUpdatedEvent {
+
+    private final List<NotificationDto> notifications;
+}
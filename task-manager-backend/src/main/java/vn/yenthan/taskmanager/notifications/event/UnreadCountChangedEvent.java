@@ -0,0 +1,19 @@
+package vn.yenthan.taskmanager.notifications.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Số thông báo chưa đọc của user thay đổi do đọc/xóa thông báo (delta < 0).
+ * reset = true: user đã đọc hết, số chưa đọc về 0.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UnreadCountChangedEvent {
+
+    private final Long userId;
+    private final long delta;
+    private final boolean reset;
+}
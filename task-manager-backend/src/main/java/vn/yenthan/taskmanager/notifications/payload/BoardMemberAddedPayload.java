@@ -0,0 +1,4 @@
+package vn.yenthan.taskmanager.notifications.payload;
+
+public record BoardMemberAddedPayload(String boardName) implements NotificationPayload {
+}
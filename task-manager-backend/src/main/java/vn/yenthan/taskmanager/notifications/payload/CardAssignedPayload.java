@@ -0,0 +1,4 @@
+package vn.yenthan.taskmanager.notifications.payload;
+
+public record CardAssignedPayload(String cardTitle) implements NotificationPayload {
+}
@@ -0,0 +1,6 @@
+package vn.yenthan.taskmanager.notifications.payload;
+
+import java.time.Instant;
+
+public record CardDueSoonPayload(Instant dueDate) implements NotificationPayload {
+}
@@ -0,0 +1,7 @@
+package vn.yenthan.taskmanager.notifications.payload;
+
+import java.util.List;
+
+// Dạng digest: các card được cập nhật trên cùng board, được gộp dần trong NotificationWriter
+public record CardUpdatedPayload(List<Long> cardIds, int count) implements NotificationPayload {
+}
@@ -0,0 +1,9 @@
+package vn.yenthan.taskmanager.notifications.payload;
+
+/**
+ * Nội dung riêng của từng loại thông báo, lưu ở cột metadata.
+ * Được serialize một lần lúc tạo; khi đọc feed chuỗi JSON được trả thẳng cho client, server không parse lại.
+ * Trường dùng để lọc (người nhận, loại, board, card, đã đọc) là cột riêng, không nằm trong payload.
+ */
+public interface NotificationPayload {
+}
@@ -0,0 +1,29 @@
+package vn.yenthan.taskmanager.notifications.payload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chuyển payload theo loại thông báo sang chuỗi JSON của cột metadata.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationPayloadCodec {
+
+    private static final String EMPTY = "{}";
+
+    private final ObjectMapper objectMapper;
+
+    public String write(NotificationPayload payload) {
+        if (payload == null) {
+            return EMPTY;
+        }
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize notification payload " + payload, e);
+        }
+    }
+}
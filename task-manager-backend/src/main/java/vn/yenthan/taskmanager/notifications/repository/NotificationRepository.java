@@ -3,28 +3,110 @@ package vn.yenthan.taskmanager.notifications.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import vn.yenthan.taskmanager.notifications.entity.NotificationEntity;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<NotificationEntity, Long> {
 
-    @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
-           "WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
+    // countQuery riêng: không để Spring Data tự suy ra COUNT từ câu có JOIN FETCH
+    @Query(value = "SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
+                   "WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC",
+           countQuery = "SELECT COUNT(n) FROM NotificationEntity n WHERE n.user.id = :userId")
     Page<NotificationEntity> findByUserIdWithActor(@Param("userId") Long userId, Pageable pageable);
 
     @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
-           "WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC")
-    List<NotificationEntity> findUnreadByUserId(@Param("userId") Long userId);
+           "WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationEntity> findUnreadByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Feed keyset theo (created_at, id) giảm dần: idx_notification_user_created_id / idx_notification_unread_user_created_id
+    @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
+           "WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationEntity> findFeed(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
+           "WHERE n.user.id = :userId AND (n.createdAt, n.id) < (:beforeCreatedAt, :beforeId) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationEntity> findFeedBefore(@Param("userId") Long userId,
+                                            @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                            @Param("beforeId") Long beforeId,
+                                            Pageable pageable);
+
+    @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
+           "WHERE n.user.id = :userId AND n.isRead = false ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationEntity> findUnreadFeed(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
+           "WHERE n.user.id = :userId AND n.isRead = false " +
+           "AND (n.createdAt, n.id) < (:beforeCreatedAt, :beforeId) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationEntity> findUnreadFeedBefore(@Param("userId") Long userId,
+                                                  @Param("beforeCreatedAt") Instant beforeCreatedAt,
+                                                  @Param("beforeId") Long beforeId,
+                                                  Pageable pageable);
 
     @Query("SELECT COUNT(n) FROM NotificationEntity n WHERE n.user.id = :userId AND n.isRead = false")
     Long countUnreadByUserId(@Param("userId") Long userId);
 
+    // [userId, count] cho các user có thông báo chưa đọc (đối soát counter trên Redis)
+    @Query("SELECT n.user.id, COUNT(n) FROM NotificationEntity n " +
+           "WHERE n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Các thao tác hàng loạt: một câu UPDATE/DELETE, không nạp entity
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.user.id = :userId AND n.isRead = false AND n.id <= :maxId")
+    int markReadUpToId(@Param("userId") Long userId, @Param("maxId") Long maxId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.user.id = :userId AND n.isRead = false AND n.createdAt <= :before")
+    int markReadUpTo(@Param("userId") Long userId, @Param("before") Instant before, @Param("now") Instant now);
+
+    // Theo id: điều kiện created_at để PostgreSQL chỉ quét partition chứa dòng đó
+    Optional<NotificationEntity> findByIdAndCreatedAtBetween(Long id, Instant from, Instant to);
+
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = true, n.updatedAt = :now " +
+           "WHERE n.id = :id AND n.createdAt BETWEEN :from AND :to AND n.isRead = false")
+    int markReadById(@Param("id") Long id, @Param("from") Instant from, @Param("to") Instant to,
+                     @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM NotificationEntity n WHERE n.id = :id AND n.createdAt BETWEEN :from AND :to")
+    int deleteByIdWithin(@Param("id") Long id, @Param("from") Instant from, @Param("to") Instant to);
+
+    // Xóa phần chưa đọc trước để biết số chưa đọc giảm bao nhiêu; from bỏ qua các partition cũ hơn
+    @Modifying
+    @Query("DELETE FROM NotificationEntity n WHERE n.user.id = :userId AND n.id IN :ids " +
+           "AND n.createdAt >= :from AND n.isRead = false")
+    int deleteUnreadByUserIdAndIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                                   @Param("from") Instant from);
+
+    @Modifying
+    @Query("DELETE FROM NotificationEntity n WHERE n.user.id = :userId AND n.id IN :ids AND n.createdAt >= :from")
+    int deleteByUserIdAndIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                             @Param("from") Instant from);
+
+    @Modifying
+    @Query("DELETE FROM NotificationEntity n WHERE n.user.id = :userId AND n.isRead = true")
+    int deleteReadByUserId(@Param("userId") Long userId);
+
     @Query("SELECT n FROM NotificationEntity n LEFT JOIN FETCH n.actor a " +
-           "WHERE n.user.id = :userId AND n.type = :type ORDER BY n.createdAt DESC")
+           "WHERE n.user.id = :userId AND n.type = :type ORDER BY n.createdAt DESC, n.id DESC")
     List<NotificationEntity> findByUserIdAndType(@Param("userId") Long userId, @Param("type") String type);
 }
@@ -0,0 +1,219 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardReminderView;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.CardDueDateChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Nhắc hạn card: lịch nhắc nằm trong Redis sorted set (member = card id, score = due date epoch ms),
+ * dùng chung giữa các node. Mỗi lần đổi due date chỉ là một ZADD/ZREM; job định kỳ chỉ đọc phần đầu
+ * của sorted set (các card sắp đến hạn), không quét tbl_card.
+ * Thông báo nhắc đi qua outbox như mọi thông báo khác (tùy chọn người nhận, số chưa đọc, realtime).
+ * Due date đã nhắc được ghi vào tbl_card.reminded_due_date cùng transaction với yêu cầu thông báo,
+ * để lần nạp lại lịch từ DB không nhắc lại card đã nhắc.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CardReminderService {
+
+    private static final String DUE_KEY = "card:due";
+    // Đánh dấu sorted set đã được nạp từ DB; mất key (Redis restart/flush) thì nạp lại một lần
+    private static final String LOADED_KEY = "card:due:loaded";
+    private static final String LOAD_LOCK_KEY = "card:due:loading";
+    private static final int LOAD_CHUNK_SIZE = 1000;
+    // Card đã nhắc đúng due date hiện tại không được đưa lại vào lịch
+    private static final String NOT_REMINDED = "c.reminded_due_date IS DISTINCT FROM c.date";
+    // Chỉ đánh dấu nếu due date chưa đổi kể từ lúc đọc: due date mới vẫn được nhắc
+    private static final String MARK_REMINDED_SQL =
+            "UPDATE tbl_card SET reminded_due_date = date WHERE id = ? AND date = ?";
+
+    // Lấy và xóa nguyên tử các card đến hạn: mỗi card chỉ được một node nhận.
+    // Trả về [id, score, id, score, ...] để trả lại lịch khi ghi yêu cầu thông báo lỗi
+    @SuppressWarnings("unchecked")
+    private static final RedisScript<List<String>> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local entries = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'WITHSCORES', 'LIMIT', 0, ARGV[2])
+            local ids = {}
+            for i = 1, #entries, 2 do
+                ids[#ids + 1] = entries[i]
+            end
+            if #ids > 0 then
+                redis.call('ZREM', KEYS[1], unpack(ids))
+            end
+            return entries
+            """, (Class<List<String>>) (Class<?>) List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final CardMemberRepository cardMemberRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Nhắc trước hạn bao lâu
+    @Value("${notification.reminder.lead-ms:3600000}")
+    private long leadMs;
+
+    @Value("${notification.reminder.batch-size:200}")
+    private int batchSize;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDueDateChanged(CardDueDateChangedEvent event) {
+        try {
+            String member = event.getCardId().toString();
+            if (event.getDueDate() == null || !event.getDueDate().isAfter(Instant.now())) {
+                redisTemplate.opsForZSet().remove(DUE_KEY, member);
+            } else {
+                redisTemplate.opsForZSet().add(DUE_KEY, member, event.getDueDate().toEpochMilli());
+            }
+        } catch (Exception e) {
+            log.error("Error scheduling reminder for card {}: {}", event.getCardId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Board mới tạo bằng clone/import có card được insert trực tiếp bằng SQL, không qua CardService.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent event) {
+        if (event.getEntityType() != BoardChangedEvent.EntityType.BOARD
+                || event.getAction() != BoardChangedEvent.Action.CREATED) {
+            return;
+        }
+        try {
+            loadUpcoming("SELECT c.id, c.date FROM tbl_card c JOIN tbl_list l ON l.id = c.laneId " +
+                    "WHERE l.board_id = ? AND c.date > ? AND " + NOT_REMINDED, event.getBoardId(), Timestamp.from(Instant.now()));
+        } catch (Exception e) {
+            log.error("Error scheduling reminders for board {}: {}", event.getBoardId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Nạp lịch từ DB khi khởi động, và định kỳ kiểm tra lại: Redis bị flush/restart làm mất LOADED_KEY
+     * thì lịch được nạp lại mà không cần restart ứng dụng.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${notification.reminder.resync-interval-ms:300000}",
+            fixedDelayString = "${notification.reminder.resync-interval-ms:300000}")
+    public void loadSchedule() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(LOADED_KEY))
+                    || !Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOAD_LOCK_KEY, "1", Duration.ofMinutes(5)))) {
+                return;
+            }
+            int count = loadUpcoming("SELECT c.id, c.date FROM tbl_card c WHERE c.date > ? AND " + NOT_REMINDED,
+                    Timestamp.from(Instant.now()));
+            redisTemplate.opsForValue().set(LOADED_KEY, Instant.now().toString());
+            redisTemplate.delete(LOAD_LOCK_KEY);
+            log.info("Loaded {} upcoming card due dates into reminder schedule", count);
+        } catch (Exception e) {
+            log.error("Error loading reminder schedule: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${notification.reminder.poll-interval-ms:30000}",
+            fixedDelayString = "${notification.reminder.poll-interval-ms:30000}")
+    public void sendDueReminders() {
+        String horizon = String.valueOf(Instant.now().toEpochMilli() + leadMs);
+        while (true) {
+            List<String> claimed;
+            try {
+                claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(DUE_KEY), horizon, String.valueOf(batchSize));
+            } catch (Exception e) {
+                log.error("Error claiming due reminders: {}", e.getMessage());
+                return;
+            }
+            if (claimed == null || claimed.isEmpty()) {
+                return;
+            }
+            Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>();
+            for (int i = 0; i < claimed.size(); i += 2) {
+                entries.add(new DefaultTypedTuple<>(claimed.get(i), Double.valueOf(claimed.get(i + 1))));
+            }
+            List<Long> cardIds = entries.stream().map(entry -> Long.valueOf(entry.getValue())).toList();
+            try {
+                // Card đã bị xóa hoặc bỏ due date không còn dòng nào
+                List<CardReminderView> reminders = cardMemberRepository.findReminderViewsByCardIds(cardIds);
+                transactionTemplate.executeWithoutResult(status -> {
+                    notificationService.createDueDateReminders(reminders);
+                    markReminded(reminders);
+                });
+            } catch (Exception e) {
+                log.error("Error sending due reminders for cards {}: {}", cardIds, e.getMessage(), e);
+                release(entries);
+                return;
+            }
+            if (entries.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void markReminded(List<CardReminderView> reminders) {
+        Map<Long, Instant> dueDates = new LinkedHashMap<>();
+        reminders.forEach(reminder -> dueDates.putIfAbsent(reminder.cardId(), reminder.date()));
+        if (dueDates.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARK_REMINDED_SQL, dueDates.entrySet().stream()
+                .map(entry -> new Object[]{entry.getKey(), Timestamp.from(entry.getValue())})
+                .toList());
+    }
+
+    // Trả lại lịch các card đã nhận; NX: không ghi đè due date vừa được đổi trong lúc đó
+    private void release(Set<ZSetOperations.TypedTuple<String>> entries) {
+        try {
+            redisTemplate.opsForZSet().addIfAbsent(DUE_KEY, entries);
+        } catch (Exception e) {
+            log.error("Error rescheduling {} reminder(s): {}", entries.size(), e.getMessage());
+        }
+    }
+
+    private int loadUpcoming(String sql, Object... args) {
+        List<ZSetOperations.TypedTuple<String>> chunk = new ArrayList<>(LOAD_CHUNK_SIZE);
+        int[] count = {0};
+        jdbcTemplate.query(sql, rs -> {
+            chunk.add(new DefaultTypedTuple<>(String.valueOf(rs.getLong("id")),
+                    (double) rs.getTimestamp("date").toInstant().toEpochMilli()));
+            if (chunk.size() == LOAD_CHUNK_SIZE) {
+                count[0] += flush(chunk);
+            }
+        }, args);
+        return count[0] + flush(chunk);
+    }
+
+    private int flush(List<ZSetOperations.TypedTuple<String>> chunk) {
+        int size = chunk.size();
+        if (size > 0) {
+            redisTemplate.opsForZSet().add(DUE_KEY, new HashSet<>(chunk));
+            chunk.clear();
+        }
+        return size;
+    }
+}
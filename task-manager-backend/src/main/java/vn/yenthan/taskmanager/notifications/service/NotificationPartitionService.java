@@ -0,0 +1,150 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bảo trì partition theo tháng của tbl_notification (PARTITION BY RANGE (created_at)):
+ * tạo trước partition cho các tháng tới và xóa cả partition khi hết hạn lưu thay vì DELETE từng dòng.
+ * Partition cũ hơn read-months chỉ bị xóa khi mọi thông báo trong đó đã đọc;
+ * cũ hơn max-months thì xóa luôn.
+ * Partition mới được tạo như bảng rời rồi ATTACH, sau khi chuyển sang các dòng của tháng đó đã rơi vào partition default.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPartitionService {
+
+    private static final String PARENT_TABLE = "tbl_notification";
+    private static final String DEFAULT_PARTITION = "tbl_notification_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^tbl_notification_p(\\d{4})(\\d{2})$");
+    private static final String LOCK_KEY = "notification:partition-maintenance:lock";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${notification.partition.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${notification.retention.read-months:3}")
+    private int readRetentionMonths;
+
+    @Value("${notification.retention.max-months:12}")
+    private int maxRetentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${notification.partition.cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofMinutes(10)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Cannot acquire notification partition lock: {}", e.getMessage());
+            return;
+        }
+        try {
+            createUpcomingPartitions();
+            dropExpiredPartitions();
+        } catch (Exception e) {
+            log.error("Error maintaining notification partitions: {}", e.getMessage(), e);
+        } finally {
+            try {
+                redisTemplate.delete(LOCK_KEY);
+            } catch (DataAccessException e) {
+                log.warn("Cannot release notification partition lock: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                createPartition(month);
+            } catch (DataAccessException e) {
+                log.error("Cannot create notification partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * CREATE TABLE ... PARTITION OF bị từ chối khi partition default đã có dòng thuộc tháng đó
+     * (job chưa kịp tạo trước). Trong một transaction: khóa partition default để không có dòng mới rơi vào,
+     * chuyển các dòng của tháng sang bảng mới rồi ATTACH (index, khóa ngoại của bảng cha được tạo theo).
+     */
+    void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))) {
+            return;
+        }
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + PARENT_TABLE
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN ACCESS EXCLUSIVE MODE");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                    + " WHERE created_at >= ? AND created_at < ? RETURNING *) INSERT INTO " + partition
+                    + " SELECT * FROM moved", Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " ATTACH PARTITION " + partition
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            log.info("Created notification partition {} ({} row(s) moved from the default partition)", partition, moved);
+        });
+    }
+
+    void dropExpiredPartitions() {
+        LocalDate readCutoff = YearMonth.now().minusMonths(readRetentionMonths).atDay(1);
+        LocalDate maxCutoff = YearMonth.now().minusMonths(maxRetentionMonths).atDay(1);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ? ORDER BY c.relname",
+                String.class, PARENT_TABLE);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            LocalDate upperBound = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                    .plusMonths(1).atDay(1);
+            if (upperBound.isAfter(readCutoff)) {
+                continue;
+            }
+            if (upperBound.isAfter(maxCutoff) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE is_read = false)", Boolean.class))) {
+                log.debug("Keeping notification partition {} with unread notifications", partition);
+                continue;
+            }
+            // Counter chưa đọc trên Redis của người có thông báo chưa đọc bị xóa sẽ được reconcile sửa lại
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            log.info("Dropped expired notification partition {}", partition);
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("%s_p%04d%02d", PARENT_TABLE, month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,222 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.yenthan.taskmanager.notifications.dto.request.UpdateNotificationPreferencesRequest;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationPreferencesDto;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tùy chọn nhận thông báo (tbl_user_preferences.notifications) dạng bitmask, cache trên Redis
+ * (notification:prefs:{userId}) để lọc người nhận lúc ghi thông báo mà không query DB.
+ * User chưa có dòng tùy chọn nhận mọi thứ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPreferenceService {
+
+    public static final int EMAIL = 1;
+    public static final int PUSH = 1 << 1;
+    public static final int IN_APP = 1 << 2;
+    public static final int CARD_UPDATES = 1 << 3;
+    public static final int BOARD_UPDATES = 1 << 4;
+    public static final int MEMBER_UPDATES = 1 << 5;
+    public static final int ALL = EMAIL | PUSH | IN_APP | CARD_UPDATES | BOARD_UPDATES | MEMBER_UPDATES;
+
+    private static final String KEY_PREFIX = "notification:prefs:";
+    private static final Duration TTL = Duration.ofDays(1);
+
+    // Thứ tự khớp với các bit ở trên
+    private static final String[] FIELDS = {"email", "push", "inApp", "cardUpdates", "boardUpdates", "memberUpdates"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Nhóm tùy chọn quyết định một loại thông báo; 0: loại không thuộc nhóm nào, luôn gửi.
+     */
+    public static int categoryOf(String type) {
+        if (type == null) {
+            return 0;
+        }
+        return switch (type) {
+            case NotificationService.TYPE_CARD_UPDATED, NotificationService.TYPE_CARD_DUE_SOON -> CARD_UPDATES;
+            case NotificationService.TYPE_CARD_ASSIGNED, NotificationService.TYPE_BOARD_MEMBER_ADDED -> MEMBER_UPDATES;
+            default -> type.startsWith("BOARD_") ? BOARD_UPDATES : 0;
+        };
+    }
+
+    /**
+     * Người nhận còn bật thông báo trong app và nhóm của loại thông báo này.
+     */
+    public List<Long> filterRecipients(String type, Collection<Long> userIds) {
+        int required = IN_APP | categoryOf(type);
+        Map<Long, Integer> masks = getMasks(userIds);
+        return userIds.stream()
+                .filter(userId -> (masks.getOrDefault(userId, ALL) & required) == required)
+                .toList();
+    }
+
+    /**
+     * Bitmask của từng user: một MGET trên Redis, phần thiếu đọc DB một query rồi ghi lại cache.
+     */
+    public Map<Long, Integer> getMasks(Collection<Long> userIds) {
+        Map<Long, Integer> masks = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return masks;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        try {
+            List<String> cached = redisTemplate.opsForValue().multiGet(ids.stream().map(NotificationPreferenceService::key).toList());
+            for (int i = 0; cached != null && i < ids.size(); i++) {
+                if (cached.get(i) != null) {
+                    masks.put(ids.get(i), Integer.parseInt(cached.get(i)));
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Cannot read notification preferences cache: {}", e.getMessage());
+        }
+
+        List<Long> missing = ids.stream().filter(userId -> !masks.containsKey(userId)).toList();
+        if (missing.isEmpty()) {
+            return masks;
+        }
+        Map<Long, Integer> loaded = new HashMap<>();
+        missing.forEach(userId -> loaded.put(userId, ALL));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT user_id, CAST(notifications AS TEXT) AS notifications FROM tbl_user_preferences " +
+                    "WHERE user_id = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("bigint", missing.toArray()));
+            return ps;
+        }, rs -> {
+            loaded.put(rs.getLong("user_id"), toMask(rs.getString("notifications")));
+        });
+        masks.putAll(loaded);
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    loaded.forEach((userId, mask) -> operations.opsForValue().set(key(userId), String.valueOf(mask), TTL));
+                    return null;
+                }
+            });
+        } catch (DataAccessException e) {
+            log.warn("Cannot store notification preferences cache: {}", e.getMessage());
+        }
+        return masks;
+    }
+
+    public int getMask(Long userId) {
+        return getMasks(List.of(userId)).getOrDefault(userId, ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public NotificationPreferencesDto getPreferences(Long userId) {
+        return toDto(getMask(userId));
+    }
+
+    @Transactional
+    public NotificationPreferencesDto updatePreferences(Long userId, UpdateNotificationPreferencesRequest request,
+                                                       String auditor) {
+        Boolean[] values = {request.getEmail(), request.getPush(), request.getInApp(),
+                request.getCardUpdates(), request.getBoardUpdates(), request.getMemberUpdates()};
+        ObjectNode patch = objectMapper.createObjectNode();
+        ObjectNode full = objectMapper.createObjectNode();
+        for (int i = 0; i < FIELDS.length; i++) {
+            full.put(FIELDS[i], values[i] == null || values[i]);
+            if (values[i] != null) {
+                patch.put(FIELDS[i], values[i]);
+            }
+        }
+        String notifications = jdbcTemplate.queryForObject(
+                "INSERT INTO tbl_user_preferences (user_id, notifications, created_by, updated_by) " +
+                "VALUES (?, CAST(? AS JSONB), ?, ?) " +
+                "ON CONFLICT (user_id) DO UPDATE SET notifications = " +
+                "COALESCE(tbl_user_preferences.notifications, CAST('{}' AS JSONB)) || CAST(? AS JSONB), " +
+                "updated_at = NOW(), updated_by = EXCLUDED.updated_by " +
+                "RETURNING CAST(notifications AS TEXT)",
+                String.class, userId, full.toString(), auditor, auditor, patch.toString());
+        int mask = toMask(notifications);
+        evictAfterCommit(userId);
+        log.info("Updated notification preferences of user {}", userId);
+        return toDto(mask);
+    }
+
+    // Xóa cache sau commit, không để lần đọc chen giữa ghi lại giá trị cũ
+    private void evictAfterCommit(Long userId) {
+        Runnable evict = () -> {
+            try {
+                redisTemplate.delete(key(userId));
+            } catch (DataAccessException e) {
+                log.warn("Cannot evict notification preferences of user {}: {}", userId, e.getMessage());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    private int toMask(String notifications) {
+        if (notifications == null) {
+            return ALL;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(notifications);
+            int mask = 0;
+            for (int i = 0; i < FIELDS.length; i++) {
+                // Trường thiếu coi như bật, giống giá trị mặc định của cột
+                if (!node.has(FIELDS[i]) || node.get(FIELDS[i]).asBoolean(true)) {
+                    mask |= 1 << i;
+                }
+            }
+            return mask;
+        } catch (Exception e) {
+            log.warn("Invalid notification preferences {}: {}", notifications, e.getMessage());
+            return ALL;
+        }
+    }
+
+    private static NotificationPreferencesDto toDto(int mask) {
+        return NotificationPreferencesDto.builder()
+                .email((mask & EMAIL) != 0)
+                .push((mask & PUSH) != 0)
+                .inApp((mask & IN_APP) != 0)
+                .cardUpdates((mask & CARD_UPDATES) != 0)
+                .boardUpdates((mask & BOARD_UPDATES) != 0)
+                .memberUpdates((mask & MEMBER_UPDATES) != 0)
+                .build();
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
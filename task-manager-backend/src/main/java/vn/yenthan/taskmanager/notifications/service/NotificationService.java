@@ -2,24 +2,43 @@ package vn.yenthan.taskmanager.notifications.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.core.outbox.OutboxService;
+import vn.yenthan.taskmanager.core.util.CursorCodec;
+import vn.yenthan.taskmanager.core.util.CursorPage;
+import vn.yenthan.taskmanager.notifications.dto.request.UpdateNotificationPreferencesRequest;
 import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationPreferencesDto;
 import vn.yenthan.taskmanager.notifications.entity.NotificationEntity;
+import vn.yenthan.taskmanager.notifications.event.NotificationRequestedEvent;
+import vn.yenthan.taskmanager.notifications.event.UnreadCountChangedEvent;
 import vn.yenthan.taskmanager.notifications.mapper.NotificationMapper;
+import vn.yenthan.taskmanager.notifications.payload.CardDueSoonPayload;
+import vn.yenthan.taskmanager.notifications.payload.NotificationPayload;
+import vn.yenthan.taskmanager.notifications.payload.NotificationPayloadCodec;
 import vn.yenthan.taskmanager.notifications.repository.NotificationRepository;
-import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
-import vn.yenthan.taskmanager.scrumboard.entity.CardEntity;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardReminderView;
 import vn.yenthan.taskmanager.core.auth.entity.User;
-import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
-import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
-import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -27,11 +46,23 @@ import java.util.List;
 @Transactional
 public class NotificationService {
 
+    public static final String TYPE_CARD_DUE_SOON = "CARD_DUE_SOON";
+    public static final String TYPE_CARD_ASSIGNED = "CARD_ASSIGNED";
+    public static final String TYPE_CARD_UPDATED = "CARD_UPDATED";
+    public static final String TYPE_BOARD_MEMBER_ADDED = "BOARD_MEMBER_ADDED";
+
+    public static final int MAX_BULK_IDS = 1000;
+    public static final int MAX_PAGE_SIZE = 100;
+    // Khung quanh created_at client gửi lên: vẫn chỉ chạm partition chứa thông báo, chịu được lệch múi giờ
+    private static final Duration CREATED_AT_SLACK = Duration.ofDays(1);
+
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
-    private final BoardRepository boardRepository;
-    private final CardRepository cardRepository;
     private final NotificationMapper notificationMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationPreferenceService notificationPreferenceService;
+    private final NotificationPayloadCodec notificationPayloadCodec;
+    private final OutboxService outboxService;
 
     @Transactional(readOnly = true)
     public Page<NotificationDto> getNotificationsByUserId(Long userId, int page, int size) {
@@ -41,89 +72,228 @@ public class NotificationService {
         return notifications.map(notificationMapper::toNotificationDto);
     }
 
+    /**
+     * Thông báo chưa đọc mới nhất, tối đa MAX_PAGE_SIZE; xem tiếp bằng feed (unreadOnly).
+     */
     @Transactional(readOnly = true)
     public List<NotificationDto> getUnreadNotificationsByUserId(Long userId) {
         log.info("Fetching unread notifications for user {}", userId);
-        List<NotificationEntity> notifications = notificationRepository.findUnreadByUserId(userId);
+        List<NotificationEntity> notifications =
+                notificationRepository.findUnreadByUserId(userId, PageRequest.of(0, MAX_PAGE_SIZE));
         return notificationMapper.toNotificationDtoList(notifications);
     }
 
+    /**
+     * Feed thông báo mới nhất trước, phân trang keyset theo (createdAt, id): trang sâu tốn như trang đầu,
+     * không có COUNT (số chưa đọc lấy từ counter).
+     */
     @Transactional(readOnly = true)
+    public CursorPage<NotificationDto> getNotificationFeed(Long userId, String cursor, int size, boolean unreadOnly) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Lấy thêm 1 dòng để biết còn trang sau
+        PageRequest page = PageRequest.of(0, limit + 1);
+        FeedCursor before = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        List<NotificationEntity> notifications;
+        if (before == null) {
+            notifications = unreadOnly
+                    ? notificationRepository.findUnreadFeed(userId, page)
+                    : notificationRepository.findFeed(userId, page);
+        } else {
+            notifications = unreadOnly
+                    ? notificationRepository.findUnreadFeedBefore(userId, before.createdAt(), before.id(), page)
+                    : notificationRepository.findFeedBefore(userId, before.createdAt(), before.id(), page);
+        }
+
+        if (notifications.size() <= limit) {
+            return new CursorPage<>(notificationMapper.toNotificationDtoList(notifications), null);
+        }
+        List<NotificationEntity> content = notifications.subList(0, limit);
+        NotificationEntity last = content.get(limit - 1);
+        return new CursorPage<>(notificationMapper.toNotificationDtoList(content),
+                encodeCursor(new FeedCursor(last.getCreatedAt(), last.getId())));
+    }
+
+    // Đọc counter trên Redis, không mở transaction/connection DB trừ khi phải dựng lại counter
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Long getUnreadNotificationCount(Long userId) {
-        log.info("Getting unread notification count for user {}", userId);
-        return notificationRepository.countUnreadByUserId(userId);
+        return unreadCounterService.getUnreadCount(userId);
     }
 
-    public void markNotificationAsRead(Long notificationId) {
+    /**
+     * createdAt (từ NotificationDto) là tùy chọn: có thì chỉ partition chứa thông báo bị quét, không thì mọi partition.
+     */
+    public void markNotificationAsRead(Long notificationId, Instant createdAt) {
         log.info("Marking notification {} as read", notificationId);
-        NotificationEntity notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new NotFoundException("Notification not found with id: " + notificationId));
-        
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        NotificationEntity notification = findNotification(notificationId, createdAt);
+
+        boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
+        if (createdAt == null) {
+            notification.setIsRead(true);
+            notificationRepository.save(notification);
+        } else if (wasUnread) {
+            notificationRepository.markReadById(notificationId, createdAt.minus(CREATED_AT_SLACK),
+                    createdAt.plus(CREATED_AT_SLACK), Instant.now());
+        }
+        if (wasUnread) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(notification.getUser().getId(), -1, false));
+        }
         log.info("Notification marked as read successfully");
     }
 
     public void markAllNotificationsAsRead(Long userId) {
-        log.info("Marking all notifications as read for user {}", userId);
-        List<NotificationEntity> unreadNotifications = notificationRepository.findUnreadByUserId(userId);
-        
-        for (NotificationEntity notification : unreadNotifications) {
-            notification.setIsRead(true);
+        int updated = notificationRepository.markAllReadByUserId(userId, Instant.now());
+        eventPublisher.publishEvent(new UnreadCountChangedEvent(userId, -updated, true));
+        log.info("Marked {} notifications as read for user {}", updated, userId);
+    }
+
+    /**
+     * Đánh dấu đã đọc các thông báo tới id (hoặc thời điểm) client đang hiển thị, thông báo đến sau vẫn chưa đọc.
+     */
+    public int markNotificationsAsReadUpTo(Long userId, Long maxId, Instant before) {
+        if ((maxId == null) == (before == null)) {
+            throw new IllegalArgumentException("Exactly one of maxId and before is required");
         }
-        
-        notificationRepository.saveAll(unreadNotifications);
-        log.info("All notifications marked as read successfully");
-    }
-
-    public void createNotification(String type, String title, String message, Long userId, 
-                                 Long boardId, Long cardId, Long actorId, String metadata) {
-        log.info("Creating notification: type={}, title={}, userId={}", type, title, userId);
-        
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
-        
-        User actor = userRepository.findById(actorId)
-                .orElseThrow(() -> new NotFoundException("Actor not found with id: " + actorId));
-        
-        NotificationEntity notification = new NotificationEntity();
-        notification.setType(type);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setUser(user);
-        notification.setActor(actor);
-        notification.setIsRead(false);
-        // Xử lý metadata cho JSONB
-        if (metadata != null) {
-            notification.setMetadata(metadata);
-        } else {
-            notification.setMetadata("{}"); // Empty JSON object
+        int updated = maxId != null
+                ? notificationRepository.markReadUpToId(userId, maxId, Instant.now())
+                : notificationRepository.markReadUpTo(userId, before, Instant.now());
+        if (updated > 0) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(userId, -updated, false));
+        }
+        log.info("Marked {} notifications as read for user {}", updated, userId);
+        return updated;
+    }
+
+    /**
+     * from: created_at cũ nhất trong các id (tùy chọn), để bỏ qua các partition cũ hơn.
+     */
+    public int deleteNotifications(Long userId, List<Long> notificationIds, Instant from) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        if (notificationIds.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("Cannot delete more than " + MAX_BULK_IDS + " notifications at once");
         }
-        
-        if (boardId != null) {
-            BoardEntity board = boardRepository.findById(boardId)
-                    .orElseThrow(() -> new NotFoundException("Board not found with id: " + boardId));
-            notification.setBoard(board);
+        Instant lowerBound = from != null ? from.minus(CREATED_AT_SLACK) : Instant.EPOCH;
+        int unread = notificationRepository.deleteUnreadByUserIdAndIds(userId, notificationIds, lowerBound);
+        int deleted = unread + notificationRepository.deleteByUserIdAndIds(userId, notificationIds, lowerBound);
+        if (unread > 0) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(userId, -unread, false));
         }
-        
-        if (cardId != null) {
-            CardEntity card = cardRepository.findById(cardId)
-                    .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
-            notification.setCard(card);
+        log.info("Deleted {} notifications of user {}", deleted, userId);
+        return deleted;
+    }
+
+    public int deleteReadNotifications(Long userId) {
+        int deleted = notificationRepository.deleteReadByUserId(userId);
+        log.info("Deleted {} read notifications of user {}", deleted, userId);
+        return deleted;
+    }
+
+    @Transactional(readOnly = true)
+    public NotificationPreferencesDto getNotificationPreferences(Long userId) {
+        return notificationPreferenceService.getPreferences(userId);
+    }
+
+    public NotificationPreferencesDto updateNotificationPreferences(Long userId, UpdateNotificationPreferencesRequest request) {
+        return notificationPreferenceService.updatePreferences(userId, request, currentAuditor());
+    }
+
+    /**
+     * Thông báo cho một user, actor chỉ định rõ. Ghi vào outbox, được tạo sau khi transaction hiện tại commit.
+     */
+    public void createNotification(String type, String title, String message, Long userId,
+                                 Long boardId, Long cardId, Long actorId, NotificationPayload payload) {
+        log.info("Queueing notification: type={}, title={}, userId={}", type, title, userId);
+        outboxService.record(NotificationWriter.DESTINATION, null, new NotificationRequestedEvent(type, title, message,
+                boardId, cardId, actorId, notificationPayloadCodec.write(payload), List.of(userId), currentAuditor()));
+    }
+
+    /**
+     * Cùng một thông báo cho nhiều user, actor là user đang đăng nhập (không tự gửi cho chính mình).
+     * Cả danh sách được ghi bằng một statement sau khi transaction hiện tại commit.
+     */
+    public void notifyUsers(String type, String title, String message, Collection<Long> userIds,
+                            Long boardId, Long cardId, NotificationPayload payload) {
+        Long actorId = currentUserId();
+        List<Long> recipientIds = userIds.stream()
+                .filter(Objects::nonNull)
+                .filter(userId -> !userId.equals(actorId))
+                .distinct()
+                .toList();
+        if (recipientIds.isEmpty()) {
+            return;
         }
-        
-        notificationRepository.save(notification);
-        log.info("Notification created successfully with id: {}", notification.getId());
+        outboxService.record(NotificationWriter.DESTINATION, null, new NotificationRequestedEvent(type, title, message,
+                boardId, cardId, actorId, notificationPayloadCodec.write(payload), recipientIds, currentAuditor()));
     }
 
-    public void deleteNotification(Long notificationId) {
+    /**
+     * Yêu cầu thông báo sắp đến hạn, mỗi card một yêu cầu cho mọi member của card, ghi vào outbox như các thông báo khác:
+     * NotificationWriter lọc theo tùy chọn người nhận, cập nhật số chưa đọc và đẩy realtime.
+     * Thông báo hệ thống nên không có actor.
+     */
+    public void createDueDateReminders(List<CardReminderView> reminders) {
+        Map<Long, List<CardReminderView>> byCard = new LinkedHashMap<>();
+        reminders.forEach(reminder -> byCard.computeIfAbsent(reminder.cardId(), id -> new ArrayList<>()).add(reminder));
+        byCard.forEach((cardId, members) -> {
+            CardReminderView reminder = members.get(0);
+            outboxService.record(NotificationWriter.DESTINATION, null, new NotificationRequestedEvent(TYPE_CARD_DUE_SOON,
+                    "Card due soon", "Card \"" + reminder.title() + "\" is due at " + reminder.date(),
+                    reminder.boardId(), cardId, null,
+                    notificationPayloadCodec.write(new CardDueSoonPayload(reminder.date())),
+                    members.stream().map(CardReminderView::userId).distinct().toList(), currentAuditor()));
+        });
+        log.info("Requested due date reminders for {} card(s)", byCard.size());
+    }
+
+    public void deleteNotification(Long notificationId, Instant createdAt) {
         log.info("Deleting notification with id: {}", notificationId);
-        
-        if (!notificationRepository.existsById(notificationId)) {
-            throw new NotFoundException("Notification not found with id: " + notificationId);
+        NotificationEntity notification = findNotification(notificationId, createdAt);
+
+        if (createdAt == null) {
+            notificationRepository.delete(notification);
+        } else {
+            notificationRepository.deleteByIdWithin(notificationId, createdAt.minus(CREATED_AT_SLACK),
+                    createdAt.plus(CREATED_AT_SLACK));
+        }
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            eventPublisher.publishEvent(new UnreadCountChangedEvent(notification.getUser().getId(), -1, false));
         }
-        
-        notificationRepository.deleteById(notificationId);
         log.info("Notification deleted successfully");
     }
+
+    private NotificationEntity findNotification(Long notificationId, Instant createdAt) {
+        Optional<NotificationEntity> notification = createdAt == null
+                ? notificationRepository.findById(notificationId)
+                : notificationRepository.findByIdAndCreatedAtBetween(notificationId,
+                        createdAt.minus(CREATED_AT_SLACK), createdAt.plus(CREATED_AT_SLACK));
+        return notification.orElseThrow(() -> new NotFoundException("Notification not found with id: " + notificationId));
+    }
+
+    private record FeedCursor(Instant createdAt, long id) {
+    }
+
+    private static String encodeCursor(FeedCursor cursor) {
+        return CursorCodec.encode(cursor.createdAt(), cursor.id());
+    }
+
+    private static FeedCursor decodeCursor(String cursor) {
+        return CursorCodec.decode(cursor, 2, values -> new FeedCursor(Instant.parse(values[0]), Long.parseLong(values[1])));
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    private static String currentAuditor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && !(authentication instanceof AnonymousAuthenticationToken)
+                ? authentication.getName()
+                : "anonymous";
+    }
 }
@@ -0,0 +1,356 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.yenthan.taskmanager.core.outbox.OutboxHandler;
+import vn.yenthan.taskmanager.core.outbox.OutboxMessage;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.event.NotificationRequestedEvent;
+import vn.yenthan.taskmanager.notifications.event.NotificationsCreatedEvent;
+import vn.yenthan.taskmanager.notifications.event.NotificationsUpdatedEvent;
+import vn.yenthan.taskmanager.notifications.payload.CardUpdatedPayload;
+import vn.yenthan.taskmanager.notifications.payload.NotificationPayloadCodec;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ghi thông báo ngoài thread của request: yêu cầu được ghi vào outbox cùng transaction với thao tác,
+ * OutboxRelay chuyển tới đây theo batch và cả batch được ghi bằng một câu INSERT ... SELECT FROM unnest(...),
+ * nên gửi cho N người vẫn chỉ là một statement, không cần nạp user/board/card.
+ * Loại thông báo digest (card cập nhật) được gộp thành một dòng chưa đọc cho mỗi (người nhận, board)
+ * trong cửa sổ digest thay vì mỗi lần cập nhật một dòng.
+ * Outbox giao ít nhất một lần: mỗi dòng mang (outbox_id, user_id, created_at) của message nên lần giao lại
+ * không tạo dòng trùng (ON CONFLICT DO NOTHING).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationWriter implements OutboxHandler {
+
+    public static final String DESTINATION = "notification.request";
+
+    // Cả batch (mọi event x người nhận) là một statement, trả lại dòng đã ghi kèm tên/ảnh actor để đẩy realtime
+    private static final String INSERT_SQL = """
+            WITH inserted AS (
+                INSERT INTO tbl_notification (type, title, message, user_id, board_id, card_id, actor_id,
+                                              is_read, metadata, created_at, updated_at, created_by, updated_by,
+                                              outbox_id)
+                SELECT r.type, r.title, r.message, r.user_id, r.board_id, r.card_id, r.actor_id,
+                       FALSE, CAST(r.metadata AS JSONB), r.created_at, NOW(), r.auditor, r.auditor, r.outbox_id
+                FROM unnest(CAST(? AS VARCHAR[]), CAST(? AS VARCHAR[]), CAST(? AS TEXT[]), CAST(? AS BIGINT[]),
+                            CAST(? AS BIGINT[]), CAST(? AS BIGINT[]), CAST(? AS BIGINT[]), CAST(? AS TEXT[]),
+                            CAST(? AS VARCHAR[]), CAST(? AS BIGINT[]), CAST(? AS TIMESTAMP[]))
+                     AS r(type, title, message, user_id, board_id, card_id, actor_id, metadata, auditor,
+                          outbox_id, created_at)
+                ON CONFLICT (outbox_id, user_id, created_at) DO NOTHING
+                RETURNING id, type, title, message, user_id, board_id, card_id, actor_id, metadata, created_at
+            )
+            SELECT i.id, i.type, i.title, i.message, i.user_id, i.board_id, i.card_id, i.actor_id,
+                   CAST(i.metadata AS TEXT) AS metadata, i.created_at, a.full_name, a.profile_image_url
+            FROM inserted i LEFT JOIN tbl_user a ON a.id = i.actor_id
+            ORDER BY i.id
+            """;
+
+    // Gộp vào digest chưa đọc còn trong cửa sổ: hợp danh sách card, message đổi thành dạng đếm khi có hơn một card
+    private static final String MERGE_DIGEST_SQL = """
+            WITH merged AS (
+                SELECT n.id, n.created_at, r.actor_id, r.auditor,
+                       (SELECT jsonb_agg(DISTINCT c.card_id)
+                        FROM jsonb_array_elements(COALESCE(n.metadata -> 'cardIds',
+                                 CASE WHEN n.card_id IS NULL THEN CAST('[]' AS JSONB) ELSE jsonb_build_array(n.card_id) END)
+                             || CAST(r.card_ids AS JSONB)) AS c(card_id)) AS card_ids
+                FROM unnest(CAST(? AS BIGINT[]), CAST(? AS BIGINT[]), CAST(? AS TEXT[]), CAST(? AS BIGINT[]),
+                            CAST(? AS VARCHAR[]))
+                     AS r(user_id, board_id, card_ids, actor_id, auditor)
+                JOIN tbl_notification n ON n.user_id = r.user_id AND n.board_id = r.board_id
+                     AND n.type = ? AND n.is_read = false AND n.created_at >= ?
+            ), updated AS (
+                UPDATE tbl_notification n
+                SET metadata = COALESCE(n.metadata, CAST('{}' AS JSONB))
+                               || jsonb_build_object('cardIds', m.card_ids, 'count', jsonb_array_length(m.card_ids)),
+                    message = CASE WHEN jsonb_array_length(m.card_ids) > 1
+                                   THEN jsonb_array_length(m.card_ids) || ' cards were updated' ELSE n.message END,
+                    card_id = CASE WHEN jsonb_array_length(m.card_ids) > 1 THEN NULL ELSE n.card_id END,
+                    actor_id = m.actor_id, updated_at = NOW(), updated_by = m.auditor
+                FROM merged m
+                WHERE n.id = m.id AND n.created_at = m.created_at
+                RETURNING n.id, n.type, n.title, n.message, n.user_id, n.board_id, n.card_id, n.actor_id,
+                          n.metadata, n.created_at
+            )
+            SELECT u.id, u.type, u.title, u.message, u.user_id, u.board_id, u.card_id, u.actor_id,
+                   CAST(u.metadata AS TEXT) AS metadata, u.created_at, a.full_name, a.profile_image_url
+            FROM updated u LEFT JOIN tbl_user a ON a.id = u.actor_id
+            ORDER BY u.id
+            """;
+
+    // Khóa digest (loại, người nhận, board) đến hết transaction: hai node không cùng tạo digest mới cho một khóa
+    private static final String LOCK_DIGESTS_SQL =
+            "SELECT pg_advisory_xact_lock(k) FROM unnest(CAST(? AS BIGINT[])) AS k ORDER BY k";
+
+    private static final Set<String> DIGEST_TYPES = Set.of(NotificationService.TYPE_CARD_UPDATED);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationPreferenceService notificationPreferenceService;
+    private final NotificationPayloadCodec notificationPayloadCodec;
+
+    @Value("${notification.digest.window-ms:3600000}")
+    private long digestWindowMs;
+
+    @Override
+    public String destination() {
+        return DESTINATION;
+    }
+
+    /**
+     * Batch yêu cầu tạo thông báo lấy từ outbox, ghi bằng một statement.
+     */
+    @Override
+    public void handle(List<OutboxMessage> messages) throws Exception {
+        List<Request> requests = new ArrayList<>(messages.size());
+        for (OutboxMessage message : messages) {
+            NotificationRequestedEvent event = withoutOptedOut(
+                    objectMapper.readValue(message.payload(), NotificationRequestedEvent.class));
+            if (!event.getRecipientIds().isEmpty()) {
+                requests.add(new Request(message.id(), Timestamp.from(message.createdAt()), event));
+            }
+        }
+        if (!requests.isEmpty()) {
+            write(requests);
+        }
+    }
+
+    // Người đã tắt nhóm thông báo này không được ghi dòng nào
+    private NotificationRequestedEvent withoutOptedOut(NotificationRequestedEvent event) {
+        if (event.getRecipientIds().isEmpty()) {
+            return event;
+        }
+        List<Long> recipientIds;
+        try {
+            recipientIds = notificationPreferenceService.filterRecipients(event.getType(), event.getRecipientIds());
+        } catch (Exception e) {
+            log.warn("Cannot load notification preferences, notifying all recipients: {}", e.getMessage());
+            return event;
+        }
+        return recipientIds.size() < event.getRecipientIds().size() ? event.withRecipientIds(recipientIds) : event;
+    }
+
+    private void write(List<Request> requests) {
+        try {
+            insert(requests);
+            return;
+        } catch (RuntimeException e) {
+            if (requests.size() == 1) {
+                throw e;
+            }
+            // Một event hỏng (board/card đã bị xóa trước khi ghi) không chặn các event còn lại
+            log.warn("Notification batch of {} failed, retrying one by one: {}", requests.size(), e.getMessage());
+        }
+        RuntimeException lastError = null;
+        for (Request request : requests) {
+            try {
+                insert(List.of(request));
+            } catch (RuntimeException e) {
+                log.error("Error writing notification {}: {}", request.event(), e.getMessage());
+                lastError = e;
+            }
+        }
+        // Còn event lỗi: relay thử lại cả batch, các event đã ghi được bỏ qua nhờ khóa outbox
+        if (lastError != null) {
+            throw lastError;
+        }
+    }
+
+    private void insert(List<Request> requests) {
+        List<Row> rows = new ArrayList<>();
+        Map<DigestKey, Digest> digests = new LinkedHashMap<>();
+        for (Request request : requests) {
+            NotificationRequestedEvent event = request.event();
+            boolean digest = DIGEST_TYPES.contains(event.getType()) && event.getBoardId() != null;
+            for (Long recipientId : event.getRecipientIds()) {
+                if (digest) {
+                    digests.computeIfAbsent(new DigestKey(event.getType(), recipientId, event.getBoardId()),
+                            key -> new Digest()).add(request);
+                } else {
+                    rows.add(new Row(event.getType(), event.getTitle(), event.getMessage(), recipientId,
+                            event.getBoardId(), event.getCardId(), event.getActorId(),
+                            event.getMetadata() != null ? event.getMetadata() : "{}", event.getAuditor(),
+                            request.outboxId(), request.createdAt()));
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            lockDigests(digests.keySet());
+            List<NotificationDto> updated = mergeDigests(digests);
+            for (NotificationDto merged : updated) {
+                digests.remove(new DigestKey(merged.getType(), merged.getUserId(), merged.getBoardId()));
+            }
+            // Chưa có digest nào để gộp: tạo dòng mới, đã mang sẵn danh sách card của batch
+            digests.forEach((key, digest) -> rows.add(digest.toRow(key,
+                    notificationPayloadCodec.write(new CardUpdatedPayload(List.copyOf(digest.cardIds), digest.cardIds.size())))));
+
+            List<NotificationDto> created = rows.isEmpty() ? List.of() : insertRows(rows);
+            log.debug("Wrote {} notification(s), merged {} digest(s) for {} event(s)", created.size(), updated.size(), requests.size());
+            // Listener chạy sau commit
+            if (!created.isEmpty()) {
+                eventPublisher.publishEvent(new NotificationsCreatedEvent(created));
+            }
+            if (!updated.isEmpty()) {
+                eventPublisher.publishEvent(new NotificationsUpdatedEvent(updated));
+            }
+        });
+    }
+
+    private void lockDigests(Set<DigestKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        Long[] lockKeys = keys.stream().map(DigestKey::lockKey).distinct().toArray(Long[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_DIGESTS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", lockKeys));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    private List<NotificationDto> mergeDigests(Map<DigestKey, Digest> digests) {
+        if (digests.isEmpty()) {
+            return List.of();
+        }
+        Timestamp windowStart = Timestamp.from(Instant.now().minusMillis(digestWindowMs));
+        List<NotificationDto> updated = new ArrayList<>();
+        // Mỗi loại digest một statement (thường chỉ có một loại)
+        Map<String, List<Map.Entry<DigestKey, Digest>>> byType = new LinkedHashMap<>();
+        digests.entrySet().forEach(entry -> byType.computeIfAbsent(entry.getKey().type(), type -> new ArrayList<>()).add(entry));
+        byType.forEach((type, entries) -> {
+            Object[][] columns = new Object[5][entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                DigestKey key = entries.get(i).getKey();
+                Digest digest = entries.get(i).getValue();
+                columns[0][i] = key.userId();
+                columns[1][i] = key.boardId();
+                columns[2][i] = digest.cardIdsJson();
+                columns[3][i] = digest.last.event().getActorId();
+                columns[4][i] = digest.last.event().getAuditor();
+            }
+            String[] types = {"bigint", "bigint", "text", "bigint", "varchar"};
+            updated.addAll(jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(MERGE_DIGEST_SQL);
+                for (int i = 0; i < columns.length; i++) {
+                    ps.setArray(i + 1, connection.createArrayOf(types[i], columns[i]));
+                }
+                ps.setString(columns.length + 1, type);
+                ps.setTimestamp(columns.length + 2, windowStart);
+                return ps;
+            }, NotificationWriter::toNotificationDto));
+        });
+        return updated;
+    }
+
+    private List<NotificationDto> insertRows(List<Row> rows) {
+        Object[][] columns = new Object[11][rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            columns[0][i] = row.type();
+            columns[1][i] = row.title();
+            columns[2][i] = row.message();
+            columns[3][i] = row.userId();
+            columns[4][i] = row.boardId();
+            columns[5][i] = row.cardId();
+            columns[6][i] = row.actorId();
+            columns[7][i] = row.metadata();
+            columns[8][i] = row.auditor();
+            columns[9][i] = row.outboxId();
+            columns[10][i] = row.createdAt();
+        }
+        String[] types = {"varchar", "varchar", "text", "bigint", "bigint", "bigint", "bigint", "text", "varchar",
+                "bigint", "timestamp"};
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+            for (int i = 0; i < columns.length; i++) {
+                ps.setArray(i + 1, connection.createArrayOf(types[i], columns[i]));
+            }
+            return ps;
+        }, NotificationWriter::toNotificationDto);
+    }
+
+    private static NotificationDto toNotificationDto(ResultSet rs, int rowNum) throws SQLException {
+        return NotificationDto.builder()
+                .id(rs.getLong("id"))
+                .type(rs.getString("type"))
+                .title(rs.getString("title"))
+                .message(rs.getString("message"))
+                .userId(rs.getLong("user_id"))
+                .boardId(rs.getObject("board_id", Long.class))
+                .cardId(rs.getObject("card_id", Long.class))
+                .actorId(rs.getObject("actor_id", Long.class))
+                .actorName(rs.getString("full_name"))
+                .actorAvatar(rs.getString("profile_image_url"))
+                .isRead(false)
+                .createdAt(rs.getTimestamp("created_at").toInstant().toString())
+                .metadata(rs.getString("metadata"))
+                .build();
+    }
+
+    // Yêu cầu kèm id và thời điểm ghi của dòng outbox chứa nó
+    private record Request(long outboxId, Timestamp createdAt, NotificationRequestedEvent event) {
+    }
+
+    private record Row(String type, String title, String message, Long userId, Long boardId, Long cardId,
+                       Long actorId, String metadata, String auditor, Long outboxId, Timestamp createdAt) {
+    }
+
+    private record DigestKey(String type, Long userId, Long boardId) {
+
+        // Trùng khóa giữa hai digest khác nhau chỉ làm chúng chờ nhau
+        private long lockKey() {
+            return ((long) type.hashCode() << 32) ^ (userId * 1_000_003L + boardId);
+        }
+    }
+
+    private static final class Digest {
+        private final Set<Long> cardIds = new LinkedHashSet<>();
+        private Request last;
+
+        private void add(Request request) {
+            if (request.event().getCardId() != null) {
+                cardIds.add(request.event().getCardId());
+            }
+            last = request;
+        }
+
+        private String cardIdsJson() {
+            return cardIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        }
+
+        private Row toRow(DigestKey key, String metadata) {
+            boolean single = cardIds.size() <= 1;
+            NotificationRequestedEvent event = last.event();
+            return new Row(key.type(), event.getTitle(),
+                    single ? event.getMessage() : cardIds.size() + " cards were updated",
+                    key.userId(), key.boardId(), single ? event.getCardId() : null, event.getActorId(),
+                    metadata, event.getAuditor(), last.outboxId(), last.createdAt());
+        }
+    }
+}
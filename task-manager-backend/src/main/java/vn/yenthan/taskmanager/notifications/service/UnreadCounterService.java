@@ -0,0 +1,182 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.event.NotificationsCreatedEvent;
+import vn.yenthan.taskmanager.notifications.event.UnreadCountChangedEvent;
+import vn.yenthan.taskmanager.notifications.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Số thông báo chưa đọc của từng user giữ trên Redis (notification:unread:{userId}).
+ * Counter chỉ được cộng/trừ khi đã tồn tại; thiếu key thì lần đọc sau đếm lại từ DB.
+ * Job định kỳ đối soát các counter đang có với DB: counter lệch bị xóa (nếu chưa bị cộng/trừ từ lúc đọc)
+ * để lần đọc sau đếm lại, không ghi số đếm vào Redis vì cộng/trừ chạy xen giữa sẽ bị ghi đè.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCounterService {
+
+    private static final String KEY_PREFIX = "notification:unread:";
+    private static final Duration TTL = Duration.ofHours(6);
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+    // Mỗi lượt đối soát chỉ một node chạy
+    private static final String RECONCILE_LOCK_KEY = "notification:unread-reconcile:lock";
+
+    // Cộng delta nếu counter tồn tại; âm (đã lệch) thì xóa để đếm lại
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return nil
+            end
+            local value = redis.call('INCRBY', KEYS[1], ARGV[1])
+            if value < 0 then
+                redis.call('DEL', KEYS[1])
+            end
+            return value
+            """, Long.class);
+
+    // Xóa counter nếu vẫn là giá trị đã đọc trước khi đếm DB (không có cộng/trừ nào chạy xen giữa)
+    private static final RedisScript<Long> DELETE_IF_UNCHANGED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notification.unread-counter.reconcile-batch-limit:10000}")
+    private int reconcileLimit;
+
+    public long getUnreadCount(Long userId) {
+        String key = key(userId);
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Cannot read unread counter of user {}: {}", userId, e.getMessage());
+            return notificationRepository.countUnreadByUserId(userId);
+        }
+        long count = notificationRepository.countUnreadByUserId(userId);
+        try {
+            // NX: không ghi đè counter vừa được node khác dựng
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), TTL);
+        } catch (DataAccessException e) {
+            log.warn("Cannot store unread counter of user {}: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        Map<Long, Long> created = new HashMap<>();
+        for (NotificationDto notification : event.getNotifications()) {
+            created.merge(notification.getUserId(), 1L, Long::sum);
+        }
+        created.forEach(this::add);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        if (!event.isReset()) {
+            add(event.getUserId(), event.getDelta());
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key(event.getUserId()), "0", TTL);
+        } catch (DataAccessException e) {
+            log.warn("Cannot reset unread counter of user {}: {}", event.getUserId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Đối soát với DB các counter đang có trên Redis, theo từng nhóm user (một query GROUP BY mỗi nhóm).
+     */
+    @Scheduled(initialDelayString = "${notification.unread-counter.reconcile-interval-ms:600000}",
+            fixedDelayString = "${notification.unread-counter.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(RECONCILE_LOCK_KEY, "1", Duration.ofMinutes(5)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Cannot acquire unread counter reconcile lock: {}", e.getMessage());
+            return;
+        }
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(RECONCILE_CHUNK_SIZE).build();
+        int reconciled = 0;
+        List<Long> chunk = new ArrayList<>(RECONCILE_CHUNK_SIZE);
+        try (Cursor<String> keys = redisTemplate.scan(options)) {
+            while (keys.hasNext() && reconciled < reconcileLimit) {
+                chunk.add(Long.valueOf(keys.next().substring(KEY_PREFIX.length())));
+                if (chunk.size() == RECONCILE_CHUNK_SIZE) {
+                    reconciled += reconcileChunk(chunk);
+                }
+            }
+            reconciled += reconcileChunk(chunk);
+            log.debug("Reconciled {} unread counters", reconciled);
+        } catch (Exception e) {
+            log.error("Error reconciling unread counters: {}", e.getMessage());
+        }
+    }
+
+    private int reconcileChunk(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        // Đọc counter trước khi đếm: cộng/trừ nào chạy sau đó làm counter khác giá trị này và không bị xóa
+        List<String> keys = userIds.stream().map(UnreadCounterService::key).toList();
+        List<String> cached = redisTemplate.opsForValue().multiGet(keys);
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : notificationRepository.countUnreadByUserIds(userIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        int drifted = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            String value = cached != null ? cached.get(i) : null;
+            if (value != null && !value.equals(String.valueOf(counts.getOrDefault(userIds.get(i), 0L)))) {
+                redisTemplate.execute(DELETE_IF_UNCHANGED_SCRIPT, List.of(keys.get(i)), value);
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            log.info("Dropped {} drifted unread counters", drifted);
+        }
+        int size = userIds.size();
+        userIds.clear();
+        return size;
+    }
+
+    private void add(Long userId, long delta) {
+        try {
+            redisTemplate.execute(ADD_SCRIPT, List.of(key(userId)), String.valueOf(delta));
+        } catch (DataAccessException e) {
+            log.warn("Cannot update unread counter of user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+}
@@ -0,0 +1,182 @@
+package vn.yenthan.taskmanager.scrumboard.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
+import vn.yenthan.taskmanager.core.component.TranslateMessage;
+import vn.yenthan.taskmanager.core.entity.SuccessResponse;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.core.util.ResponseUtil;
+import vn.yenthan.taskmanager.scrumboard.dto.response.AttachmentDto;
+import vn.yenthan.taskmanager.scrumboard.entity.AttachmentEntity;
+import vn.yenthan.taskmanager.scrumboard.service.AttachmentService;
+import vn.yenthan.taskmanager.scrumboard.storage.AttachmentStorage;
+import vn.yenthan.taskmanager.util.MessageKeys;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("${api.prefix}/scrumboard/attachment")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Attachment Controller", description = "API endpoints for card attachments")
+public class AttachmentController {
+
+    // Dưới ngưỡng này copy qua channel rẻ hơn chuyển cho connector gửi bằng sendfile
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+    // Nội dung của một attachment không đổi (sửa file = attachment mới)
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
+    private final AttachmentService attachmentService;
+    private final AttachmentStorage attachmentStorage;
+    private final TranslateMessage translateMessage;
+    private final UserRepository userRepository;
+
+    @PostMapping(value = "/card/{cardId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload attachment", description = "Upload a file to a card, the content is streamed to attachment storage")
+    public SuccessResponse<AttachmentDto> uploadAttachment(
+            @Parameter(description = "Card ID") @PathVariable Long cardId,
+            @RequestPart("file") MultipartFile file,
+            Principal principal) throws IOException {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        return ResponseUtil.ok(HttpStatus.CREATED.value(),
+                translateMessage.translate(MessageKeys.ATTACHMENT_UPLOAD_SUCCESS),
+                attachmentService.uploadAttachment(cardId, file, currentUserId));
+    }
+
+    @GetMapping("/{id}/content")
+    @Operation(summary = "Download attachment", description = "Stream the attachment content, a single byte range is supported")
+    public void downloadAttachment(
+            @Parameter(description = "Attachment ID") @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            Principal principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        AttachmentEntity attachment = attachmentService.getAttachment(id, currentUserId);
+        long length = attachment.getSizeBytes();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition(attachment).toString());
+
+        long start = 0;
+        long end = length - 1;
+        List<HttpRange> ranges = parseRanges(range);
+        // Nhiều khoảng (multipart/byteranges) không hỗ trợ: trả cả file
+        if (ranges.size() == 1) {
+            try {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        response.setContentType(attachment.getContentType());
+        writeObject(attachment.getFilePath(), start, end - start + 1, request, response);
+    }
+
+    @GetMapping("/{id}/thumbnail")
+    @Operation(summary = "Get attachment thumbnail", description = "PNG thumbnail of an image attachment, 404 until it has been generated")
+    public void getThumbnail(
+            @Parameter(description = "Attachment ID") @PathVariable Long id,
+            Principal principal,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        AttachmentEntity attachment = attachmentService.getAttachment(id, currentUserId);
+        if (attachment.getThumbnailPath() == null) {
+            throw new NotFoundException("Attachment " + id + " has no thumbnail");
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setContentType(MediaType.IMAGE_PNG_VALUE);
+        writeObject(attachment.getThumbnailPath(), 0, attachmentStorage.size(attachment.getThumbnailPath()), request, response);
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete attachment", description = "Remove an attachment from its card")
+    public SuccessResponse<String> deleteAttachment(
+            @Parameter(description = "Attachment ID") @PathVariable Long id,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        attachmentService.deleteAttachment(id, currentUserId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.ATTACHMENT_DELETE_SUCCESS));
+    }
+
+    /**
+     * File cục bộ và connector hỗ trợ sendfile: giao cho Tomcat gửi thẳng từ file xuống socket.
+     * Ngược lại ghi qua FileChannel.transferTo của storage, không đọc cả file vào heap.
+     */
+    private void writeObject(String key, long position, long count, HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(count);
+        Optional<Path> localPath = attachmentStorage.localPath(key);
+        if (localPath.isPresent() && count >= SENDFILE_THRESHOLD
+                && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", localPath.get().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", position);
+            request.setAttribute("org.apache.tomcat.sendfile.end", position + count);
+            return;
+        }
+        attachmentStorage.transferTo(key, position, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    private static List<HttpRange> parseRanges(String range) {
+        if (range == null) {
+            return List.of();
+        }
+        try {
+            return HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            // Header Range sai cú pháp thì bỏ qua, trả cả file
+            return List.of();
+        }
+    }
+
+    // Ảnh (trừ SVG) hiển thị trong trình duyệt, các loại khác tải về
+    private static ContentDisposition contentDisposition(AttachmentEntity attachment) {
+        String type = attachment.getContentType();
+        boolean inline = type.startsWith("image/") && !type.startsWith("image/svg");
+        return (inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private Long extractUserIdFromPrincipal(Principal principal) {
+        if (principal == null) {
+            throw new IllegalArgumentException("User not authenticated");
+        }
+        try {
+            String username = principal.getName();
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found with username: " + username))
+                    .getId();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid user authentication: " + e.getMessage());
+        }
+    }
+}
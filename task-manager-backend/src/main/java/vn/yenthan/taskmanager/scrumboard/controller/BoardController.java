@@ -1,26 +1,49 @@
 package vn.yenthan.taskmanager.scrumboard.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import vn.yenthan.taskmanager.core.entity.SuccessResponse;
+import vn.yenthan.taskmanager.core.util.ETagUtils;
 import vn.yenthan.taskmanager.core.util.ResponseUtil;
+import vn.yenthan.taskmanager.scrumboard.dto.request.CloneBoardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.CreateBoardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateBoardRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardChangesDto;
 import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
+import vn.yenthan.taskmanager.scrumboard.index.CardFilter;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+import vn.yenthan.taskmanager.scrumboard.service.ActivityLogService;
+import vn.yenthan.taskmanager.scrumboard.service.BoardRevisionService;
+import vn.yenthan.taskmanager.scrumboard.service.BoardCloneService;
+import vn.yenthan.taskmanager.scrumboard.service.BoardFilterService;
 import vn.yenthan.taskmanager.scrumboard.service.BoardService;
+import vn.yenthan.taskmanager.scrumboard.service.BoardTransferService;
+import vn.yenthan.taskmanager.scrumboard.service.BoardViewService;
 import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
 import vn.yenthan.taskmanager.core.component.TranslateMessage;
 import vn.yenthan.taskmanager.util.MessageKeys;
 import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.Principal;
+import java.time.Instant;
 import java.util.*;
 
 @RestController
@@ -30,10 +53,20 @@ import java.util.*;
 @Tag(name = "Board Controller", description = "API endpoints for board management")
 public class BoardController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final BoardService boardService;
     private final BoardRepository boardRepository;
     private final TranslateMessage translateMessage;
     private final UserRepository userRepository;
+    private final AuthzService authzService;
+    private final BoardRevisionService boardRevisionService;
+    private final ActivityLogService activityLogService;
+    private final BoardViewService boardViewService;
+    private final ObjectMapper objectMapper;
+    private final BoardTransferService boardTransferService;
+    private final BoardCloneService boardCloneService;
+    private final BoardFilterService boardFilterService;
 
     @GetMapping("/list")
     @Operation(summary = "Get user's boards", description = "Retrieve all boards that the user is a member of")
@@ -45,14 +78,145 @@ public class BoardController {
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get board by ID", description = "Retrieve a specific board with all details")
-    public SuccessResponse<BoardDto> getBoardById(
+    @Operation(summary = "Get board by ID", description = "Retrieve a specific board with all details, 304 if If-None-Match is current")
+    public ResponseEntity<SuccessResponse<BoardDto>> getBoardById(
+            @Parameter(description = "Board ID") @PathVariable Long id,
+            Principal principal,
+            WebRequest webRequest) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        if (!authzService.isBoardMember(currentUserId, id)) {
+            throw new AccessDeniedException("Access denied to board " + id);
+        }
+        
+        // So ETag trước khi load cả board (chỉ đọc version): board chưa đổi thì trả 304 luôn
+        String etag = boardRevisionService.getBoardETag(id, boardRepository.findVersionById(id).orElse(null));
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.BOARD_GET_SUCCESS),
+                boardService.getBoardById(id, currentUserId)));
+    }
+
+    @GetMapping(value = "/{id}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Stream board by ID", description = "Same payload as GET /{id}, written incrementally so large boards use constant memory")
+    public ResponseEntity<StreamingResponseBody> streamBoardById(
+            @Parameter(description = "Board ID") @PathVariable Long id,
+            Principal principal,
+            WebRequest webRequest) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        if (!authzService.isBoardMember(currentUserId, id)) {
+            throw new AccessDeniedException("Access denied to board " + id);
+        }
+
+        String etag = boardRevisionService.getBoardETag(id, boardRepository.findVersionById(id).orElse(null));
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        // Body được ghi trên thread async, nên dịch message trước
+        String message = translateMessage.translate(MessageKeys.BOARD_GET_SUCCESS);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartObject();
+                generator.writeBooleanField("status", true);
+                generator.writeStringField("message", message);
+                generator.writeObjectField("timestamp", Instant.now());
+                generator.writeNumberField("code", HttpStatus.OK.value());
+                generator.writeFieldName("data");
+                boardViewService.writeBoard(id, generator);
+                generator.writeEndObject();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(body);
+    }
+
+    @GetMapping(value = "/{id}/export", produces = NDJSON_VALUE)
+    @Operation(summary = "Export board", description = "Stream a board with its lists and cards as NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportBoard(
+            @Parameter(description = "Board ID") @PathVariable Long id,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        if (!authzService.isBoardMember(currentUserId, id)) {
+            throw new AccessDeniedException("Access denied to board " + id);
+        }
+        StreamingResponseBody body = outputStream -> boardTransferService.exportBoard(id, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("board-" + id + ".ndjson").build().toString())
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = NDJSON_VALUE)
+    @Operation(summary = "Import board", description = "Create a new board from an NDJSON export")
+    public SuccessResponse<BoardDto> importBoard(
+            @Parameter(description = "Name for the new board, defaults to the exported name") @RequestParam(required = false) String name,
+            InputStream body,
+            Principal principal) throws IOException {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        return ResponseUtil.ok(HttpStatus.CREATED.value(),
+                translateMessage.translate(MessageKeys.BOARD_IMPORT_SUCCESS),
+                boardTransferService.importBoard(body, name, currentUserId));
+    }
+
+    @PostMapping("/{id}/clone")
+    @Operation(summary = "Clone board", description = "Create a new board copying the lists, cards, labels and roles of an existing board")
+    public SuccessResponse<BoardDto> cloneBoard(
+            @Parameter(description = "Source board ID") @PathVariable Long id,
+            @Valid @RequestBody CloneBoardRequest request,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        return ResponseUtil.ok(HttpStatus.CREATED.value(),
+                translateMessage.translate(MessageKeys.BOARD_CLONE_SUCCESS),
+                boardCloneService.cloneBoard(id, request, currentUserId));
+    }
+
+    @GetMapping("/{id}/changes")
+    @Operation(summary = "Get board changes", description = "Retrieve cards, lists and members changed since the given cursor")
+    public SuccessResponse<BoardChangesDto> getBoardChanges(
             @Parameter(description = "Board ID") @PathVariable Long id,
+            @Parameter(description = "Cursor from the previous response, omit to start a full resync") @RequestParam(required = false) Long since,
             Principal principal) {
         Long currentUserId = extractUserIdFromPrincipal(principal);
+        if (!authzService.isBoardMember(currentUserId, id)) {
+            throw new AccessDeniedException("Access denied to board " + id);
+        }
         return ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.BOARD_GET_SUCCESS),
-                boardService.getBoardById(id, currentUserId));
+                activityLogService.getBoardChanges(id, since));
+    }
+
+    @GetMapping("/{id}/cards/filter")
+    @Operation(summary = "Filter board cards", description = "Retrieve ids of cards in a board matching any of the given members, any of the given labels and the due date range")
+    public SuccessResponse<List<Long>> filterCards(
+            @Parameter(description = "Board ID") @PathVariable Long id,
+            @Parameter(description = "Card member user IDs") @RequestParam(required = false) Set<Long> memberIds,
+            @Parameter(description = "Label IDs") @RequestParam(required = false) Set<Long> labelIds,
+            @Parameter(description = "Due date lower bound (inclusive, ISO-8601)") @RequestParam(required = false) Instant dueFrom,
+            @Parameter(description = "Due date upper bound (exclusive, ISO-8601)") @RequestParam(required = false) Instant dueTo,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        if (!authzService.isBoardMember(currentUserId, id)) {
+            throw new AccessDeniedException("Access denied to board " + id);
+        }
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.CARD_FILTER_SUCCESS),
+                boardFilterService.filterCards(id, new CardFilter(memberIds, labelIds, dueFrom, dueTo)));
     }
 
     @PostMapping("/add/board")
@@ -67,14 +231,22 @@ public class BoardController {
     }
 
     @PutMapping("/edit/board")
-    @Operation(summary = "Update board", description = "Update an existing board")
-    public SuccessResponse<BoardDto> updateBoard(
+    @Operation(summary = "Update board", description = "Update an existing board, rejected with 409 if If-Match/version is stale")
+    public ResponseEntity<SuccessResponse<BoardDto>> updateBoard(
             @Valid @RequestBody UpdateBoardRequest request,
+            @Parameter(description = "Board version or board ETag being edited") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Principal principal) {
         Long currentUserId = extractUserIdFromPrincipal(principal);
-        return ResponseUtil.ok(HttpStatus.OK.value(),
-                translateMessage.translate(MessageKeys.BOARD_UPDATE_SUCCESS),
-                boardService.updateBoard(request, currentUserId));
+        Long expectedVersion = ETagUtils.parseBoardVersion(ifMatch, request.getId());
+        if (expectedVersion != null) {
+            request.setVersion(expectedVersion);
+        }
+        BoardDto updatedBoard = boardService.updateBoard(request, currentUserId);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.fromVersion(updatedBoard.getVersion()))
+                .body(ResponseUtil.ok(HttpStatus.OK.value(),
+                        translateMessage.translate(MessageKeys.BOARD_UPDATE_SUCCESS),
+                        updatedBoard));
     }
 
     @DeleteMapping("/delete/board")
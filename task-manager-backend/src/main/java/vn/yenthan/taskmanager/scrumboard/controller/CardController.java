@@ -6,24 +6,33 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
+import vn.yenthan.taskmanager.core.entity.CursorResponse;
 import vn.yenthan.taskmanager.core.entity.SuccessResponse;
+import vn.yenthan.taskmanager.core.util.ETagUtils;
 import vn.yenthan.taskmanager.core.util.ResponseUtil;
 import vn.yenthan.taskmanager.scrumboard.dto.request.CreateCardRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.request.MoveCardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateCardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateCardCategoryRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.AssignedCardDto;
 import vn.yenthan.taskmanager.scrumboard.dto.response.CardDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardSearchResultDto;
 import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
 import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
 import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+import vn.yenthan.taskmanager.scrumboard.service.AssignedCardService;
+import vn.yenthan.taskmanager.scrumboard.service.CardSearchService;
 import vn.yenthan.taskmanager.scrumboard.service.CardService;
 import vn.yenthan.taskmanager.core.component.TranslateMessage;
 import vn.yenthan.taskmanager.util.MessageKeys;
-import vn.yenthan.taskmanager.websocket.service.WebSocketBroadcastService;
 
 import java.security.Principal;
 import java.util.List;
@@ -41,7 +50,37 @@ public class CardController {
     private final UserRepository userRepository;
     private final CardRepository cardRepository;
     private final ListRepository listRepository;
-    private final WebSocketBroadcastService webSocketBroadcastService;
+    private final CardSearchService cardSearchService;
+    private final AssignedCardService assignedCardService;
+
+    @GetMapping("/card/search")
+    @Operation(summary = "Search cards", description = "Full-text search over card title and description in boards the user can access, keyset paginated")
+    public CursorResponse<CardSearchResultDto> searchCards(
+            @Parameter(description = "Search text") @RequestParam String q,
+            @Parameter(description = "Limit to one board") @RequestParam(required = false) Long boardId,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        if (boardId != null && !authzService.isBoardMember(currentUserId, boardId)) {
+            throw new AccessDeniedException("Access denied to board " + boardId);
+        }
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.CARD_SEARCH_SUCCESS),
+                cardSearchService.searchCards(q, boardId, cursor, size, currentUserId));
+    }
+
+    @GetMapping("/card/assigned")
+    @Operation(summary = "Get my cards", description = "Cards assigned to the current user across all boards, ordered by due date, keyset paginated")
+    public CursorResponse<AssignedCardDto> getAssignedCards(
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.CARD_ASSIGNED_SUCCESS),
+                assignedCardService.getAssignedCards(currentUserId, cursor, size));
+    }
 
     @GetMapping("/card/{listId}")
     @Operation(summary = "Get cards by list ID", description = "Retrieve all cards for a specific list")
@@ -53,12 +92,25 @@ public class CardController {
     }
 
     @GetMapping("/card/detail/{id}")
-    @Operation(summary = "Get card by ID", description = "Retrieve a specific card with all details")
-    public SuccessResponse<CardDto> getCardById(
-            @Parameter(description = "Card ID") @PathVariable Long id) {
-        return ResponseUtil.ok(HttpStatus.OK.value(),
-                translateMessage.translate(MessageKeys.CARD_GET_SUCCESS),
-                cardService.getCardById(id));
+    @Operation(summary = "Get card by ID", description = "Retrieve a specific card with all details, 304 if If-None-Match is current")
+    public ResponseEntity<SuccessResponse<CardDto>> getCardById(
+            @Parameter(description = "Card ID") @PathVariable Long id,
+            WebRequest webRequest) {
+        // ETag của card chính là version, chỉ cần một query scalar
+        String etag = cardRepository.findVersionById(id)
+                .map(ETagUtils::fromVersion)
+                .orElse(null);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        CardDto card = cardService.getCardById(id);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.fromVersion(card.getVersion()))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ResponseUtil.ok(HttpStatus.OK.value(),
+                        translateMessage.translate(MessageKeys.CARD_GET_SUCCESS),
+                        card));
     }
 
     @PostMapping("/add/card")
@@ -80,18 +132,16 @@ public class CardController {
         
         CardDto createdCard = cardService.createCard(request);
         
-        // Broadcast WebSocket message
-        webSocketBroadcastService.broadcastCardCreated(boardId, createdCard.getId(), createdCard);
-        
         return ResponseUtil.ok(HttpStatus.CREATED.value(),
                 translateMessage.translate(MessageKeys.CARD_CREATE_SUCCESS),
                 createdCard);
     }
 
     @PutMapping("/edit/card")
-    @Operation(summary = "Update card", description = "Update an existing card")
-    public SuccessResponse<CardDto> updateCard(
+    @Operation(summary = "Update card", description = "Update an existing card, rejected with 409 if If-Match/version is stale")
+    public ResponseEntity<SuccessResponse<CardDto>> updateCard(
             @Valid @RequestBody UpdateCardRequest request,
+            @Parameter(description = "Card version (ETag) being edited") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Principal principal) {
         Long userId = extractUserIdFromPrincipal(principal);
         
@@ -105,14 +155,18 @@ public class CardController {
             throw new AccessDeniedException("Only board members can update cards");
         }
         
-        CardDto updatedCard = cardService.updateCard(request);
+        Long expectedVersion = ETagUtils.parseVersion(ifMatch);
+        if (expectedVersion != null) {
+            request.setVersion(expectedVersion);
+        }
         
-        // Broadcast WebSocket message
-        webSocketBroadcastService.broadcastCardUpdated(boardId, request.getId(), updatedCard);
+        CardDto updatedCard = cardService.updateCard(request);
         
-        return ResponseUtil.ok(HttpStatus.OK.value(),
-                translateMessage.translate(MessageKeys.CARD_UPDATE_SUCCESS),
-                updatedCard);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.fromVersion(updatedCard.getVersion()))
+                .body(ResponseUtil.ok(HttpStatus.OK.value(),
+                        translateMessage.translate(MessageKeys.CARD_UPDATE_SUCCESS),
+                        updatedCard));
     }
 
     @PutMapping("/cards/update/category")
@@ -132,21 +186,36 @@ public class CardController {
             throw new AccessDeniedException("Only board members can move cards");
         }
         
-        // Lấy fromListId trước khi update
-        Long fromListId = cardRepository.findById(request.getCardId())
-                .map(card -> card.getList().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Card not found"));
-        
         CardDto updatedCard = cardService.updateCardCategory(request);
         
-        // Broadcast WebSocket message
-        webSocketBroadcastService.broadcastCardMoved(boardId, request.getCardId(), fromListId, request.getLaneId(), updatedCard);
-        
         return ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.CARD_MOVE_SUCCESS),
                 updatedCard);
     }
 
+    @PutMapping("/cards/move")
+    @Operation(summary = "Move card", description = "Move a card to a position in a list, right after another card")
+    public SuccessResponse<CardDto> moveCard(
+            @Valid @RequestBody MoveCardRequest request,
+            Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+
+        // Lấy boardId từ card
+        var card = cardRepository.findByIdWithListAndBoard(request.getCardId())
+                .orElseThrow(() -> new IllegalArgumentException("Card not found"));
+        Long boardId = card.getList().getBoard().getId();
+
+        if (!authzService.canCategoryCard(userId, boardId)) {
+            throw new AccessDeniedException("Only board members can move cards");
+        }
+
+        CardDto movedCard = cardService.moveCard(request);
+
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.CARD_MOVE_SUCCESS),
+                movedCard);
+    }
+
     @DeleteMapping("/delete/card")
     @Operation(summary = "Delete card", description = "Delete a card by ID")
     public SuccessResponse<String> deleteCard(
@@ -164,9 +233,6 @@ public class CardController {
             throw new AccessDeniedException("Only board owner can delete cards");
         }
         
-        // Broadcast WebSocket message trước khi xóa
-        webSocketBroadcastService.broadcastCardDeleted(boardId, id);
-        
         cardService.deleteCard(id);
         return ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.CARD_DELETE_SUCCESS));
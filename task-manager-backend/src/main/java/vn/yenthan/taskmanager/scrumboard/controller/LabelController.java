@@ -0,0 +1,82 @@
+package vn.yenthan.taskmanager.scrumboard.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
+import vn.yenthan.taskmanager.core.component.TranslateMessage;
+import vn.yenthan.taskmanager.core.entity.SuccessResponse;
+import vn.yenthan.taskmanager.core.util.ResponseUtil;
+import vn.yenthan.taskmanager.scrumboard.dto.request.CreateLabelRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.LabelDto;
+import vn.yenthan.taskmanager.scrumboard.service.LabelService;
+import vn.yenthan.taskmanager.util.MessageKeys;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("${api.prefix}/scrumboard/label")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Label Controller", description = "API endpoints for label management")
+public class LabelController {
+
+    private final LabelService labelService;
+    private final TranslateMessage translateMessage;
+    private final UserRepository userRepository;
+
+    @GetMapping
+    @Operation(summary = "Search labels", description = "Autocomplete labels by name prefix: shared labels plus the labels of the given board")
+    public SuccessResponse<List<LabelDto>> searchLabels(
+            @Parameter(description = "Name prefix") @RequestParam(required = false) String q,
+            @Parameter(description = "Board ID, omit for shared labels only") @RequestParam(required = false) Long boardId,
+            @Parameter(description = "Maximum number of labels (max 50)") @RequestParam(defaultValue = "20") int limit,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.LABEL_GET_SUCCESS),
+                labelService.searchLabels(q, boardId, limit, currentUserId));
+    }
+
+    @PostMapping
+    @Operation(summary = "Create label", description = "Create a label for a board, or a shared label when no board is given")
+    public SuccessResponse<LabelDto> createLabel(
+            @Valid @RequestBody CreateLabelRequest request,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        return ResponseUtil.ok(HttpStatus.CREATED.value(),
+                translateMessage.translate(MessageKeys.LABEL_CREATE_SUCCESS),
+                labelService.createLabel(request, currentUserId));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete label", description = "Delete a label and remove it from all cards")
+    public SuccessResponse<String> deleteLabel(
+            @Parameter(description = "Label ID") @PathVariable Long id,
+            Principal principal) {
+        Long currentUserId = extractUserIdFromPrincipal(principal);
+        labelService.deleteLabel(id, currentUserId);
+        return ResponseUtil.ok(HttpStatus.OK.value(),
+                translateMessage.translate(MessageKeys.LABEL_DELETE_SUCCESS));
+    }
+
+    private Long extractUserIdFromPrincipal(Principal principal) {
+        if (principal == null) {
+            throw new IllegalArgumentException("User not authenticated");
+        }
+        try {
+            String username = principal.getName();
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found with username: " + username))
+                    .getId();
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid user authentication: " + e.getMessage());
+        }
+    }
+}
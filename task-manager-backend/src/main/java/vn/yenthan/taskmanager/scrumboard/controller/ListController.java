@@ -6,22 +6,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
 import vn.yenthan.taskmanager.core.entity.SuccessResponse;
+import vn.yenthan.taskmanager.core.util.ETagUtils;
 import vn.yenthan.taskmanager.core.util.ResponseUtil;
 import vn.yenthan.taskmanager.scrumboard.dto.request.CreateListRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.request.MoveListRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateListRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.response.CardListDto;
 import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
 import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+import vn.yenthan.taskmanager.scrumboard.service.BoardRevisionService;
 import vn.yenthan.taskmanager.scrumboard.service.ListService;
 import vn.yenthan.taskmanager.core.component.TranslateMessage;
 import vn.yenthan.taskmanager.util.MessageKeys;
-import vn.yenthan.taskmanager.websocket.service.WebSocketBroadcastService;
 
 import java.security.Principal;
 import java.util.List;
@@ -38,15 +43,26 @@ public class ListController {
     private final AuthzService authzService;
     private final UserRepository userRepository;
     private final ListRepository listRepository;
-    private final WebSocketBroadcastService webSocketBroadcastService;
+    private final BoardRevisionService boardRevisionService;
 
     @GetMapping("/list/{boardId}")
-    @Operation(summary = "Get lists by board ID", description = "Retrieve all lists for a specific board")
-    public SuccessResponse<List<CardListDto>> getListsByBoardId(
-            @Parameter(description = "Board ID") @PathVariable Long boardId) {
-        return ResponseUtil.ok(HttpStatus.OK.value(),
+    @Operation(summary = "Get lists by board ID", description = "Retrieve all lists for a specific board, 304 if If-None-Match is current")
+    public ResponseEntity<SuccessResponse<List<CardListDto>>> getListsByBoardId(
+            @Parameter(description = "Board ID") @PathVariable Long boardId,
+            WebRequest webRequest) {
+        String etag = boardRevisionService.getBoardETag(boardId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate());
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.LIST_GET_SUCCESS),
-                listService.getListsByBoardId(boardId));
+                listService.getListsByBoardId(boardId)));
     }
 
     @GetMapping("/list/detail/{id}")
@@ -72,20 +88,16 @@ public class ListController {
         
         CardListDto createdList = listService.createList(request);
         
-        // Broadcast WebSocket message
-        log.info("About to broadcast list created for board: {}, list: {}", request.getBoardId(), createdList.getId());
-        webSocketBroadcastService.broadcastListCreated(request.getBoardId(), createdList.getId(), createdList);
-        log.info("Broadcast completed for list created");
-        
         return ResponseUtil.ok(HttpStatus.CREATED.value(),
                 translateMessage.translate(MessageKeys.LIST_CREATE_SUCCESS),
                 createdList);
     }
 
     @PutMapping("/edit/list")
-    @Operation(summary = "Update list", description = "Update an existing list")
-    public SuccessResponse<CardListDto> updateList(
+    @Operation(summary = "Update list", description = "Update an existing list, rejected with 409 if If-Match/version is stale")
+    public ResponseEntity<SuccessResponse<CardListDto>> updateList(
             @Valid @RequestBody UpdateListRequest request,
+            @Parameter(description = "List version (ETag) being edited") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Principal principal) {
         Long userId = extractUserIdFromPrincipal(principal);
         
@@ -99,14 +111,42 @@ public class ListController {
             throw new AccessDeniedException("Only board owner can edit lists");
         }
         
-        CardListDto updatedList = listService.updateList(request);
+        Long expectedVersion = ETagUtils.parseVersion(ifMatch);
+        if (expectedVersion != null) {
+            request.setVersion(expectedVersion);
+        }
         
-        // Broadcast WebSocket message
-        webSocketBroadcastService.broadcastListUpdated(boardId, request.getId(), updatedList);
+        CardListDto updatedList = listService.updateList(request);
         
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.fromVersion(updatedList.getVersion()))
+                .body(ResponseUtil.ok(HttpStatus.OK.value(),
+                        translateMessage.translate(MessageKeys.LIST_UPDATE_SUCCESS),
+                        updatedList));
+    }
+
+    @PutMapping("/lists/move")
+    @Operation(summary = "Move list", description = "Move a list to a position in its board, right after another list")
+    public SuccessResponse<CardListDto> moveList(
+            @Valid @RequestBody MoveListRequest request,
+            Principal principal) {
+        Long userId = extractUserIdFromPrincipal(principal);
+
+        // Lấy boardId từ list
+        Long boardId = listRepository.findById(request.getListId())
+                .map(list -> list.getBoard().getId())
+                .orElseThrow(() -> new IllegalArgumentException("List not found"));
+
+        // ✅ Chỉ OWNER mới được sắp xếp list
+        if (!authzService.canEditList(userId, boardId)) {
+            throw new AccessDeniedException("Only board owner can reorder lists");
+        }
+
+        CardListDto movedList = listService.moveList(request);
+
         return ResponseUtil.ok(HttpStatus.OK.value(),
-                translateMessage.translate(MessageKeys.LIST_UPDATE_SUCCESS),
-                updatedList);
+                translateMessage.translate(MessageKeys.LIST_MOVE_SUCCESS),
+                movedList);
     }
 
     @DeleteMapping("/delete/list")
@@ -126,9 +166,6 @@ public class ListController {
             throw new AccessDeniedException("Only board owner can delete lists");
         }
         
-        // Broadcast WebSocket message trước khi xóa
-        webSocketBroadcastService.broadcastListDeleted(boardId, id);
-        
         listService.deleteList(id);
         return ResponseUtil.ok(HttpStatus.OK.value(),
                 translateMessage.translate(MessageKeys.LIST_DELETE_SUCCESS));
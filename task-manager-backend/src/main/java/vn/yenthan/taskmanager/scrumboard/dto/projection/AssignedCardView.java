@@ -0,0 +1,7 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+import java.time.Instant;
+
+public record AssignedCardView(Long id, Long boardId, String boardName, Long listId, String listName,
+                               String title, Instant date, Long version) {
+}
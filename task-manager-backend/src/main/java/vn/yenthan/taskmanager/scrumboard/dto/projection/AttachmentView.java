@@ -0,0 +1,6 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+public record AttachmentView(Long id, Long cardId, String filePath, String fileName, Long fileLastModified,
+                             String fileLastModifiedDate, String contentType, Long sizeBytes,
+                             String thumbnailPath, String preview) {
+}
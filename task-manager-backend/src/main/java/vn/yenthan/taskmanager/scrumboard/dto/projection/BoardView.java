@@ -0,0 +1,7 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+/**
+ * Projection chỉ đọc của board (JPQL constructor expression), không tạo entity managed
+ */
+public record BoardView(Long id, String name, Long version) {
+}
@@ -0,0 +1,4 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+public record CardLabelView(Long cardId, Long labelId, String name, String color) {
+}
@@ -0,0 +1,4 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+public record CardMemberView(Long cardId, Long userId, String fullName, String email, String profileImageUrl) {
+}
@@ -0,0 +1,6 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+import java.time.Instant;
+
+public record CardReminderView(Long cardId, Long boardId, String title, Instant date, Long userId) {
+}
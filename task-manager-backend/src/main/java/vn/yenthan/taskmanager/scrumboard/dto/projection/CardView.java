@@ -0,0 +1,7 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+import java.time.Instant;
+
+public record CardView(Long id, Long listId, String title, String description, Instant date,
+                       String position, Long version) {
+}
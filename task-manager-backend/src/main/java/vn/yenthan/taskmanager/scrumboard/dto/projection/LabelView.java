@@ -0,0 +1,4 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+public record LabelView(Long id, Long boardId, String name, String color) {
+}
@@ -0,0 +1,4 @@
+package vn.yenthan.taskmanager.scrumboard.dto.projection;
+
+public record ListView(Long id, Long boardId, String name, String position, Long version) {
+}
@@ -0,0 +1,22 @@
+package vn.yenthan.taskmanager.scrumboard.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CloneBoardRequest {
+    @NotBlank(message = "Board name is required")
+    @Size(max = 255, message = "Board name must not exceed 255 characters")
+    private String name;
+
+    // false: chỉ copy list (dùng board làm template)
+    @Builder.Default
+    private Boolean includeCards = true;
+}
@@ -0,0 +1,25 @@
+package vn.yenthan.taskmanager.scrumboard.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateLabelRequest {
+    @NotBlank(message = "Label name is required")
+    @Size(max = 100, message = "Label name must not exceed 100 characters")
+    private String name;
+
+    @NotBlank(message = "Label color is required")
+    @Size(max = 50, message = "Label color must not exceed 50 characters")
+    private String color;
+
+    // null: label dùng chung cho mọi board (chỉ admin)
+    private Long boardId;
+}
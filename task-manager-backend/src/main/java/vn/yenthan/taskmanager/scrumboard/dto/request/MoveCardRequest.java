@@ -0,0 +1,22 @@
+package vn.yenthan.taskmanager.scrumboard.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveCardRequest {
+    @NotNull(message = "Card ID is required")
+    private Long cardId;
+
+    @NotNull(message = "Lane ID is required")
+    private Long laneId;
+
+    // Card đứng ngay trước vị trí mới, null = đầu list
+    private Long afterCardId;
+}
@@ -0,0 +1,19 @@
+package vn.yenthan.taskmanager.scrumboard.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoveListRequest {
+    @NotNull(message = "List ID is required")
+    private Long listId;
+
+    // List đứng ngay trước vị trí mới, null = đầu board
+    private Long afterListId;
+}
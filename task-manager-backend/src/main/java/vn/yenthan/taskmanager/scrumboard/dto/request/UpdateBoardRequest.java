@@ -19,4 +19,6 @@ public class UpdateBoardRequest {
     @NotBlank(message = "Board name is required")
     @Size(max = 255, message = "Board name must not exceed 255 characters")
     private String name;
+
+    private Long version;
 }
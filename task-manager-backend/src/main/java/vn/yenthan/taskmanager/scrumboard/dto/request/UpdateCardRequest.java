@@ -27,4 +27,7 @@ public class UpdateCardRequest {
     private Long laneId;
     private List<Long> memberIds;
     private List<Long> labelIds;
+
+    // Version client đang giữ, có thể gửi qua header If-Match thay thế
+    private Long version;
 }
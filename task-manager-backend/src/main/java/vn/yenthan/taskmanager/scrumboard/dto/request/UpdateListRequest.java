@@ -19,4 +19,6 @@ public class UpdateListRequest {
     @NotBlank(message = "List name is required")
     @Size(max = 255, message = "List name must not exceed 255 characters")
     private String name;
+
+    private Long version;
 }
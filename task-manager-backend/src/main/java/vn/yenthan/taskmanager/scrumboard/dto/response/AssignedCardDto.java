@@ -0,0 +1,21 @@
+package vn.yenthan.taskmanager.scrumboard.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignedCardDto {
+    private Long id;
+    private Long boardId;
+    private String boardName;
+    private Long laneId;
+    private String laneName;
+    private String title;
+    private String date;
+    private Long version;
+}
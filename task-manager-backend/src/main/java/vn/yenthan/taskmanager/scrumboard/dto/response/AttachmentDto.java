@@ -13,6 +13,8 @@ public class AttachmentDto {
     private Long id;
     private FileInfoDto file;
     private String preview;
+    // Đã có thumbnail (GET /attachment/{id}/thumbnail)
+    private boolean thumbnail;
 
     @Data
     @Builder
@@ -23,5 +25,7 @@ public class AttachmentDto {
         private String name;
         private Long lastModified;
         private String lastModifiedDate;
+        private String type;
+        private Long size;
     }
 }
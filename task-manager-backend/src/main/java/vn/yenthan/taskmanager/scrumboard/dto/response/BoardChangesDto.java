@@ -0,0 +1,31 @@
+package vn.yenthan.taskmanager.scrumboard.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Delta của board kể từ cursor since. Client lưu lại cursor để gọi lần sau;
+ * fullResync = true nghĩa là client phải tải lại toàn bộ board rồi dùng cursor mới.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BoardChangesDto {
+    private Long cursor;
+    private boolean hasMore;
+    private boolean fullResync;
+    // Chỉ có khi tên/version board đổi
+    private BoardDto board;
+    // List thay đổi không kèm cards, trừ list vừa được đánh lại rank card
+    private List<CardListDto> lists;
+    private List<CardDto> cards;
+    // Toàn bộ member hiện tại, chỉ có khi member thay đổi
+    private List<MemberDto> members;
+    private List<Long> deletedListIds;
+    private List<Long> deletedCardIds;
+}
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.yenthan.taskmanager.core.util.Versioned;
 
 import java.util.List;
 
@@ -11,8 +12,9 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class BoardDto {
+public class BoardDto implements Versioned {
     private Long id;
     private String name;
+    private Long version;
     private List<CardListDto> list;
 }
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.yenthan.taskmanager.core.util.Versioned;
 
 import java.util.List;
 
@@ -11,7 +12,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CardDto {
+public class CardDto implements Versioned {
     private Long id;
     private String title;
     private List<AttachmentDto> attachments;
@@ -21,4 +22,6 @@ public class CardDto {
     private String desc;
     private List<MemberDto> members;
     private Long laneId;
+    private String position;
+    private Long version;
 }
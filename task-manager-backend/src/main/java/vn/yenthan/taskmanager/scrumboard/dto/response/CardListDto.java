@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.yenthan.taskmanager.core.util.Versioned;
 
 import java.util.List;
 
@@ -11,8 +12,10 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CardListDto {
+public class CardListDto implements Versioned {
     private Long id;
     private String name;
+    private String position;
+    private Long version;
     private List<CardDto> cards;
 }
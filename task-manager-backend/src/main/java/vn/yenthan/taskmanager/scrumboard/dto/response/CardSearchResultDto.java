@@ -0,0 +1,22 @@
+package vn.yenthan.taskmanager.scrumboard.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CardSearchResultDto {
+    private Long id;
+    private Long boardId;
+    private String boardName;
+    private Long laneId;
+    private String title;
+    // Đoạn trích đã escape HTML, từ khóa được bọc trong <b>...</b>
+    private String titleHighlight;
+    private String descHighlight;
+    private Float rank;
+}
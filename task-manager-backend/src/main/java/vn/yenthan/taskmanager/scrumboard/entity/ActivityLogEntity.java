@@ -0,0 +1,50 @@
+package vn.yenthan.taskmanager.scrumboard.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import vn.yenthan.taskmanager.core.util.EntityBase;
+
+/**
+ * Nhật ký thay đổi append-only của board, dùng cho đồng bộ delta (GET /board/{id}/changes)
+ */
+@Entity
+@Table(name = "tbl_activity_log")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLogEntity extends EntityBase {
+
+    // Null với thao tác của hệ thống (rebalance rank, ...)
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "action", nullable = false, length = 50)
+    private String action;
+
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "board_id")
+    private Long boardId;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "details", columnDefinition = "jsonb")
+    private String details;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(name = "user_agent", columnDefinition = "TEXT")
+    private String userAgent;
+}
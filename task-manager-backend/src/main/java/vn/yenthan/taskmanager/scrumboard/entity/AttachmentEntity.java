@@ -15,6 +15,7 @@ import vn.yenthan.taskmanager.core.util.EntityBase;
 @AllArgsConstructor
 public class AttachmentEntity extends EntityBase {
 
+    // Key của nội dung file trong AttachmentStorage
     @Column(name = "file_path", nullable = false)
     private String filePath;
 
@@ -27,7 +28,17 @@ public class AttachmentEntity extends EntityBase {
     @Column(name = "file_lastModifiedDate", nullable = false)
     private String fileLastModifiedDate;
 
-    @Column(name = "preview", nullable = false)
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    // Key của ảnh thumbnail, null khi chưa tạo xong hoặc file không phải ảnh
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
+    @Column(name = "preview")
     private String preview;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -5,11 +5,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import vn.yenthan.taskmanager.core.util.EntityBase;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "tbl_card")
@@ -22,24 +25,37 @@ public class CardEntity extends EntityBase {
     @Column(name = "title", nullable = false)
     private String title;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "description", columnDefinition = "TEXT")
     private String description;
 
     @Column(name = "date")
     private Instant date;
 
+    @Column(name = "position", length = 64)
+    private String position;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "laneId")
     private ListEntity list;
 
+    // Dùng Set để fetch join nhiều collection trong một query (List sẽ gây MultipleBagFetchException),
+    // BatchSize để khi lazy load nhiều card (board/list) chỉ tốn một query cho mỗi batch
     @OneToMany(mappedBy = "card", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<CardMemberEntity> members = new ArrayList<>();
+    @BatchSize(size = 50)
+    private Set<CardMemberEntity> members = new LinkedHashSet<>();
 
     @OneToMany(mappedBy = "card", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<CardLabelEntity> labels = new ArrayList<>();
+    @BatchSize(size = 50)
+    private Set<CardLabelEntity> labels = new LinkedHashSet<>();
 
     @OneToMany(mappedBy = "card", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private List<AttachmentEntity> attachments = new ArrayList<>();
+    @BatchSize(size = 50)
+    @OrderBy("id ASC")
+    private Set<AttachmentEntity> attachments = new LinkedHashSet<>();
 
     @OneToMany(mappedBy = "card", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CommentEntity> comments = new ArrayList<>();
@@ -24,6 +24,11 @@ public class LabelEntity extends EntityBase {
     @Column(name = "color", nullable = false)
     private String color;
 
+    // null: label dùng chung cho mọi board
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "board_id")
+    private BoardEntity board;
+
     @OneToMany(mappedBy = "label", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<CardLabelEntity> cardLabels = new ArrayList<>();
 }
@@ -7,7 +7,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import vn.yenthan.taskmanager.core.util.EntityBase;
 
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
@@ -21,10 +21,18 @@ public class ListEntity extends EntityBase {
     @Column(name = "name", nullable = false)
     private String name;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "position", length = 64)
+    private String position;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "board_id", nullable = false)
     private BoardEntity board;
 
     @OneToMany(mappedBy = "list", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Set<CardEntity> cards = new HashSet<>();
+    @OrderBy("position ASC, id ASC")
+    private Set<CardEntity> cards = new LinkedHashSet<>();
 }
@@ -0,0 +1,18 @@
+package vn.yenthan.taskmanager.scrumboard.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Phát ra trong transaction khi nội dung attachment mới được lưu vào AttachmentStorage.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AttachmentStoredEvent {
+
+    private final Long attachmentId;
+    private final String storageKey;
+    private final String contentType;
+}
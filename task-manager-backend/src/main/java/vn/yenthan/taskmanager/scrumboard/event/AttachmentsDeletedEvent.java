@@ -0,0 +1,18 @@
+package vn.yenthan.taskmanager.scrumboard.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Phát ra trong transaction khi dòng attachment bị xóa; storageKeys gồm key nội dung và thumbnail.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AttachmentsDeletedEvent {
+
+    private final List<String> storageKeys;
+}
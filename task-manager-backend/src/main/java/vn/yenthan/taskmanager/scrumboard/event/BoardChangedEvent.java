@@ -0,0 +1,25 @@
+package vn.yenthan.taskmanager.scrumboard.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Phát ra trong transaction mỗi khi nội dung một board thay đổi (board, list, card hoặc member).
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class BoardChangedEvent {
+
+    // LABEL: label bị gỡ khỏi các card của board (xóa label), entityId là id label
+    public enum EntityType { BOARD, LIST, CARD, MEMBER, LABEL }
+
+    // REBALANCED: toàn bộ rank con của entity (card trong list, list trong board) được đánh lại
+    public enum Action { CREATED, UPDATED, MOVED, DELETED, REBALANCED }
+
+    private final Long boardId;
+    private final EntityType entityType;
+    private final Long entityId;
+    private final Action action;
+}
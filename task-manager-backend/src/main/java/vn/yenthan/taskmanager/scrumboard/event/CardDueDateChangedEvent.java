@@ -0,0 +1,19 @@
+package vn.yenthan.taskmanager.scrumboard.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Phát ra trong transaction khi due date của card thay đổi. dueDate = null: card bị xóa hoặc không còn due date.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CardDueDateChangedEvent {
+
+    private final Long cardId;
+    private final Instant dueDate;
+}
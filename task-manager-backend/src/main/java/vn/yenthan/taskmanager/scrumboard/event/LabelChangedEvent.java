@@ -0,0 +1,17 @@
+package vn.yenthan.taskmanager.scrumboard.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Phát ra trong transaction khi label được tạo, sửa hoặc xóa, để catalog label được nạp lại sau commit.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LabelChangedEvent {
+
+    // null: nhiều label thay đổi cùng lúc (import/clone board)
+    private final Long labelId;
+}
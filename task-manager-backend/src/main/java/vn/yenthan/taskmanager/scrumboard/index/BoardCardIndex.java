@@ -0,0 +1,240 @@
+package vn.yenthan.taskmanager.scrumboard.index;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Chỉ mục lọc card của một board, giữ trong bộ nhớ.
+ * Mỗi card được gán một số thứ tự (ordinal), ordinal của card đã xóa được dùng lại cho card mới
+ * nên kích thước chỉ mục theo số card hiện có. Member/label ánh xạ sang BitSet các ordinal,
+ * due date được sắp xếp thành mảng để tìm theo khoảng bằng binary search.
+ */
+public class BoardCardIndex {
+
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Revision của board mà chỉ mục đang phản ánh
+    @Getter
+    @Setter
+    private long revision;
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] cardIds = new long[64];
+    private long[] dueDates = new long[64];
+    private int nextOrdinal;
+    private final BitSet live = new BitSet();
+
+    private final Map<Long, BitSet> byMember = new HashMap<>();
+    private final Map<Long, BitSet> byLabel = new HashMap<>();
+
+    // Ordinal của các card có due date, sắp xếp theo due date; tính lại khi cần sau mỗi thay đổi
+    private int[] dueOrder = new int[0];
+    private long[] dueSorted = new long[0];
+    private boolean dueOrderStale;
+
+    public BoardCardIndex(long revision) {
+        this.revision = revision;
+    }
+
+    public ReadWriteLock lock() {
+        return lock;
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    public boolean contains(Long cardId) {
+        return ordinals.containsKey(cardId);
+    }
+
+    /**
+     * Thêm hoặc cập nhật card. Gọi khi đang giữ write lock.
+     */
+    public void putCard(Long cardId, Instant dueDate, Collection<Long> memberIds, Collection<Long> labelIds) {
+        Integer ordinal = ordinals.get(cardId);
+        if (ordinal == null) {
+            ordinal = allocate(cardId);
+        } else {
+            clearBits(ordinal);
+        }
+        for (Long memberId : memberIds) {
+            byMember.computeIfAbsent(memberId, id -> new BitSet()).set(ordinal);
+        }
+        for (Long labelId : labelIds) {
+            byLabel.computeIfAbsent(labelId, id -> new BitSet()).set(ordinal);
+        }
+        long due = dueDate != null ? dueDate.toEpochMilli() : NO_DUE_DATE;
+        if (dueDates[ordinal] != due) {
+            dueDates[ordinal] = due;
+            dueOrderStale = true;
+        }
+    }
+
+    /**
+     * Xóa card khỏi chỉ mục. Gọi khi đang giữ write lock.
+     */
+    public void removeCard(Long cardId) {
+        Integer ordinal = ordinals.remove(cardId);
+        if (ordinal == null) {
+            return;
+        }
+        clearBits(ordinal);
+        live.clear(ordinal);
+        if (dueDates[ordinal] != NO_DUE_DATE) {
+            dueDates[ordinal] = NO_DUE_DATE;
+            dueOrderStale = true;
+        }
+    }
+
+    /**
+     * Gỡ label khỏi mọi card (label đã bị xóa). Gọi khi đang giữ write lock.
+     */
+    public void removeLabel(Long labelId) {
+        byLabel.remove(labelId);
+    }
+
+    /**
+     * Id các card thỏa mãn điều kiện lọc, theo ordinal (không phải thứ tự hiển thị).
+     */
+    public List<Long> filter(CardFilter filter) {
+        lock.readLock().lock();
+        try {
+            if (!dueOrderStale || !filter.hasDueRange()) {
+                return collect(match(filter));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            return collect(match(filter));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private BitSet match(CardFilter filter) {
+        BitSet result = (BitSet) live.clone();
+        if (!filter.memberIds().isEmpty()) {
+            result.and(union(byMember, filter.memberIds()));
+        }
+        if (!filter.labelIds().isEmpty()) {
+            result.and(union(byLabel, filter.labelIds()));
+        }
+        if (filter.hasDueRange()) {
+            result.and(dueBetween(filter.dueFrom(), filter.dueTo()));
+        }
+        return result;
+    }
+
+    private List<Long> collect(BitSet matched) {
+        List<Long> result = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            result.add(cardIds[i]);
+        }
+        return result;
+    }
+
+    private static BitSet union(Map<Long, BitSet> bitmaps, Collection<Long> keys) {
+        BitSet result = new BitSet();
+        for (Long key : keys) {
+            BitSet bits = bitmaps.get(key);
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    // Chỉ gọi khi dueOrder đã cập nhật hoặc đang giữ write lock
+    private BitSet dueBetween(Instant from, Instant to) {
+        if (dueOrderStale) {
+            sortDueDates();
+        }
+        int start = from != null ? lowerBound(from.toEpochMilli()) : 0;
+        int end = to != null ? lowerBound(to.toEpochMilli()) : dueSorted.length;
+        BitSet result = new BitSet();
+        for (int i = start; i < end; i++) {
+            result.set(dueOrder[i]);
+        }
+        return result;
+    }
+
+    private void sortDueDates() {
+        List<Integer> withDueDate = new ArrayList<>();
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) {
+            if (dueDates[i] != NO_DUE_DATE) {
+                withDueDate.add(i);
+            }
+        }
+        withDueDate.sort(Comparator.comparingLong(i -> dueDates[i]));
+        int[] order = new int[withDueDate.size()];
+        long[] sorted = new long[order.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = withDueDate.get(i);
+            sorted[i] = dueDates[order[i]];
+        }
+        dueOrder = order;
+        dueSorted = sorted;
+        dueOrderStale = false;
+    }
+
+    // Vị trí đầu tiên có due date >= value
+    private int lowerBound(long value) {
+        int low = 0;
+        int high = dueSorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dueSorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int allocate(Long cardId) {
+        // Ordinal trống thấp nhất (của card đã xóa), không có thì cấp mới ở cuối
+        int ordinal = live.nextClearBit(0);
+        if (ordinal == nextOrdinal) {
+            nextOrdinal++;
+        }
+        if (ordinal == cardIds.length) {
+            cardIds = Arrays.copyOf(cardIds, ordinal * 2);
+            dueDates = Arrays.copyOf(dueDates, ordinal * 2);
+        }
+        cardIds[ordinal] = cardId;
+        dueDates[ordinal] = NO_DUE_DATE;
+        ordinals.put(cardId, ordinal);
+        live.set(ordinal);
+        return ordinal;
+    }
+
+    // Bỏ luôn bitmap rỗng của member/label không còn card nào
+    private void clearBits(int ordinal) {
+        byMember.values().removeIf(bits -> {
+            bits.clear(ordinal);
+            return bits.isEmpty();
+        });
+        byLabel.values().removeIf(bits -> {
+            bits.clear(ordinal);
+            return bits.isEmpty();
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package vn.yenthan.taskmanager.scrumboard.index;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Điều kiện lọc card trong một board. Trong cùng một nhóm (member, label) là OR, giữa các nhóm là AND.
+ * Khoảng due date là [dueFrom, dueTo), bỏ trống một đầu nghĩa là không giới hạn.
+ */
+public record CardFilter(Set<Long> memberIds, Set<Long> labelIds, Instant dueFrom, Instant dueTo) {
+
+    public CardFilter {
+        memberIds = memberIds != null ? Set.copyOf(memberIds) : Set.of();
+        labelIds = labelIds != null ? Set.copyOf(labelIds) : Set.of();
+        if (dueFrom != null && dueTo != null && !dueFrom.isBefore(dueTo)) {
+            throw new IllegalArgumentException("dueFrom must be before dueTo");
+        }
+    }
+
+    public boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+}
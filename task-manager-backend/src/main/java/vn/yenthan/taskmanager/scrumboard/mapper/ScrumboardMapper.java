@@ -3,12 +3,15 @@ package vn.yenthan.taskmanager.scrumboard.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.*;
 import vn.yenthan.taskmanager.scrumboard.dto.response.*;
 import vn.yenthan.taskmanager.scrumboard.entity.*;
 import vn.yenthan.taskmanager.core.auth.entity.User;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -22,12 +25,22 @@ public interface ScrumboardMapper {
 
     List<BoardDto> toBoardDtoList(List<BoardEntity> boards);
 
+    // Chỉ thông tin board, không kèm list (dùng cho đồng bộ delta)
+    @Named("toBoardSummaryDto")
+    @Mapping(target = "list", ignore = true)
+    BoardDto toBoardSummaryDto(BoardEntity board);
+
     // List mappings
     @Mapping(target = "cards", source = "cards", qualifiedByName = "cardSetToList")
     CardListDto toCardListDto(ListEntity list);
 
     List<CardListDto> toCardListDtoList(List<ListEntity> lists);
 
+    // Chỉ thông tin list, không kèm card (dùng cho đồng bộ delta)
+    @Named("toCardListSummaryDto")
+    @Mapping(target = "cards", ignore = true)
+    CardListDto toCardListSummaryDto(ListEntity list);
+
     // Card mappings
     @Mapping(target = "desc", source = "description")
     @Mapping(target = "date", source = "date", qualifiedByName = "instantToString")
@@ -65,10 +78,70 @@ public interface ScrumboardMapper {
     @Mapping(target = "file.name", source = "fileName")
     @Mapping(target = "file.lastModified", source = "fileLastModified")
     @Mapping(target = "file.lastModifiedDate", source = "fileLastModifiedDate")
+    @Mapping(target = "file.type", source = "contentType")
+    @Mapping(target = "file.size", source = "sizeBytes")
+    @Mapping(target = "thumbnail", expression = "java(attachment.getThumbnailPath() != null)")
     AttachmentDto toAttachmentDto(AttachmentEntity attachment);
 
-    List<AttachmentDto> toAttachmentDtoList(List<AttachmentEntity> attachments);
+    List<AttachmentDto> toAttachmentDtoList(Collection<AttachmentEntity> attachments);
+
+
+    // Read model projection mappings, các collection con do BoardViewService gán
+    @Mapping(target = "list", ignore = true)
+    BoardDto toBoardDto(BoardView board);
+
+    @Mapping(target = "cards", ignore = true)
+    CardListDto toCardListDto(ListView list);
 
+    @Mapping(target = "desc", source = "description")
+    @Mapping(target = "date", source = "date", qualifiedByName = "instantToString")
+    @Mapping(target = "laneId", source = "listId")
+    @Mapping(target = "label", ignore = true)
+    @Mapping(target = "members", ignore = true)
+    @Mapping(target = "attachments", ignore = true)
+    @Mapping(target = "comments", expression = "java(java.util.List.of())")
+    CardDto toCardDto(CardView card);
+
+    @Mapping(target = "file.path", source = "filePath")
+    @Mapping(target = "file.name", source = "fileName")
+    @Mapping(target = "file.lastModified", source = "fileLastModified")
+    @Mapping(target = "file.lastModifiedDate", source = "fileLastModifiedDate")
+    @Mapping(target = "file.type", source = "contentType")
+    @Mapping(target = "file.size", source = "sizeBytes")
+    @Mapping(target = "thumbnail", expression = "java(attachment.thumbnailPath() != null)")
+    AttachmentDto toAttachmentDto(AttachmentView attachment);
+
+    @Mapping(target = "date", source = "date", qualifiedByName = "instantToString")
+    @Mapping(target = "laneId", source = "listId")
+    @Mapping(target = "laneName", source = "listName")
+    AssignedCardDto toAssignedCardDto(AssignedCardView card);
+
+    default LabelDto toLabelDto(CardLabelView cardLabel) {
+        return LabelDto.builder()
+                .id(cardLabel.labelId())
+                .name(cardLabel.name())
+                .color(cardLabel.color())
+                .type(1)
+                .build();
+    }
+
+    default LabelDto toLabelDto(LabelView label) {
+        return LabelDto.builder()
+                .id(label.id())
+                .name(label.name())
+                .color(label.color())
+                .type(1)
+                .build();
+    }
+
+    default MemberDto toMemberDto(CardMemberView cardMember) {
+        MemberDto memberDto = new MemberDto();
+        memberDto.setId(cardMember.userId());
+        memberDto.setName(cardMember.fullName());
+        memberDto.setEmail(cardMember.email());
+        memberDto.setAvatar(cardMember.profileImageUrl());
+        return memberDto;
+    }
 
     // Named methods for complex mappings
     @Named("instantToString")
@@ -78,7 +151,7 @@ public interface ScrumboardMapper {
     }
 
     @Named("cardLabelsToLabelDtos")
-    default List<LabelDto> cardLabelsToLabelDtos(List<CardLabelEntity> cardLabels) {
+    default List<LabelDto> cardLabelsToLabelDtos(Collection<CardLabelEntity> cardLabels) {
         if (cardLabels == null) return List.of();
         return cardLabels.stream()
                 .map(CardLabelEntity::getLabel)
@@ -87,7 +160,7 @@ public interface ScrumboardMapper {
     }
 
     @Named("cardMembersToMemberDtos")
-    default List<MemberDto> cardMembersToMemberDtos(List<CardMemberEntity> cardMembers) {
+    default List<MemberDto> cardMembersToMemberDtos(Collection<CardMemberEntity> cardMembers) {
         if (cardMembers == null) return List.of();
         return cardMembers.stream()
                 .map(cardMember -> {
@@ -123,6 +196,8 @@ public interface ScrumboardMapper {
     default List<CardDto> cardSetToList(Set<CardEntity> cards) {
         if (cards == null) return List.of();
         return cards.stream()
+                .sorted(Comparator.comparing(CardEntity::getPosition, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+                        .thenComparing(CardEntity::getId))
                 .map(this::toCardDto)
                 .collect(Collectors.toList());
     }
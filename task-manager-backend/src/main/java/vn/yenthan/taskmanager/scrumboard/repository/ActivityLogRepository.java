@@ -0,0 +1,23 @@
+package vn.yenthan.taskmanager.scrumboard.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.entity.ActivityLogEntity;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLogEntity, Long> {
+
+    @Query("SELECT a FROM ActivityLogEntity a WHERE a.boardId = :boardId AND a.id > :since ORDER BY a.id")
+    List<ActivityLogEntity> findByBoardIdAfter(@Param("boardId") Long boardId,
+                                               @Param("since") Long since,
+                                               Pageable pageable);
+
+    @Query("SELECT MAX(a.id) FROM ActivityLogEntity a WHERE a.boardId = :boardId AND a.createdAt < :before")
+    Long findLatestIdByBoardIdBefore(@Param("boardId") Long boardId, @Param("before") Instant before);
+}
@@ -0,0 +1,34 @@
+package vn.yenthan.taskmanager.scrumboard.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.entity.AttachmentEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttachmentRepository extends JpaRepository<AttachmentEntity, Long> {
+
+    @Query("SELECT a FROM AttachmentEntity a JOIN FETCH a.card c JOIN FETCH c.list l JOIN FETCH l.board WHERE a.id = :id")
+    Optional<AttachmentEntity> findByIdWithBoard(@Param("id") Long id);
+
+    // Key nội dung và thumbnail của các attachment thuộc card (card bị xóa)
+    @Query("SELECT a.filePath FROM AttachmentEntity a WHERE a.card.id = :cardId " +
+           "UNION SELECT a.thumbnailPath FROM AttachmentEntity a WHERE a.card.id = :cardId AND a.thumbnailPath IS NOT NULL")
+    List<String> findStorageKeysByCardId(@Param("cardId") Long cardId);
+
+    // Object còn được attachment khác dùng (bản clone của board) thì chưa được xóa khỏi storage
+    @Query("SELECT a.filePath FROM AttachmentEntity a WHERE a.filePath IN :keys " +
+           "UNION SELECT a.thumbnailPath FROM AttachmentEntity a WHERE a.thumbnailPath IN :keys")
+    List<String> findReferencedKeys(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("UPDATE AttachmentEntity a SET a.thumbnailPath = :thumbnailPath WHERE a.filePath = :filePath " +
+           "AND a.thumbnailPath IS NULL")
+    int updateThumbnailPath(@Param("filePath") String filePath, @Param("thumbnailPath") String thumbnailPath);
+}
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.BoardView;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
 
 import java.util.List;
@@ -28,4 +29,24 @@ public interface BoardRepository extends JpaRepository<BoardEntity, Long> {
     List<BoardEntity> findByUserId(@Param("userId") Long userId);
 
     boolean existsByName(String name);
+
+    @Query("SELECT b.version FROM BoardEntity b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Tính rank list trong board lần lượt (xem ListRepository.lockForRanking)
+    @Query(value = "SELECT id FROM tbl_board WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Long> lockForRanking(@Param("id") Long id);
+
+    // Read model: projection không qua persistence context
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.BoardView(b.id, b.name, b.version) " +
+           "FROM BoardEntity b WHERE b.id = :id")
+    Optional<BoardView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.BoardView(b.id, b.name, b.version) " +
+           "FROM BoardEntity b ORDER BY b.createdAt DESC")
+    List<BoardView> findAllViews();
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.BoardView(b.id, b.name, b.version) " +
+           "FROM BoardEntity b JOIN b.members bm WHERE bm.user.id = :userId")
+    List<BoardView> findViewsByUserId(@Param("userId") Long userId);
 }
@@ -5,8 +5,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardLabelView;
 import vn.yenthan.taskmanager.scrumboard.entity.CardLabelEntity;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -28,4 +30,15 @@ public interface CardLabelRepository extends JpaRepository<CardLabelEntity, Long
     @Modifying
     @Query("DELETE FROM CardLabelEntity cl WHERE cl.card.id = :cardId AND cl.label.id = :labelId")
     void deleteByCardIdAndLabelId(@Param("cardId") Long cardId, @Param("labelId") Long labelId);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardLabelView(cl.card.id, l.id, l.name, l.color) " +
+           "FROM CardLabelEntity cl JOIN cl.label l WHERE cl.card.id IN :cardIds")
+    List<CardLabelView> findViewsByCardIds(@Param("cardIds") Collection<Long> cardIds);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardLabelView(cl.card.id, l.id, l.name, l.color) " +
+           "FROM CardLabelEntity cl JOIN cl.label l WHERE cl.card.list.board.id = :boardId")
+    List<CardLabelView> findViewsByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT DISTINCT cl.card.list.board.id FROM CardLabelEntity cl WHERE cl.label.id = :labelId")
+    List<Long> findBoardIdsByLabelId(@Param("labelId") Long labelId);
 }
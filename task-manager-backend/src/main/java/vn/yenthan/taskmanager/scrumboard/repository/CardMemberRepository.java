@@ -1,12 +1,18 @@
 package vn.yenthan.taskmanager.scrumboard.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.AssignedCardView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardMemberView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardReminderView;
 import vn.yenthan.taskmanager.scrumboard.entity.CardMemberEntity;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -31,4 +37,45 @@ public interface CardMemberRepository extends JpaRepository<CardMemberEntity, Lo
 
     @Query("SELECT COUNT(cm) FROM CardMemberEntity cm WHERE cm.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardMemberView(cm.card.id, u.id, u.fullName, u.email, u.profileImageUrl) " +
+           "FROM CardMemberEntity cm JOIN cm.user u WHERE cm.card.id IN :cardIds")
+    List<CardMemberView> findViewsByCardIds(@Param("cardIds") Collection<Long> cardIds);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardMemberView(cm.card.id, u.id, u.fullName, u.email, u.profileImageUrl) " +
+           "FROM CardMemberEntity cm JOIN cm.user u WHERE cm.card.list.board.id = :boardId")
+    List<CardMemberView> findViewsByBoardId(@Param("boardId") Long boardId);
+
+    // Card được giao cho user trên các board user còn là member, theo (date, id); card chưa có date đọc riêng ở cuối
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.AssignedCardView(c.id, b.id, b.name, l.id, l.name, c.title, c.date, c.version) " +
+           "FROM CardMemberEntity cm JOIN cm.card c JOIN c.list l JOIN l.board b " +
+           "WHERE cm.user.id = :userId AND c.date IS NOT NULL " +
+           "AND EXISTS (SELECT 1 FROM BoardMemberEntity bm WHERE bm.board = b AND bm.user.id = :userId) " +
+           "ORDER BY c.date, c.id")
+    List<AssignedCardView> findAssignedViews(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.AssignedCardView(c.id, b.id, b.name, l.id, l.name, c.title, c.date, c.version) " +
+           "FROM CardMemberEntity cm JOIN cm.card c JOIN c.list l JOIN l.board b " +
+           "WHERE cm.user.id = :userId AND (c.date > :afterDate OR (c.date = :afterDate AND c.id > :afterId)) " +
+           "AND EXISTS (SELECT 1 FROM BoardMemberEntity bm WHERE bm.board = b AND bm.user.id = :userId) " +
+           "ORDER BY c.date, c.id")
+    List<AssignedCardView> findAssignedViewsAfter(@Param("userId") Long userId,
+                                                  @Param("afterDate") Instant afterDate,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.AssignedCardView(c.id, b.id, b.name, l.id, l.name, c.title, c.date, c.version) " +
+           "FROM CardMemberEntity cm JOIN cm.card c JOIN c.list l JOIN l.board b " +
+           "WHERE cm.user.id = :userId AND c.date IS NULL AND c.id > :afterId " +
+           "AND EXISTS (SELECT 1 FROM BoardMemberEntity bm WHERE bm.board = b AND bm.user.id = :userId) " +
+           "ORDER BY c.id")
+    List<AssignedCardView> findUndatedAssignedViewsAfter(@Param("userId") Long userId,
+                                                         @Param("afterId") Long afterId,
+                                                         Pageable pageable);
+
+    // Một dòng cho mỗi (card, member) để gửi nhắc hạn
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardReminderView(c.id, l.board.id, c.title, c.date, cm.user.id) " +
+           "FROM CardMemberEntity cm JOIN cm.card c JOIN c.list l " +
+           "WHERE c.id IN :cardIds AND c.date IS NOT NULL")
+    List<CardReminderView> findReminderViewsByCardIds(@Param("cardIds") Collection<Long> cardIds);
 }
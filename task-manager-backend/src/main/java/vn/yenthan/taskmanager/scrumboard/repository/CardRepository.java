@@ -1,46 +1,101 @@
 package vn.yenthan.taskmanager.scrumboard.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.AttachmentView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardView;
 import vn.yenthan.taskmanager.scrumboard.entity.CardEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CardRepository extends JpaRepository<CardEntity, Long> {
 
-    @Query("SELECT c FROM CardEntity c LEFT JOIN FETCH c.members cm LEFT JOIN FETCH cm.user " +
-           "WHERE c.id = :id")
-    Optional<CardEntity> findByIdWithMembers(@Param("id") Long id);
-    
-    @Query("SELECT c FROM CardEntity c LEFT JOIN FETCH c.labels cl LEFT JOIN FETCH cl.label " +
-           "WHERE c.id = :id")
-    Optional<CardEntity> findByIdWithLabels(@Param("id") Long id);
-    
-    @Query("SELECT c FROM CardEntity c LEFT JOIN FETCH c.attachments " +
-           "WHERE c.id = :id")
-    Optional<CardEntity> findByIdWithAttachments(@Param("id") Long id);
-    
-    @Query("SELECT c FROM CardEntity c LEFT JOIN FETCH c.comments " +
-           "WHERE c.id = :id")
-    Optional<CardEntity> findByIdWithComments(@Param("id") Long id);
-    
     @Query("SELECT c FROM CardEntity c LEFT JOIN FETCH c.list l LEFT JOIN FETCH l.board b " +
            "WHERE c.id = :id")
     Optional<CardEntity> findByIdWithListAndBoard(@Param("id") Long id);
 
     List<CardEntity> findByListIdOrderByCreatedAt(Long listId);
 
+    Optional<CardEntity> findByIdAndListId(Long id, Long listId);
+
+    @Query("SELECT c.version FROM CardEntity c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // CardDto đổi mà không qua entity card (thumbnail, label bị xóa): tăng version để ETag của card đổi theo
+    @Modifying
+    @Query(value = "UPDATE tbl_card SET version = version + 1 " +
+                   "WHERE id IN (SELECT card_id FROM tbl_attachment WHERE file_path = :filePath)", nativeQuery = true)
+    int incrementVersionByAttachmentKey(@Param("filePath") String filePath);
+
+    @Modifying
+    @Query(value = "UPDATE tbl_card SET version = version + 1 " +
+                   "WHERE id IN (SELECT card_id FROM tbl_card_label WHERE label_id = :labelId)", nativeQuery = true)
+    int incrementVersionByLabelId(@Param("labelId") Long labelId);
+
     @Query("SELECT c FROM CardEntity c LEFT JOIN FETCH c.members cm LEFT JOIN FETCH cm.user " +
-           "WHERE c.list.id = :listId ORDER BY c.createdAt")
+           "WHERE c.list.id = :listId ORDER BY c.position, c.id")
     List<CardEntity> findByListIdWithMembers(@Param("listId") Long listId);
 
     @Query("SELECT c FROM CardEntity c JOIN c.members cm WHERE cm.user.id = :userId")
     List<CardEntity> findByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT c FROM CardEntity c WHERE c.list.id = :listId ORDER BY c.createdAt")
+    @Query("SELECT c FROM CardEntity c WHERE c.list.id = :listId ORDER BY c.position, c.id")
     List<CardEntity> findByListId(@Param("listId") Long listId);
+
+    @Query("SELECT MAX(c.position) FROM CardEntity c WHERE c.list.id = :listId")
+    String findMaxPositionByListId(@Param("listId") Long listId);
+
+    @Query("SELECT MIN(c.position) FROM CardEntity c " +
+           "WHERE c.list.id = :listId AND c.id <> :excludeId")
+    String findMinPositionByListId(@Param("listId") Long listId, @Param("excludeId") Long excludeId);
+
+    // Card đứng ngay sau anchor theo thứ tự hiển thị (position, id), kể cả card trùng rank với anchor
+    @Query("SELECT MIN(c.position) FROM CardEntity c " +
+           "WHERE c.list.id = :listId AND c.id <> :excludeId " +
+           "AND (c.position > :position OR (c.position = :position AND c.id > :anchorId))")
+    String findNextPosition(@Param("listId") Long listId,
+                            @Param("position") String position,
+                            @Param("anchorId") Long anchorId,
+                            @Param("excludeId") Long excludeId);
+
+    @Query("SELECT c.position FROM CardEntity c WHERE c.id = :id")
+    Optional<String> findPositionById(@Param("id") Long id);
+
+    // Read model: projection không qua persistence context
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardView(c.id, c.list.id, c.title, c.description, c.date, c.position, c.version) " +
+           "FROM CardEntity c WHERE c.id = :id")
+    Optional<CardView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardView(c.id, c.list.id, c.title, c.description, c.date, c.position, c.version) " +
+           "FROM CardEntity c WHERE c.list.id = :listId ORDER BY c.position, c.id")
+    List<CardView> findViewsByListId(@Param("listId") Long listId);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardView(c.id, c.list.id, c.title, c.description, c.date, c.position, c.version) " +
+           "FROM CardEntity c WHERE c.id IN :ids ORDER BY c.position, c.id")
+    List<CardView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardView(c.id, c.list.id, c.title, c.description, c.date, c.position, c.version) " +
+           "FROM CardEntity c WHERE c.list.board.id IN :boardIds ORDER BY c.position, c.id")
+    List<CardView> findViewsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
+
+    // Đọc theo cursor (fetch size) cho API stream board, thứ tự card theo đúng thứ tự list
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.CardView(c.id, l.id, c.title, c.description, c.date, c.position, c.version) " +
+           "FROM CardEntity c JOIN c.list l WHERE l.board.id = :boardId ORDER BY l.position, l.id, c.position, c.id")
+    Stream<CardView> streamViewsByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.AttachmentView(a.id, a.card.id, a.filePath, a.fileName, " +
+           "a.fileLastModified, a.fileLastModifiedDate, a.contentType, a.sizeBytes, a.thumbnailPath, a.preview) " +
+           "FROM AttachmentEntity a WHERE a.card.id IN :cardIds ORDER BY a.id")
+    List<AttachmentView> findAttachmentViewsByCardIds(@Param("cardIds") Collection<Long> cardIds);
 }
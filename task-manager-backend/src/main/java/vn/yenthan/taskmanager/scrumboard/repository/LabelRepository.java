@@ -1,10 +1,14 @@
 package vn.yenthan.taskmanager.scrumboard.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView;
 import vn.yenthan.taskmanager.scrumboard.entity.LabelEntity;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LabelRepository extends JpaRepository<LabelEntity, Long> {
@@ -12,4 +16,13 @@ public interface LabelRepository extends JpaRepository<LabelEntity, Long> {
     List<LabelEntity> findByNameContainingIgnoreCase(String name);
 
     boolean existsByName(String name);
+
+    // Nạp toàn bộ catalog label (LabelCatalogService)
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView(l.id, l.board.id, l.name, l.color) " +
+           "FROM LabelEntity l")
+    List<LabelView> findAllViews();
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView(l.id, l.board.id, l.name, l.color) " +
+           "FROM LabelEntity l WHERE l.id = :id")
+    Optional<LabelView> findViewById(@Param("id") Long id);
 }
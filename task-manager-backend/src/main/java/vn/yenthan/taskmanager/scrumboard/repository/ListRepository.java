@@ -4,14 +4,18 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.ListView;
 import vn.yenthan.taskmanager.scrumboard.entity.ListEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ListRepository extends JpaRepository<ListEntity, Long> {
 
+    Optional<ListEntity> findByIdAndBoardId(Long id, Long boardId);
+
     @Query("SELECT l FROM ListEntity l LEFT JOIN FETCH l.cards c " +
            "LEFT JOIN FETCH c.members cm LEFT JOIN FETCH cm.user " +
            "LEFT JOIN FETCH c.labels cl LEFT JOIN FETCH cl.label " +
@@ -22,12 +26,47 @@ public interface ListRepository extends JpaRepository<ListEntity, Long> {
     List<ListEntity> findByBoardIdOrderByCreatedAt(Long boardId);
 
     @Query("SELECT l FROM ListEntity l LEFT JOIN FETCH l.cards c " +
-           "WHERE l.board.id = :boardId ORDER BY l.createdAt")
+           "WHERE l.board.id = :boardId ORDER BY l.position, l.id")
     List<ListEntity> findByBoardIdWithCards(@Param("boardId") Long boardId);
     
     @Query("SELECT l FROM ListEntity l LEFT JOIN FETCH l.cards " +
-           "WHERE l.id IN :listIds ORDER BY l.createdAt")
+           "WHERE l.id IN :listIds ORDER BY l.position, l.id")
     List<ListEntity> findByIdsWithCards(@Param("listIds") List<Long> listIds);
 
     boolean existsByNameAndBoardId(String name, Long boardId);
+
+    @Query("SELECT MAX(l.position) FROM ListEntity l WHERE l.board.id = :boardId")
+    String findMaxPositionByBoardId(@Param("boardId") Long boardId);
+
+    @Query("SELECT MIN(l.position) FROM ListEntity l " +
+           "WHERE l.board.id = :boardId AND l.id <> :excludeId")
+    String findMinPositionByBoardId(@Param("boardId") Long boardId, @Param("excludeId") Long excludeId);
+
+    // List đứng ngay sau anchor theo thứ tự hiển thị (position, id), kể cả list trùng rank với anchor
+    @Query("SELECT MIN(l.position) FROM ListEntity l " +
+           "WHERE l.board.id = :boardId AND l.id <> :excludeId " +
+           "AND (l.position > :position OR (l.position = :position AND l.id > :anchorId))")
+    String findNextPosition(@Param("boardId") Long boardId,
+                            @Param("position") String position,
+                            @Param("anchorId") Long anchorId,
+                            @Param("excludeId") Long excludeId);
+
+    @Query("SELECT l.position FROM ListEntity l WHERE l.id = :id")
+    Optional<String> findPositionById(@Param("id") Long id);
+
+    /**
+     * FOR NO KEY UPDATE trên list: các thao tác tính rank card trong cùng list chạy lần lượt nên
+     * không sinh trùng rank, nhưng không chặn INSERT card (kiểm tra FK chỉ lấy FOR KEY SHARE).
+     */
+    @Query(value = "SELECT id FROM tbl_list WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Optional<Long> lockForRanking(@Param("id") Long id);
+
+    // Read model: projection không qua persistence context
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.ListView(l.id, l.board.id, l.name, l.position, l.version) " +
+           "FROM ListEntity l WHERE l.id = :id")
+    Optional<ListView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new vn.yenthan.taskmanager.scrumboard.dto.projection.ListView(l.id, l.board.id, l.name, l.position, l.version) " +
+           "FROM ListEntity l WHERE l.board.id IN :boardIds ORDER BY l.position, l.id")
+    List<ListView> findViewsByBoardIds(@Param("boardIds") Collection<Long> boardIds);
 }
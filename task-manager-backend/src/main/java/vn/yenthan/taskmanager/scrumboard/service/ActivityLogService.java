@@ -0,0 +1,209 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import vn.yenthan.taskmanager.core.auth.entity.User;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardChangesDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardListDto;
+import vn.yenthan.taskmanager.scrumboard.entity.ActivityLogEntity;
+import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
+import vn.yenthan.taskmanager.scrumboard.entity.ListEntity;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
+import vn.yenthan.taskmanager.scrumboard.repository.ActivityLogRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ghi nhật ký thay đổi của board vào tbl_activity_log và trả delta cho client đồng bộ.
+ * Cursor là id của bản ghi log cuối cùng client đã nhận.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityLogService {
+
+    private final ActivityLogRepository activityLogRepository;
+    private final BoardRepository boardRepository;
+    private final ListRepository listRepository;
+    private final BoardViewService boardViewService;
+    private final MemberService memberService;
+    private final ScrumboardMapper scrumboardMapper;
+
+    @Value("${scrumboard.changes.max-entries:500}")
+    private int maxEntries;
+
+    // Thời gian tối đa từ lúc ghi log đến khi transaction commit, cursor không vượt qua các bản ghi mới hơn
+    @Value("${scrumboard.changes.settle-ms:5000}")
+    private long settleMs;
+
+    /**
+     * Ghi log ngay trước khi commit, cùng transaction với thay đổi: thay đổi rollback thì log cũng rollback.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onBoardChanged(BoardChangedEvent event) {
+        // Board đã bị xóa trong transaction này, log cũng bị xóa theo (ON DELETE CASCADE)
+        if (event.getEntityType() == BoardChangedEvent.EntityType.BOARD
+                && event.getAction() == BoardChangedEvent.Action.DELETED) {
+            return;
+        }
+
+        ActivityLogEntity entry = ActivityLogEntity.builder()
+                .userId(currentUserId())
+                .boardId(event.getBoardId())
+                .entityType(event.getEntityType().name())
+                .entityId(event.getEntityId())
+                .action(event.getAction().name())
+                .build();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            entry.setIpAddress(request.getRemoteAddr());
+            entry.setUserAgent(request.getHeader(HttpHeaders.USER_AGENT));
+        }
+        activityLogRepository.save(entry);
+    }
+
+    @Transactional(readOnly = true)
+    public BoardChangesDto getBoardChanges(Long boardId, Long since) {
+        Instant settledBefore = Instant.now().minusMillis(settleMs);
+
+        // Chưa có cursor: client tải lại toàn bộ board rồi đồng bộ tiếp từ cursor này
+        if (since == null) {
+            Long latestId = activityLogRepository.findLatestIdByBoardIdBefore(boardId, settledBefore);
+            return BoardChangesDto.builder()
+                    .cursor(latestId != null ? latestId : 0L)
+                    .fullResync(true)
+                    .build();
+        }
+
+        List<ActivityLogEntity> entries = activityLogRepository.findByBoardIdAfter(
+                boardId, since, PageRequest.of(0, maxEntries + 1));
+        boolean hasMore = entries.size() > maxEntries;
+        if (hasMore) {
+            entries = entries.subList(0, maxEntries);
+        }
+
+        // Giữ action cuối cùng của mỗi entity, theo thứ tự log
+        Map<Long, BoardChangedEvent.Action> cardActions = new LinkedHashMap<>();
+        Map<Long, BoardChangedEvent.Action> listActions = new LinkedHashMap<>();
+        boolean boardChanged = false;
+        boolean listsRebalanced = false;
+        boolean membersChanged = false;
+        boolean labelsRemoved = false;
+        Long cursor = since;
+        boolean settled = true;
+        for (ActivityLogEntity entry : entries) {
+            BoardChangedEvent.Action action = BoardChangedEvent.Action.valueOf(entry.getAction());
+            switch (BoardChangedEvent.EntityType.valueOf(entry.getEntityType())) {
+                case CARD -> cardActions.put(entry.getEntityId(), action);
+                case LIST -> listActions.merge(entry.getEntityId(), action, ActivityLogService::mergeListAction);
+                case MEMBER -> membersChanged = true;
+                // Label bị gỡ khỏi số card không biết trước: client tải lại board
+                case LABEL -> labelsRemoved = true;
+                case BOARD -> {
+                    boardChanged = true;
+                    listsRebalanced |= action == BoardChangedEvent.Action.REBALANCED;
+                }
+            }
+            // Bản ghi mới có thể còn transaction chưa commit với id nhỏ hơn: cursor dừng ở bản ghi đã ổn định cuối cùng,
+            // phần sau lần sau đọc lại (client xử lý idempotent)
+            settled &= entry.getCreatedAt().isBefore(settledBefore);
+            if (settled) {
+                cursor = entry.getId();
+            }
+        }
+
+        BoardChangesDto.BoardChangesDtoBuilder changes = BoardChangesDto.builder()
+                .cursor(cursor)
+                // Cursor chưa tới cuối trang thì gọi lại ngay cũng chỉ đọc lại trang này
+                .hasMore(hasMore && settled)
+                .fullResync(labelsRemoved);
+
+        if (boardChanged) {
+            BoardEntity board = boardRepository.findById(boardId)
+                    .orElseThrow(() -> new NotFoundException("Board not found with id: " + boardId));
+            changes.board(scrumboardMapper.toBoardSummaryDto(board));
+        }
+
+        List<Long> deletedListIds = new ArrayList<>();
+        List<Long> changedListIds = new ArrayList<>();
+        listActions.forEach((id, action) ->
+                (action == BoardChangedEvent.Action.DELETED ? deletedListIds : changedListIds).add(id));
+        List<CardListDto> lists = new ArrayList<>();
+        Set<Long> foundListIds = new HashSet<>();
+        if (listsRebalanced) {
+            // Toàn bộ rank list của board được đánh lại: trả về mọi list (không kèm card)
+            for (ListEntity list : listRepository.findByBoardIdOrderByCreatedAt(boardId)) {
+                if (!changedListIds.contains(list.getId())) {
+                    lists.add(scrumboardMapper.toCardListSummaryDto(list));
+                }
+            }
+        }
+        if (!changedListIds.isEmpty()) {
+            for (ListEntity list : listRepository.findByIdsWithCards(changedListIds)) {
+                foundListIds.add(list.getId());
+                lists.add(listActions.get(list.getId()) == BoardChangedEvent.Action.REBALANCED
+                        ? scrumboardMapper.toCardListDto(list)
+                        : scrumboardMapper.toCardListSummaryDto(list));
+            }
+            // List không còn tồn tại (bị xóa sau đó) coi như đã xóa
+            changedListIds.stream().filter(id -> !foundListIds.contains(id)).forEach(deletedListIds::add);
+        }
+
+        List<Long> deletedCardIds = new ArrayList<>();
+        List<Long> changedCardIds = new ArrayList<>();
+        cardActions.forEach((id, action) ->
+                (action == BoardChangedEvent.Action.DELETED ? deletedCardIds : changedCardIds).add(id));
+        List<CardDto> cards = changedCardIds.isEmpty() ? List.of() : boardViewService.getCards(changedCardIds);
+        Set<Long> foundCardIds = new HashSet<>();
+        cards.forEach(card -> foundCardIds.add(card.getId()));
+        changedCardIds.stream().filter(id -> !foundCardIds.contains(id)).forEach(deletedCardIds::add);
+
+        return changes
+                .lists(lists)
+                .cards(cards)
+                .members(membersChanged ? memberService.getBoardMembers(boardId) : null)
+                .deletedListIds(deletedListIds)
+                .deletedCardIds(deletedCardIds)
+                .build();
+    }
+
+    // REBALANCED cần trả kèm card, nên không để action sau (UPDATED/MOVED) ghi đè
+    private static BoardChangedEvent.Action mergeListAction(BoardChangedEvent.Action previous,
+                                                            BoardChangedEvent.Action next) {
+        if (previous == BoardChangedEvent.Action.REBALANCED && next != BoardChangedEvent.Action.DELETED) {
+            return previous;
+        }
+        return next;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.util.CursorCodec;
+import vn.yenthan.taskmanager.core.util.CursorPage;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.AssignedCardView;
+import vn.yenthan.taskmanager.scrumboard.dto.response.AssignedCardDto;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Danh sách card được giao cho user trên mọi board, sắp theo due date (card chưa có due date ở cuối).
+ * Phân trang keyset theo (date, id): tbl_card_member(user_id, card_id) cho ra card của user,
+ * tbl_card(date, id) giữ thứ tự, không load board nào.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AssignedCardService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Cursor của phần card chưa có due date
+    private static final String NO_DATE = "-";
+
+    private final CardMemberRepository cardMemberRepository;
+    private final ScrumboardMapper scrumboardMapper;
+
+    public CursorPage<AssignedCardDto> getAssignedCards(Long userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Lấy thêm 1 dòng để biết còn trang sau
+        PageRequest page = PageRequest.of(0, limit + 1);
+        AssignedCursor after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+
+        List<AssignedCardView> cards = new ArrayList<>();
+        if (after == null) {
+            cards.addAll(cardMemberRepository.findAssignedViews(userId, page));
+        } else if (after.date() != null) {
+            cards.addAll(cardMemberRepository.findAssignedViewsAfter(userId, after.date(), after.id(), page));
+        }
+        // Hết card có due date thì đọc tiếp sang card chưa có
+        if (cards.size() <= limit) {
+            long afterId = after != null && after.date() == null ? after.id() : 0L;
+            cards.addAll(cardMemberRepository.findUndatedAssignedViewsAfter(
+                    userId, afterId, PageRequest.of(0, limit + 1 - cards.size())));
+        }
+
+        if (cards.size() <= limit) {
+            return new CursorPage<>(cards.stream().map(scrumboardMapper::toAssignedCardDto).toList(), null);
+        }
+        List<AssignedCardView> content = cards.subList(0, limit);
+        AssignedCardView last = content.get(limit - 1);
+        return new CursorPage<>(content.stream().map(scrumboardMapper::toAssignedCardDto).toList(),
+                encodeCursor(new AssignedCursor(last.date(), last.id())));
+    }
+
+    private record AssignedCursor(Instant date, long id) {
+    }
+
+    private static String encodeCursor(AssignedCursor cursor) {
+        return CursorCodec.encode(cursor.date() != null ? cursor.date() : NO_DATE, cursor.id());
+    }
+
+    private static AssignedCursor decodeCursor(String cursor) {
+        return CursorCodec.decode(cursor, 2, values -> new AssignedCursor(
+                NO_DATE.equals(values[0]) ? null : Instant.parse(values[0]), Long.parseLong(values[1])));
+    }
+}
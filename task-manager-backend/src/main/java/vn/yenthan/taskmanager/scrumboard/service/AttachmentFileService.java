@@ -0,0 +1,130 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.yenthan.taskmanager.scrumboard.event.AttachmentStoredEvent;
+import vn.yenthan.taskmanager.scrumboard.event.AttachmentsDeletedEvent;
+import vn.yenthan.taskmanager.scrumboard.repository.AttachmentRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
+import vn.yenthan.taskmanager.scrumboard.storage.AttachmentStorage;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Việc trên object của attachment chạy nền sau commit: tạo thumbnail cho ảnh và xóa object không còn dùng.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttachmentFileService {
+
+    private static final int THUMBNAIL_SIZE = 256;
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+
+    private final AttachmentStorage attachmentStorage;
+    private final AttachmentRepository attachmentRepository;
+    private final CardRepository cardRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Async("attachmentExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAttachmentStored(AttachmentStoredEvent event) {
+        if (event.getContentType() == null || !event.getContentType().startsWith("image/")) {
+            return;
+        }
+        try {
+            byte[] thumbnail = renderThumbnail(event.getStorageKey());
+            if (thumbnail == null) {
+                return;
+            }
+            String thumbnailKey = event.getStorageKey() + THUMBNAIL_SUFFIX;
+            attachmentStorage.store(thumbnailKey, new ByteArrayInputStream(thumbnail));
+            Integer updated = transactionTemplate.execute(status -> {
+                int rows = attachmentRepository.updateThumbnailPath(event.getStorageKey(), thumbnailKey);
+                if (rows > 0) {
+                    cardRepository.incrementVersionByAttachmentKey(event.getStorageKey());
+                }
+                return rows;
+            });
+            if (updated == null || updated == 0) {
+                // Attachment đã bị xóa trong lúc tạo thumbnail
+                attachmentStorage.delete(thumbnailKey);
+            }
+        } catch (Exception e) {
+            log.warn("Cannot create thumbnail for attachment {}: {}", event.getAttachmentId(), e.getMessage());
+        }
+    }
+
+    @Async("attachmentExecutor")
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAttachmentsDeleted(AttachmentsDeletedEvent event) {
+        if (event.getStorageKeys().isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> referenced = new HashSet<>(attachmentRepository.findReferencedKeys(event.getStorageKeys()));
+            for (String key : event.getStorageKeys()) {
+                if (!referenced.contains(key)) {
+                    attachmentStorage.delete(key);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error deleting attachment objects {}: {}", event.getStorageKeys(), e.getMessage());
+        }
+    }
+
+    // PNG tối đa THUMBNAIL_SIZE px mỗi cạnh, null nếu không đọc được ảnh
+    private byte[] renderThumbnail(String key) throws IOException {
+        try (InputStream content = attachmentStorage.open(key, 0);
+             ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // Đọc cách dòng/cột ngay khi giải mã: ảnh lớn không được giải nén đủ độ phân giải vào heap
+                int step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / (THUMBNAIL_SIZE * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                double scale = Math.min(1.0, (double) THUMBNAIL_SIZE / Math.max(source.getWidth(), source.getHeight()));
+                int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D graphics = thumbnail.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.drawImage(source, 0, 0, width, height, null);
+                } finally {
+                    graphics.dispose();
+                }
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ImageIO.write(thumbnail, "png", output);
+                return output.toByteArray();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.core.exception.payload.ValidationException;
+import vn.yenthan.taskmanager.scrumboard.dto.response.AttachmentDto;
+import vn.yenthan.taskmanager.scrumboard.entity.AttachmentEntity;
+import vn.yenthan.taskmanager.scrumboard.entity.CardEntity;
+import vn.yenthan.taskmanager.scrumboard.event.AttachmentStoredEvent;
+import vn.yenthan.taskmanager.scrumboard.event.AttachmentsDeletedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
+import vn.yenthan.taskmanager.scrumboard.repository.AttachmentRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+import vn.yenthan.taskmanager.scrumboard.storage.AttachmentStorage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * File đính kèm của card: nội dung nằm trong AttachmentStorage, tbl_attachment chỉ giữ metadata và key.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AttachmentService {
+
+    private final AttachmentRepository attachmentRepository;
+    private final CardRepository cardRepository;
+    private final AttachmentStorage attachmentStorage;
+    private final AuthzService authzService;
+    private final ScrumboardMapper scrumboardMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Ghi nội dung file thẳng từ stream của request vào storage rồi lưu metadata.
+     */
+    public AttachmentDto uploadAttachment(Long cardId, MultipartFile file, Long currentUserId) throws IOException {
+        if (file.isEmpty()) {
+            throw new ValidationException("Attachment file is empty");
+        }
+        CardEntity card = cardRepository.findByIdWithListAndBoard(cardId)
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
+        Long boardId = card.getList().getBoard().getId();
+        if (!authzService.canUpdateCard(currentUserId, boardId)) {
+            throw new AccessDeniedException("Only board members can add attachments");
+        }
+
+        String key = "cards/" + cardId + "/" + UUID.randomUUID();
+        long size;
+        try (InputStream content = file.getInputStream()) {
+            size = attachmentStorage.store(key, content);
+        }
+        deleteIfRolledBack(key);
+
+        Instant now = Instant.now();
+        AttachmentEntity attachment = new AttachmentEntity();
+        attachment.setFilePath(key);
+        attachment.setFileName(fileName(file));
+        attachment.setFileLastModified(now.toEpochMilli());
+        attachment.setFileLastModifiedDate(now.toString());
+        attachment.setContentType(file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        attachment.setSizeBytes(size);
+        attachment.setCard(card);
+        AttachmentEntity savedAttachment = attachmentRepository.save(attachment);
+        // Attachment nằm trong CardDto: chạm updatedAt để version (ETag) của card tăng
+        card.setUpdatedAt(now);
+
+        eventPublisher.publishEvent(new AttachmentStoredEvent(savedAttachment.getId(), key, savedAttachment.getContentType()));
+        eventPublisher.publishEvent(new BoardChangedEvent(boardId,
+                BoardChangedEvent.EntityType.CARD, cardId, BoardChangedEvent.Action.UPDATED));
+        log.info("Stored attachment {} ({} bytes) for card {}", savedAttachment.getId(), size, cardId);
+        return scrumboardMapper.toAttachmentDto(savedAttachment);
+    }
+
+    /**
+     * Metadata của attachment để tải nội dung, kiểm tra quyền xem board.
+     */
+    @Transactional(readOnly = true)
+    public AttachmentEntity getAttachment(Long attachmentId, Long currentUserId) {
+        AttachmentEntity attachment = attachmentRepository.findByIdWithBoard(attachmentId)
+                .orElseThrow(() -> new NotFoundException("Attachment not found with id: " + attachmentId));
+        Long boardId = attachment.getCard().getList().getBoard().getId();
+        if (!authzService.isBoardMember(currentUserId, boardId)) {
+            throw new AccessDeniedException("Access denied to board " + boardId);
+        }
+        return attachment;
+    }
+
+    public void deleteAttachment(Long attachmentId, Long currentUserId) {
+        AttachmentEntity attachment = attachmentRepository.findByIdWithBoard(attachmentId)
+                .orElseThrow(() -> new NotFoundException("Attachment not found with id: " + attachmentId));
+        CardEntity card = attachment.getCard();
+        Long boardId = card.getList().getBoard().getId();
+        if (!authzService.canUpdateCard(currentUserId, boardId)) {
+            throw new AccessDeniedException("Only board members can remove attachments");
+        }
+
+        List<String> keys = new ArrayList<>();
+        keys.add(attachment.getFilePath());
+        if (attachment.getThumbnailPath() != null) {
+            keys.add(attachment.getThumbnailPath());
+        }
+        attachmentRepository.delete(attachment);
+        card.setUpdatedAt(Instant.now());
+
+        eventPublisher.publishEvent(new AttachmentsDeletedEvent(keys));
+        eventPublisher.publishEvent(new BoardChangedEvent(boardId,
+                BoardChangedEvent.EntityType.CARD, card.getId(), BoardChangedEvent.Action.UPDATED));
+        log.info("Deleted attachment {} of card {}", attachmentId, card.getId());
+    }
+
+    // Object đã ghi vào storage nhưng dòng attachment không được commit thì bỏ đi
+    private void deleteIfRolledBack(String key) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    try {
+                        attachmentStorage.delete(key);
+                    } catch (IOException e) {
+                        log.warn("Cannot delete uncommitted attachment object {}: {}", key, e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    private static String fileName(MultipartFile file) {
+        String name = file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            return "file";
+        }
+        // Một số trình duyệt gửi kèm đường dẫn đầy đủ
+        name = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        return name.length() > 255 ? name.substring(name.length() - 255) : name;
+    }
+}
@@ -0,0 +1,147 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.request.CloneBoardRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.LabelChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+
+import java.util.Map;
+
+/**
+ * Clone board bằng SQL set-based: số câu lệnh cố định, không phụ thuộc số list/card.
+ * Id mới của list/card được cấp bằng nextval trong CTE, dùng để nối các bảng con trong cùng câu lệnh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class BoardCloneService {
+
+    private static final String INSERT_BOARD_SQL = """
+            INSERT INTO tbl_board (name) VALUES (:name) RETURNING id
+            """;
+
+    private static final String COPY_ROLES_SQL = """
+            INSERT INTO tbl_board_role (board_id, name, description, is_default, created_by, updated_by)
+            SELECT :targetBoardId, r.name, r.description, r.is_default, 'system', 'system'
+            FROM tbl_board_role r WHERE r.board_id = :sourceBoardId
+            """;
+
+    // Board cũ có thể chưa có role mặc định
+    private static final String ENSURE_DEFAULT_ROLES_SQL = """
+            INSERT INTO tbl_board_role (board_id, name, description, is_default, created_by, updated_by)
+            VALUES (:targetBoardId, 'OWNER', 'Board Owner - Full access', FALSE, 'system', 'system'),
+                   (:targetBoardId, 'MEMBER', 'Board Member - Basic access', TRUE, 'system', 'system')
+            ON CONFLICT (board_id, name) DO NOTHING
+            """;
+
+    private static final String COPY_ROLE_PERMISSIONS_SQL = """
+            INSERT INTO tbl_board_role_permission (board_role_id, permission_id, granted, created_by, updated_by)
+            SELECT target.id, p.permission_id, p.granted, 'system', 'system'
+            FROM tbl_board_role_permission p
+            JOIN tbl_board_role source ON source.id = p.board_role_id
+            JOIN tbl_board_role target ON target.board_id = :targetBoardId AND target.name = source.name
+            WHERE source.board_id = :sourceBoardId
+            """;
+
+    private static final String ADD_OWNER_SQL = """
+            INSERT INTO tbl_board_member (board_id, user_id, board_role_id, invited_by, status, joined_at)
+            SELECT :targetBoardId, :userId, r.id, :userId, 'active', NOW()
+            FROM tbl_board_role r WHERE r.board_id = :targetBoardId AND r.name = 'OWNER'
+            """;
+
+    // CTE được tham chiếu nhiều lần nên được materialize: nextval chỉ chạy một lần cho mỗi dòng.
+    // Các ràng buộc FK được kiểm tra ở cuối câu lệnh nên insert cha/con trong cùng WITH là hợp lệ.
+    private static final String COPY_CONTENT_SQL = """
+            WITH source_list AS (
+                SELECT l.id, l.name, l.position,
+                       nextval(pg_get_serial_sequence('tbl_list', 'id')) AS new_id
+                FROM tbl_list l WHERE l.board_id = :sourceBoardId
+            ), inserted_list AS (
+                INSERT INTO tbl_list (id, name, board_id, position)
+                SELECT new_id, name, :targetBoardId, position FROM source_list
+            ), source_card AS (
+                SELECT c.id, c.title, c.description, c.date, c.position, sl.new_id AS new_list_id,
+                       nextval(pg_get_serial_sequence('tbl_card', 'id')) AS new_id
+                FROM tbl_card c JOIN source_list sl ON sl.id = c.laneId
+                WHERE :includeCards
+            ), inserted_card AS (
+                INSERT INTO tbl_card (id, title, description, date, laneId, position)
+                SELECT new_id, title, description, date, new_list_id, position FROM source_card
+            ), source_board_label AS (
+                SELECT lb.id, lb.name, lb.color,
+                       nextval(pg_get_serial_sequence('tbl_label', 'id')) AS new_id
+                FROM tbl_label lb WHERE lb.board_id = :sourceBoardId
+            ), inserted_board_label AS (
+                INSERT INTO tbl_label (id, name, color, board_id)
+                SELECT new_id, name, color, :targetBoardId FROM source_board_label
+            ), inserted_label AS (
+                -- Label riêng của board nguồn được thay bằng bản copy, label dùng chung giữ nguyên
+                INSERT INTO tbl_card_label (card_id, label_id)
+                SELECT sc.new_id, COALESCE(sbl.new_id, cl.label_id)
+                FROM tbl_card_label cl JOIN source_card sc ON sc.id = cl.card_id
+                LEFT JOIN source_board_label sbl ON sbl.id = cl.label_id
+            ), inserted_attachment AS (
+                -- Bản copy dùng chung object trong AttachmentStorage với attachment gốc
+                INSERT INTO tbl_attachment (file_path, file_name, file_lastModified, file_lastModifiedDate,
+                                            content_type, size_bytes, thumbnail_path, preview, card_id)
+                SELECT a.file_path, a.file_name, a.file_lastModified, a.file_lastModifiedDate,
+                       a.content_type, a.size_bytes, a.thumbnail_path, a.preview, sc.new_id
+                FROM tbl_attachment a JOIN source_card sc ON sc.id = a.card_id
+            )
+            SELECT (SELECT COUNT(*) FROM source_list) AS lists, (SELECT COUNT(*) FROM source_card) AS cards,
+                   (SELECT COUNT(*) FROM source_board_label) AS labels
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BoardRepository boardRepository;
+    private final AuthzService authzService;
+    private final BoardViewService boardViewService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BoardDto cloneBoard(Long sourceBoardId, CloneBoardRequest request, Long currentUserId) {
+        if (!authzService.isBoardMember(currentUserId, sourceBoardId)) {
+            throw new AccessDeniedException("Access denied to board " + sourceBoardId);
+        }
+        if (!boardRepository.existsById(sourceBoardId)) {
+            throw new NotFoundException("Board not found with id: " + sourceBoardId);
+        }
+        if (boardRepository.existsByName(request.getName())) {
+            throw new IllegalArgumentException("Board with name '" + request.getName() + "' already exists");
+        }
+
+        Long targetBoardId = jdbcTemplate.queryForObject(INSERT_BOARD_SQL,
+                new MapSqlParameterSource("name", request.getName()), Long.class);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sourceBoardId", sourceBoardId)
+                .addValue("targetBoardId", targetBoardId)
+                .addValue("userId", currentUserId)
+                .addValue("includeCards", !Boolean.FALSE.equals(request.getIncludeCards()));
+
+        jdbcTemplate.update(COPY_ROLES_SQL, params);
+        jdbcTemplate.update(ENSURE_DEFAULT_ROLES_SQL, params);
+        jdbcTemplate.update(COPY_ROLE_PERMISSIONS_SQL, params);
+        jdbcTemplate.update(ADD_OWNER_SQL, params);
+        Map<String, Object> counts = jdbcTemplate.queryForMap(COPY_CONTENT_SQL, params);
+
+        log.info("Cloned board {} into {} ({} lists, {} cards) for user {}",
+                sourceBoardId, targetBoardId, counts.get("lists"), counts.get("cards"), currentUserId);
+        eventPublisher.publishEvent(new BoardChangedEvent(targetBoardId,
+                BoardChangedEvent.EntityType.BOARD, targetBoardId, BoardChangedEvent.Action.CREATED));
+        if (((Number) counts.get("labels")).longValue() > 0) {
+            eventPublisher.publishEvent(new LabelChangedEvent(null));
+        }
+        return boardViewService.getBoardSummary(targetBoardId);
+    }
+}
@@ -0,0 +1,205 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardLabelView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardMemberView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardView;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.index.BoardCardIndex;
+import vn.yenthan.taskmanager.scrumboard.index.CardFilter;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardLabelRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lọc card của board theo member, label và due date bằng chỉ mục trong bộ nhớ (BoardCardIndex).
+ * Chỉ mục được dựng khi board được lọc lần đầu, cập nhật theo BoardChangedEvent của card,
+ * và bị loại bỏ theo LRU khi số board vượt quá giới hạn.
+ * Revision của board (BoardRevisionService) cho biết chỉ mục còn khớp dữ liệu hay không,
+ * kể cả khi board bị thay đổi từ node khác.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoardFilterService {
+
+    private final BoardRepository boardRepository;
+    private final ListRepository listRepository;
+    private final CardRepository cardRepository;
+    private final CardMemberRepository cardMemberRepository;
+    private final CardLabelRepository cardLabelRepository;
+    private final BoardRevisionService boardRevisionService;
+
+    @Value("${scrumboard.filter-index.max-boards:200}")
+    private int maxBoards;
+
+    // access-order: board được lọc gần nhất nằm cuối, board lâu không dùng bị loại trước
+    private final Map<Long, BoardCardIndex> indexes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BoardCardIndex> eldest) {
+            return size() > maxBoards;
+        }
+    };
+
+    public List<Long> filterCards(Long boardId, CardFilter filter) {
+        return getIndex(boardId).filter(filter);
+    }
+
+    /**
+     * Chạy sau BoardRevisionService (đã tăng revision): nếu revision chỉ tăng đúng 1 so với chỉ mục
+     * thì thay đổi này là thay đổi duy nhất chưa áp dụng, cập nhật tại chỗ; ngược lại bỏ chỉ mục để dựng lại.
+     * Chỉ chạm chỉ mục của board trong event: card không chuyển được sang board khác.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent event) {
+        try {
+            BoardCardIndex index = cachedIndex(event.getBoardId());
+            if (index == null) {
+                return;
+            }
+            Long revision = boardRevisionService.getRevision(event.getBoardId());
+            // Query DB trước khi lấy write lock, để các lần lọc không phải chờ DB
+            CardEntry card = event.getEntityType() == BoardChangedEvent.EntityType.CARD
+                    ? loadCard(event.getBoardId(), event.getEntityId())
+                    : null;
+            boolean refreshed = false;
+            index.lock().writeLock().lock();
+            try {
+                if (revision != null && revision == index.getRevision()) {
+                    // Chỉ mục đã được dựng lại sau thay đổi này
+                    refreshed = true;
+                } else if (revision != null && revision == index.getRevision() + 1 && applyChange(index, event, card)) {
+                    index.setRevision(revision);
+                    refreshed = true;
+                }
+            } finally {
+                index.lock().writeLock().unlock();
+            }
+            if (!refreshed) {
+                evict(event.getBoardId(), index);
+            }
+        } catch (Exception e) {
+            log.error("Error updating filter index for board {}: {}", event.getBoardId(), e.getMessage());
+            evict(event.getBoardId(), null);
+        }
+    }
+
+    // false: thay đổi không áp dụng tại chỗ được, cần dựng lại chỉ mục. Gọi khi đang giữ write lock
+    private boolean applyChange(BoardCardIndex index, BoardChangedEvent event, CardEntry card) {
+        return switch (event.getEntityType()) {
+            case CARD -> {
+                if (card.onBoard()) {
+                    index.putCard(card.cardId(), card.date(), card.memberIds(), card.labelIds());
+                } else {
+                    index.removeCard(card.cardId());
+                }
+                yield true;
+            }
+            // Xóa list/board kéo theo xóa card mà không phát event cho từng card
+            case LIST, BOARD -> event.getAction() != BoardChangedEvent.Action.DELETED;
+            case LABEL -> {
+                if (event.getAction() == BoardChangedEvent.Action.DELETED) {
+                    index.removeLabel(event.getEntityId());
+                }
+                yield true;
+            }
+            case MEMBER -> true;
+        };
+    }
+
+    private CardEntry loadCard(Long boardId, Long cardId) {
+        CardView card = cardRepository.findViewById(cardId).orElse(null);
+        boolean onBoard = card != null && card.listId() != null && listRepository.findViewById(card.listId())
+                .map(list -> boardId.equals(list.boardId()))
+                .orElse(false);
+        if (!onBoard) {
+            return new CardEntry(cardId, false, null, List.of(), List.of());
+        }
+        List<Long> memberIds = cardMemberRepository.findViewsByCardIds(List.of(cardId)).stream()
+                .map(CardMemberView::userId)
+                .toList();
+        List<Long> labelIds = cardLabelRepository.findViewsByCardIds(List.of(cardId)).stream()
+                .map(CardLabelView::labelId)
+                .toList();
+        return new CardEntry(cardId, true, card.date(), memberIds, labelIds);
+    }
+
+    private BoardCardIndex getIndex(Long boardId) {
+        Long revision = boardRevisionService.getRevision(boardId);
+        BoardCardIndex index = cachedIndex(boardId);
+        if (index != null && revision != null && index.getRevision() == revision) {
+            return index;
+        }
+        index = buildIndex(boardId, revision != null ? revision : 0L);
+        // Không có revision (Redis lỗi) thì không biết khi nào chỉ mục cũ, chỉ dùng cho lần gọi này
+        if (revision != null) {
+            synchronized (indexes) {
+                indexes.put(boardId, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Dựng chỉ mục từ projection: 3 query (card, member, label) cho cả board, không load entity.
+     */
+    private BoardCardIndex buildIndex(Long boardId, long revision) {
+        if (!boardRepository.existsById(boardId)) {
+            throw new NotFoundException("Board not found with id: " + boardId);
+        }
+        long startedAt = System.nanoTime();
+        List<CardView> cards = cardRepository.findViewsByBoardIds(List.of(boardId));
+        Map<Long, List<Long>> membersByCard = new HashMap<>();
+        for (CardMemberView member : cardMemberRepository.findViewsByBoardId(boardId)) {
+            membersByCard.computeIfAbsent(member.cardId(), id -> new ArrayList<>()).add(member.userId());
+        }
+        Map<Long, List<Long>> labelsByCard = new HashMap<>();
+        for (CardLabelView label : cardLabelRepository.findViewsByBoardId(boardId)) {
+            labelsByCard.computeIfAbsent(label.cardId(), id -> new ArrayList<>()).add(label.labelId());
+        }
+
+        BoardCardIndex index = new BoardCardIndex(revision);
+        for (CardView card : cards) {
+            index.putCard(card.id(), card.date(),
+                    membersByCard.getOrDefault(card.id(), List.of()),
+                    labelsByCard.getOrDefault(card.id(), List.of()));
+        }
+        log.debug("Built filter index for board {} with {} cards in {} ms",
+                boardId, index.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return index;
+    }
+
+    private BoardCardIndex cachedIndex(Long boardId) {
+        synchronized (indexes) {
+            return indexes.get(boardId);
+        }
+    }
+
+    // expected != null: chỉ bỏ nếu chỉ mục chưa bị thay bằng bản dựng mới hơn
+    private void evict(Long boardId, BoardCardIndex expected) {
+        synchronized (indexes) {
+            if (expected == null || indexes.get(boardId) == expected) {
+                indexes.remove(boardId);
+            }
+        }
+    }
+
+    // Trạng thái một card đọc từ DB, onBoard = false: card đã bị xóa khỏi board
+    private record CardEntry(Long cardId, boolean onBoard, Instant date, List<Long> memberIds, List<Long> labelIds) {
+    }
+}
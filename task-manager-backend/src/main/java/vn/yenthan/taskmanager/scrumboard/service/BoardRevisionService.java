@@ -0,0 +1,79 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.yenthan.taskmanager.core.util.ETagUtils;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+
+/**
+ * Bộ đếm thay đổi theo board, lưu trên Redis để dùng chung giữa các node.
+ * Dùng làm ETag cho các API đọc board/list: client gửi If-None-Match và nhận 304 nếu board chưa đổi.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoardRevisionService {
+
+    private static final String REVISION_PREFIX = "board:revision:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * ETag của các API đọc board/list, null nếu Redis không khả dụng (khi đó bỏ qua conditional GET).
+     */
+    public String getBoardETag(Long boardId) {
+        return ETagUtils.fromBoardRevision(boardId, getRevision(boardId), null);
+    }
+
+    /**
+     * ETag của API đọc board, kèm version của board để client gửi lại làm If-Match khi sửa board.
+     */
+    public String getBoardETag(Long boardId, Long version) {
+        return ETagUtils.fromBoardRevision(boardId, getRevision(boardId), version);
+    }
+
+    /**
+     * Revision hiện tại của board, null nếu Redis không khả dụng.
+     */
+    public Long getRevision(Long boardId) {
+        try {
+            String key = REVISION_PREFIX + boardId;
+            String revision = redisTemplate.opsForValue().get(key);
+            if (revision == null) {
+                initRevision(key);
+                revision = redisTemplate.opsForValue().get(key);
+            }
+            return Long.valueOf(revision);
+        } catch (Exception e) {
+            log.warn("Cannot read revision for board {}: {}", boardId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Tăng revision sau khi transaction commit, để ETag mới chỉ xuất hiện khi dữ liệu mới đã đọc được.
+     * Chạy trước các listener AFTER_COMMIT khác, để chúng đọc được revision mới.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBoardChanged(BoardChangedEvent event) {
+        try {
+            String key = REVISION_PREFIX + event.getBoardId();
+            initRevision(key);
+            redisTemplate.opsForValue().increment(key);
+        } catch (Exception e) {
+            log.error("Error bumping revision for board {}: {}", event.getBoardId(), e.getMessage());
+        }
+    }
+
+    private void initRevision(String key) {
+        // Key bị mất (Redis restart/evict) thì khởi tạo theo thời gian hiện tại, không bao giờ quay lại revision cũ
+        redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(System.currentTimeMillis()));
+    }
+}
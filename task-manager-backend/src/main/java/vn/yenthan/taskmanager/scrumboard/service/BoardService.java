@@ -2,21 +2,21 @@ package vn.yenthan.taskmanager.scrumboard.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.exception.payload.ConflictException;
 import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
 
-import vn.yenthan.taskmanager.core.util.EntityBase;
 import vn.yenthan.taskmanager.scrumboard.dto.request.CreateBoardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateBoardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
-import vn.yenthan.taskmanager.scrumboard.entity.ListEntity;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
 import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
 import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
 import vn.yenthan.taskmanager.scrumboard.repository.BoardRoleRepository;
-import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardRoleEntity;
 import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
 import vn.yenthan.taskmanager.scrumboard.service.MemberService;
@@ -30,46 +30,21 @@ import java.util.List;
 public class BoardService {
 
     private final BoardRepository boardRepository;
-    private final ListRepository listRepository;
     private final BoardRoleRepository boardRoleRepository;
     private final MemberService memberService;
     private final ScrumboardMapper scrumboardMapper;
     private final AuthzService authzService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BoardViewService boardViewService;
 
     @Transactional(readOnly = true)
     public List<BoardDto> getAllBoards(Long currentUserId) {
-        List<BoardEntity> boards;
-        
         // Global ADMIN có thể thấy tất cả board
         if (authzService.hasGlobalAdminRole(currentUserId)) {
-            boards = boardRepository.findAllWithLists();
-        } else {
-            // Chỉ lấy board mà user là member
-            boards = boardRepository.findByUserId(currentUserId);
-        }
-        
-        // Load cards for all lists efficiently
-        for (BoardEntity board : boards) {
-            if (board.getLists() != null && !board.getLists().isEmpty()) {
-                // Get all list IDs for this board
-                List<Long> listIds = board.getLists().stream()
-                        .map(EntityBase::getId)
-                        .toList();
-                
-                // Fetch all lists with their cards in one query
-                List<ListEntity> listsWithCards = listRepository.findByIdsWithCards(listIds);
-                
-                // Update the board's lists with cards
-                for (ListEntity list : board.getLists()) {
-                    listsWithCards.stream()
-                            .filter(l -> l.getId().equals(list.getId()))
-                            .findFirst()
-                            .ifPresent(l -> list.setCards(l.getCards()));
-                }
-            }
+            return boardViewService.getAllBoards();
         }
-        
-        return scrumboardMapper.toBoardDtoList(boards);
+        // Chỉ lấy board mà user là member
+        return boardViewService.getBoardsByUserId(currentUserId);
     }
 
     @Transactional(readOnly = true)
@@ -79,32 +54,7 @@ public class BoardService {
             throw new AccessDeniedException("Access denied to board " + id);
         }
         
-        // Fetch board with lists first
-        BoardEntity board = boardRepository.findByIdWithLists(id)
-                .orElseThrow(() -> new NotFoundException("Board not found with id: " + id));
-        
-        // Load members separately
-        boardRepository.findByIdWithMembers(id).ifPresent(b -> {
-            board.setMembers(b.getMembers());
-        });
-        
-        // Load cards for all lists
-        if (board.getLists() != null && !board.getLists().isEmpty()) {
-            List<Long> listIds = board.getLists().stream()
-                    .map(EntityBase::getId)
-                    .toList();
-            
-            List<ListEntity> listsWithCards = listRepository.findByIdsWithCards(listIds);
-            
-            for (ListEntity list : board.getLists()) {
-                listsWithCards.stream()
-                        .filter(l -> l.getId().equals(list.getId()))
-                        .findFirst()
-                        .ifPresent(l -> list.setCards(l.getCards()));
-            }
-        }
-        
-        return scrumboardMapper.toBoardDto(board);
+        return boardViewService.getBoard(id);
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -129,6 +79,7 @@ public class BoardService {
         
         log.info("Board created successfully with ID: {} and owner role assigned to user: {}", 
                 savedBoard.getId(), currentUserId);
+        publishChange(savedBoard.getId(), BoardChangedEvent.Action.CREATED);
         
         return scrumboardMapper.toBoardDto(savedBoard);
     }
@@ -142,12 +93,18 @@ public class BoardService {
         BoardEntity board = boardRepository.findById(request.getId())
                 .orElseThrow(() -> new NotFoundException("Board not found with id: " + request.getId()));
 
+        if (request.getVersion() != null && !request.getVersion().equals(board.getVersion())) {
+            throw new ConflictException("Board " + board.getId() + " has version " + board.getVersion()
+                    + ", expected " + request.getVersion(), scrumboardMapper.toBoardDto(board));
+        }
+
         if (!board.getName().equals(request.getName()) && boardRepository.existsByName(request.getName())) {
             throw new IllegalArgumentException("Board with name '" + request.getName() + "' already exists");
         }
 
         board.setName(request.getName());
-        BoardEntity updatedBoard = boardRepository.save(board);
+        BoardEntity updatedBoard = boardRepository.saveAndFlush(board);
+        publishChange(updatedBoard.getId(), BoardChangedEvent.Action.UPDATED);
         
         return scrumboardMapper.toBoardDto(updatedBoard);
     }
@@ -163,6 +120,11 @@ public class BoardService {
         }
         
         boardRepository.deleteById(id);
+        publishChange(id, BoardChangedEvent.Action.DELETED);
+    }
+
+    private void publishChange(Long boardId, BoardChangedEvent.Action action) {
+        eventPublisher.publishEvent(new BoardChangedEvent(boardId, BoardChangedEvent.EntityType.BOARD, boardId, action));
     }
 
     
@@ -0,0 +1,452 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView;
+import vn.yenthan.taskmanager.scrumboard.dto.request.CreateBoardRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
+import vn.yenthan.taskmanager.scrumboard.event.AttachmentStoredEvent;
+import vn.yenthan.taskmanager.scrumboard.event.LabelChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+import vn.yenthan.taskmanager.scrumboard.storage.AttachmentStorage;
+import vn.yenthan.taskmanager.scrumboard.util.RankUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Export/import board dạng NDJSON: mỗi dòng là một bản ghi {"type": "board" | "list" | "card", ...}.
+ * Dòng card chứa luôn members (email), labels (name/color) và attachments của card,
+ * nên import chỉ cần giữ map id của list, còn card được ghi theo batch với id cấp trước từ sequence.
+ * Không tin dữ liệu trong file: member chỉ giữ người thuộc board mới, attachment chỉ nhận key của
+ * attachment trên board mà người import xem được và được copy sang object mới.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoardTransferService {
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BATCH_SIZE = 500;
+
+    private static final String EXPORT_BOARD_SQL = """
+            SELECT json_build_object('type', 'board', 'id', b.id, 'name', b.name)::text
+            FROM tbl_board b WHERE b.id = ?
+            """;
+
+    private static final String EXPORT_LISTS_SQL = """
+            SELECT json_build_object('type', 'list', 'id', l.id, 'name', l.name, 'position', l.position)::text
+            FROM tbl_list l WHERE l.board_id = ?
+            ORDER BY l.position, l.id
+            """;
+
+    private static final String EXPORT_CARDS_SQL = """
+            SELECT json_build_object(
+                'type', 'card', 'id', c.id, 'listId', c.laneId, 'title', c.title,
+                'description', c.description, 'date', c.date, 'position', c.position,
+                'members', COALESCE((SELECT json_agg(u.email ORDER BY u.email)
+                                     FROM tbl_card_member cm JOIN tbl_user u ON u.id = cm.user_id
+                                     WHERE cm.card_id = c.id), '[]'::json),
+                'labels', COALESCE((SELECT json_agg(json_build_object('name', lb.name, 'color', lb.color) ORDER BY lb.id)
+                                    FROM tbl_card_label cl JOIN tbl_label lb ON lb.id = cl.label_id
+                                    WHERE cl.card_id = c.id), '[]'::json),
+                'attachments', COALESCE((SELECT json_agg(json_build_object(
+                                             'filePath', a.file_path, 'fileName', a.file_name,
+                                             'fileLastModified', a.file_lastModified,
+                                             'fileLastModifiedDate', a.file_lastModifiedDate,
+                                             'contentType', a.content_type, 'sizeBytes', a.size_bytes,
+                                             'thumbnailPath', a.thumbnail_path,
+                                             'preview', a.preview) ORDER BY a.id)
+                                         FROM tbl_attachment a WHERE a.card_id = c.id), '[]'::json)
+            )::text
+            FROM tbl_card c JOIN tbl_list l ON l.id = c.laneId
+            WHERE l.board_id = ?
+            ORDER BY l.position, l.id, c.position, c.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BoardService boardService;
+    private final BoardViewService boardViewService;
+    private final LabelCatalogService labelCatalogService;
+    private final RankRebalanceService rankRebalanceService;
+    private final AttachmentStorage attachmentStorage;
+    private final AuthzService authzService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Ghi board ra NDJSON. JSON được Postgres dựng sẵn cho từng dòng, đọc theo cursor nên bộ nhớ không đổi.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void exportBoard(Long boardId, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        if (writeLines(EXPORT_BOARD_SQL, boardId, writer) == 0) {
+            throw new NotFoundException("Board not found with id: " + boardId);
+        }
+        writeLines(EXPORT_LISTS_SQL, boardId, writer);
+        writeLines(EXPORT_CARDS_SQL, boardId, writer);
+        writer.flush();
+    }
+
+    private int writeLines(String sql, Long boardId, Writer writer) {
+        int[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, boardId);
+            return statement;
+        }, resultSet -> {
+            try {
+                writer.write(resultSet.getString(1));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot write board export", e);
+            }
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Tạo board mới từ NDJSON (dòng board phải đứng trước list, list trước card).
+     * Toàn bộ import chạy trong một transaction, lỗi ở bất kỳ dòng nào thì không tạo gì cả.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public BoardDto importBoard(InputStream inputStream, String name, Long currentUserId) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        ImportContext context = new ImportContext();
+        List<JsonNode> lists = new ArrayList<>();
+        List<JsonNode> cards = new ArrayList<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node = objectMapper.readTree(line);
+            String type = node.path("type").asText();
+            switch (type) {
+                case "board" -> {
+                    if (context.boardId != null) {
+                        throw new IllegalArgumentException("Duplicate board record at line " + lineNumber);
+                    }
+                    String boardName = name != null && !name.isBlank() ? name : node.path("name").asText();
+                    context.boardId = boardService.createBoard(
+                            CreateBoardRequest.builder().name(boardName).build(), currentUserId).getId();
+                    context.userId = currentUserId;
+                    context.admin = authzService.hasGlobalAdminRole(currentUserId);
+                }
+                case "list" -> {
+                    requireBoard(context, lineNumber);
+                    lists.add(node);
+                    if (lists.size() >= BATCH_SIZE) {
+                        insertLists(context, lists);
+                    }
+                }
+                case "card" -> {
+                    requireBoard(context, lineNumber);
+                    insertLists(context, lists);
+                    cards.add(node);
+                    if (cards.size() >= BATCH_SIZE) {
+                        insertCards(context, cards);
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unknown record type '" + type + "' at line " + lineNumber);
+            }
+        }
+        if (context.boardId == null) {
+            throw new IllegalArgumentException("Import file has no board record");
+        }
+        insertLists(context, lists);
+        insertCards(context, cards);
+        // Rank không hợp lệ đã được ghi null: đánh lại rank theo thứ tự trong file
+        if (context.rebuildListRanks) {
+            rankRebalanceService.rebalanceBoardLists(context.boardId);
+        }
+        context.rebuildCardRanks.forEach(rankRebalanceService::rebalanceListCards);
+        if (context.labelsCreated) {
+            eventPublisher.publishEvent(new LabelChangedEvent(null));
+        }
+        // Thumbnail của object mới được tạo lại sau commit như khi upload
+        context.storedAttachments.forEach(eventPublisher::publishEvent);
+
+        log.info("Imported board {} with {} lists and {} cards for user {}",
+                context.boardId, context.listIds.size(), context.cardCount, currentUserId);
+        return boardViewService.getBoardSummary(context.boardId);
+    }
+
+    private void requireBoard(ImportContext context, int lineNumber) {
+        if (context.boardId == null) {
+            throw new IllegalArgumentException("Record at line " + lineNumber + " appears before the board record");
+        }
+    }
+
+    private void insertLists(ImportContext context, List<JsonNode> lists) {
+        if (lists.isEmpty()) {
+            return;
+        }
+        List<Long> ids = nextIds("tbl_list", lists.size());
+        List<Object[]> rows = new ArrayList<>(lists.size());
+        for (int i = 0; i < lists.size(); i++) {
+            JsonNode list = lists.get(i);
+            context.listIds.put(list.path("id").asLong(), ids.get(i));
+            String position = rank(text(list, "position"));
+            if (position == null) {
+                context.rebuildListRanks = true;
+            } else if (rankRebalanceService.isTooLong(position)) {
+                rankRebalanceService.requestListRebalance(context.boardId);
+            }
+            rows.add(new Object[]{ids.get(i), list.path("name").asText(), context.boardId, position});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tbl_list (id, name, board_id, position) VALUES (?, ?, ?, ?)", rows);
+        lists.clear();
+    }
+
+    private void insertCards(ImportContext context, List<JsonNode> cards) throws IOException {
+        if (cards.isEmpty()) {
+            return;
+        }
+        List<Long> ids = nextIds("tbl_card", cards.size());
+        resolveUsers(context, cards);
+        resolveLabels(context, cards);
+        Map<String, SourceAttachment> sources = resolveAttachments(context, cards);
+
+        List<Object[]> cardRows = new ArrayList<>(cards.size());
+        List<Object[]> memberRows = new ArrayList<>();
+        List<Object[]> labelRows = new ArrayList<>();
+        List<Object[]> attachmentRows = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            JsonNode card = cards.get(i);
+            Long cardId = ids.get(i);
+            Long listId = context.listIds.get(card.path("listId").asLong());
+            if (listId == null) {
+                throw new IllegalArgumentException("Card " + card.path("id").asLong() + " references an unknown list");
+            }
+            String position = rank(text(card, "position"));
+            if (position == null) {
+                context.rebuildCardRanks.add(listId);
+            } else if (rankRebalanceService.isTooLong(position)) {
+                rankRebalanceService.requestCardRebalance(listId);
+            }
+            cardRows.add(new Object[]{cardId, card.path("title").asText(), text(card, "description"),
+                    text(card, "date"), listId, position});
+
+            Set<Long> userIds = new HashSet<>();
+            for (JsonNode email : card.path("members")) {
+                Long userId = context.userIds.get(email.asText());
+                // Người dùng không tồn tại trong hệ thống này thì bỏ qua
+                if (userId != null && userIds.add(userId)) {
+                    memberRows.add(new Object[]{cardId, userId});
+                }
+            }
+            Set<Long> labelIds = new HashSet<>();
+            for (JsonNode label : card.path("labels")) {
+                Long labelId = context.labelIds.get(labelKey(label));
+                if (labelIds.add(labelId)) {
+                    labelRows.add(new Object[]{cardId, labelId});
+                }
+            }
+            for (JsonNode attachment : card.path("attachments")) {
+                SourceAttachment source = sources.get(text(attachment, "filePath"));
+                // Key không thuộc attachment nào người import xem được thì bỏ qua
+                if (source == null) {
+                    continue;
+                }
+                String key = "cards/" + cardId + "/" + UUID.randomUUID();
+                long size;
+                try (InputStream content = attachmentStorage.open(source.key(), 0)) {
+                    size = attachmentStorage.store(key, content);
+                }
+                deleteIfRolledBack(key);
+                String fileName = text(attachment, "fileName");
+                attachmentRows.add(new Object[]{key, fileName != null ? fileName : source.fileName(),
+                        attachment.path("fileLastModified").asLong(), text(attachment, "fileLastModifiedDate"),
+                        source.contentType(), size, source.preview(), cardId});
+                context.storedAttachments.add(new AttachmentStoredEvent(null, key, source.contentType()));
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO tbl_card (id, title, description, date, laneId, position) " +
+                "VALUES (?, ?, ?, CAST(? AS TIMESTAMP), ?, ?)", cardRows);
+        jdbcTemplate.batchUpdate("INSERT INTO tbl_card_member (card_id, user_id) VALUES (?, ?)", memberRows);
+        jdbcTemplate.batchUpdate("INSERT INTO tbl_card_label (card_id, label_id) VALUES (?, ?)", labelRows);
+        jdbcTemplate.batchUpdate("INSERT INTO tbl_attachment (file_path, file_name, file_lastModified, " +
+                "file_lastModifiedDate, content_type, size_bytes, preview, card_id) " +
+                "VALUES (?, ?, ?, COALESCE(?, ''), ?, ?, ?, ?)", attachmentRows);
+        context.cardCount += cards.size();
+        cards.clear();
+    }
+
+    // Cấp trước một khối id cho cả batch bằng một query, để ghi card và dữ liệu con trong cùng batch
+    private List<Long> nextIds(String table, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Long.class, table, count);
+    }
+
+    private void resolveUsers(ImportContext context, List<JsonNode> cards) {
+        Set<String> missing = new HashSet<>();
+        for (JsonNode card : cards) {
+            for (JsonNode email : card.path("members")) {
+                if (!context.userIds.containsKey(email.asText())) {
+                    missing.add(email.asText());
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        // Chỉ người đã là member của board mới (lúc import là người import) mới được gán vào card
+        namedParameterJdbcTemplate.query("""
+                        SELECT u.id, u.email FROM tbl_user u
+                        JOIN tbl_board_member bm ON bm.user_id = u.id AND bm.board_id = :boardId
+                        WHERE u.email IN (:emails)
+                        """,
+                new MapSqlParameterSource("emails", missing).addValue("boardId", context.boardId),
+                resultSet -> {
+                    context.userIds.put(resultSet.getString("email"), resultSet.getLong("id"));
+                });
+        // Ghi nhớ cả email không tìm thấy để không query lại
+        missing.forEach(email -> context.userIds.putIfAbsent(email, null));
+    }
+
+    // Key trong file chỉ được nhận khi là attachment trên board mà người import xem được
+    private Map<String, SourceAttachment> resolveAttachments(ImportContext context, List<JsonNode> cards) {
+        Set<String> keys = new HashSet<>();
+        for (JsonNode card : cards) {
+            for (JsonNode attachment : card.path("attachments")) {
+                String key = text(attachment, "filePath");
+                if (key != null) {
+                    keys.add(key);
+                }
+            }
+        }
+        Map<String, SourceAttachment> sources = new HashMap<>();
+        if (keys.isEmpty()) {
+            return sources;
+        }
+        StringBuilder sql = new StringBuilder("""
+                SELECT DISTINCT ON (a.file_path) a.file_path, a.file_name, a.content_type, a.preview
+                FROM tbl_attachment a
+                JOIN tbl_card c ON c.id = a.card_id
+                JOIN tbl_list l ON l.id = c.laneId
+                WHERE a.file_path IN (:keys)
+                """);
+        MapSqlParameterSource params = new MapSqlParameterSource("keys", keys);
+        if (!context.admin) {
+            sql.append(" AND EXISTS (SELECT 1 FROM tbl_board_member bm WHERE bm.board_id = l.board_id AND bm.user_id = :userId)");
+            params.addValue("userId", context.userId);
+        }
+        sql.append(" ORDER BY a.file_path, a.id");
+        namedParameterJdbcTemplate.query(sql.toString(), params, resultSet -> {
+            String contentType = resultSet.getString("content_type");
+            sources.put(resultSet.getString("file_path"), new SourceAttachment(resultSet.getString("file_path"),
+                    resultSet.getString("file_name"),
+                    contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                    resultSet.getString("preview")));
+        });
+        return sources;
+    }
+
+    // Object đã copy nhưng import không được commit thì bỏ đi
+    private void deleteIfRolledBack(String key) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    try {
+                        attachmentStorage.delete(key);
+                    } catch (IOException e) {
+                        log.warn("Cannot delete uncommitted attachment object {}: {}", key, e.getMessage());
+                    }
+                }
+            }
+        });
+    }
+
+    // Label dùng chung cùng tên/màu thì dùng lại (tra trong catalog), không có thì tạo label riêng cho board mới
+    private void resolveLabels(ImportContext context, List<JsonNode> cards) {
+        for (JsonNode card : cards) {
+            for (JsonNode label : card.path("labels")) {
+                String key = labelKey(label);
+                if (context.labelIds.containsKey(key)) {
+                    continue;
+                }
+                String labelName = label.path("name").asText();
+                String color = label.path("color").asText();
+                Long labelId = labelCatalogService.findGlobal(labelName, color)
+                        .map(LabelView::id)
+                        .orElseGet(() -> {
+                            context.labelsCreated = true;
+                            return jdbcTemplate.queryForObject(
+                                    "INSERT INTO tbl_label (name, color, board_id) VALUES (?, ?, ?) RETURNING id",
+                                    Long.class, labelName, color, context.boardId);
+                        });
+                context.labelIds.put(key, labelId);
+            }
+        }
+    }
+
+    // File import có thể được sửa tay: rank ngoài bảng chữ cái hoặc quá dài thì bỏ
+    private static String rank(String position) {
+        return RankUtils.isValid(position) ? position : null;
+    }
+
+    private static String labelKey(JsonNode label) {
+        return label.path("name").asText() + '\u0000' + label.path("color").asText();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private record SourceAttachment(String key, String fileName, String contentType, String preview) {
+    }
+
+    // Trạng thái của một lần import: chỉ giữ map id list và các user/label đã tra cứu, không giữ card
+    private static class ImportContext {
+        private Long boardId;
+        private Long userId;
+        private boolean admin;
+        private final List<AttachmentStoredEvent> storedAttachments = new ArrayList<>();
+        private final Map<Long, Long> listIds = new HashMap<>();
+        private final Map<String, Long> userIds = new HashMap<>();
+        private final Map<String, Long> labelIds = new HashMap<>();
+        private final Set<Long> rebuildCardRanks = new LinkedHashSet<>();
+        private long cardCount;
+        private boolean labelsCreated;
+        private boolean rebuildListRanks;
+    }
+}
@@ -0,0 +1,238 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.BoardView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.ListView;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardListDto;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardLabelRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Read model cho các màn hình board/list/card: đọc bằng projection (record) rồi ghép thành DTO,
+ * không load entity nên không có persistence context, proxy hay snapshot dirty-checking.
+ * Mỗi view tốn cố định 1 query cho mỗi loại dữ liệu (board, list, card, member, label, attachment).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class BoardViewService {
+
+    // Giới hạn số tham số của mệnh đề IN khi load dữ liệu con của card
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    // Số card giữ trong bộ nhớ cùng lúc khi stream board
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    private final BoardRepository boardRepository;
+    private final ListRepository listRepository;
+    private final CardRepository cardRepository;
+    private final CardMemberRepository cardMemberRepository;
+    private final CardLabelRepository cardLabelRepository;
+    private final ScrumboardMapper scrumboardMapper;
+
+    public BoardDto getBoard(Long boardId) {
+        BoardView board = boardRepository.findViewById(boardId)
+                .orElseThrow(() -> new NotFoundException("Board not found with id: " + boardId));
+        return assembleBoards(List.of(board)).get(0);
+    }
+
+    public BoardDto getBoardSummary(Long boardId) {
+        return boardRepository.findViewById(boardId)
+                .map(scrumboardMapper::toBoardDto)
+                .orElseThrow(() -> new NotFoundException("Board not found with id: " + boardId));
+    }
+
+    public List<BoardDto> getAllBoards() {
+        return assembleBoards(boardRepository.findAllViews());
+    }
+
+    public List<BoardDto> getBoardsByUserId(Long userId) {
+        return assembleBoards(boardRepository.findViewsByUserId(userId));
+    }
+
+    public List<CardListDto> getListsByBoardId(Long boardId) {
+        List<ListView> lists = listRepository.findViewsByBoardIds(List.of(boardId));
+        return assembleLists(lists, cardRepository.findViewsByBoardIds(List.of(boardId)));
+    }
+
+    public CardListDto getList(Long listId) {
+        ListView list = listRepository.findViewById(listId)
+                .orElseThrow(() -> new NotFoundException("List not found with id: " + listId));
+        return assembleLists(List.of(list), cardRepository.findViewsByListId(listId)).get(0);
+    }
+
+    public List<CardDto> getCardsByListId(Long listId) {
+        return assembleCards(cardRepository.findViewsByListId(listId));
+    }
+
+    public List<CardDto> getCards(List<Long> cardIds) {
+        return assembleCards(inChunks(cardIds, cardRepository::findViewsByIds));
+    }
+
+    public CardDto getCard(Long cardId) {
+        CardView card = cardRepository.findViewById(cardId)
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
+        return assembleCards(List.of(card)).get(0);
+    }
+
+    /**
+     * Ghi board (cùng cấu trúc BoardDto) trực tiếp ra generator. Card được đọc theo cursor và ghép
+     * member/label/attachment theo từng chunk, nên bộ nhớ không phụ thuộc vào số card của board.
+     * REPEATABLE_READ để list và card đọc từ cùng một snapshot.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void writeBoard(Long boardId, JsonGenerator generator) throws IOException {
+        BoardView board = boardRepository.findViewById(boardId)
+                .orElseThrow(() -> new NotFoundException("Board not found with id: " + boardId));
+        List<ListView> lists = listRepository.findViewsByBoardIds(List.of(boardId));
+        Map<Long, Integer> listIndexes = new HashMap<>();
+        for (int i = 0; i < lists.size(); i++) {
+            listIndexes.put(lists.get(i).id(), i);
+        }
+
+        generator.writeStartObject();
+        generator.writeObjectField("id", board.id());
+        generator.writeObjectField("name", board.name());
+        generator.writeObjectField("version", board.version());
+        generator.writeArrayFieldStart("list");
+        try (Stream<CardView> cardStream = cardRepository.streamViewsByBoardId(boardId)) {
+            Iterator<CardView> cardViews = cardStream.iterator();
+            Deque<CardDto> buffer = new ArrayDeque<>();
+            for (int i = 0; i < lists.size(); i++) {
+                ListView list = lists.get(i);
+                generator.writeStartObject();
+                generator.writeObjectField("id", list.id());
+                generator.writeObjectField("name", list.name());
+                generator.writeObjectField("position", list.position());
+                generator.writeObjectField("version", list.version());
+                generator.writeArrayFieldStart("cards");
+                while (true) {
+                    if (buffer.isEmpty() && !fillBuffer(cardViews, buffer)) {
+                        break;
+                    }
+                    Integer cardListIndex = listIndexes.get(buffer.peek().getLaneId());
+                    if (cardListIndex != null && cardListIndex > i) {
+                        break;
+                    }
+                    CardDto card = buffer.poll();
+                    // Card của list không có trong snapshot thì bỏ qua
+                    if (cardListIndex != null && cardListIndex == i) {
+                        generator.writeObject(card);
+                    }
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private boolean fillBuffer(Iterator<CardView> cardViews, Deque<CardDto> buffer) {
+        List<CardView> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        while (chunk.size() < STREAM_CHUNK_SIZE && cardViews.hasNext()) {
+            chunk.add(cardViews.next());
+        }
+        buffer.addAll(assembleCards(chunk));
+        return !chunk.isEmpty();
+    }
+
+    private List<BoardDto> assembleBoards(List<BoardView> boards) {
+        if (boards.isEmpty()) {
+            return List.of();
+        }
+        List<Long> boardIds = boards.stream().map(BoardView::id).distinct().toList();
+        List<ListView> listViews = listRepository.findViewsByBoardIds(boardIds);
+        List<CardListDto> lists = assembleLists(listViews, cardRepository.findViewsByBoardIds(boardIds));
+
+        // assembleLists giữ nguyên thứ tự của listViews
+        Map<Long, List<CardListDto>> listsByBoard = new HashMap<>();
+        for (int i = 0; i < listViews.size(); i++) {
+            listsByBoard.computeIfAbsent(listViews.get(i).boardId(), id -> new ArrayList<>()).add(lists.get(i));
+        }
+
+        List<BoardDto> result = new ArrayList<>(boards.size());
+        for (BoardView board : boards) {
+            BoardDto dto = scrumboardMapper.toBoardDto(board);
+            dto.setList(listsByBoard.getOrDefault(board.id(), new ArrayList<>()));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private List<CardListDto> assembleLists(List<ListView> lists, List<CardView> cards) {
+        Map<Long, List<CardDto>> cardsByList = new HashMap<>();
+        for (CardDto card : assembleCards(cards)) {
+            cardsByList.computeIfAbsent(card.getLaneId(), id -> new ArrayList<>()).add(card);
+        }
+        List<CardListDto> result = new ArrayList<>(lists.size());
+        for (ListView list : lists) {
+            CardListDto dto = scrumboardMapper.toCardListDto(list);
+            dto.setCards(cardsByList.getOrDefault(list.id(), new ArrayList<>()));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private List<CardDto> assembleCards(List<CardView> cards) {
+        if (cards.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, CardDto> byId = new LinkedHashMap<>();
+        for (CardView card : cards) {
+            CardDto dto = scrumboardMapper.toCardDto(card);
+            dto.setMembers(new ArrayList<>());
+            dto.setLabel(new ArrayList<>());
+            dto.setAttachments(new ArrayList<>());
+            byId.put(card.id(), dto);
+        }
+        List<Long> cardIds = new ArrayList<>(byId.keySet());
+
+        inChunks(cardIds, cardMemberRepository::findViewsByCardIds).forEach(member ->
+                byId.get(member.cardId()).getMembers().add(scrumboardMapper.toMemberDto(member)));
+        inChunks(cardIds, cardLabelRepository::findViewsByCardIds).forEach(label ->
+                byId.get(label.cardId()).getLabel().add(scrumboardMapper.toLabelDto(label)));
+        inChunks(cardIds, cardRepository::findAttachmentViewsByCardIds).forEach(attachment ->
+                byId.get(attachment.cardId()).getAttachments().add(scrumboardMapper.toAttachmentDto(attachment)));
+
+        return new ArrayList<>(byId.values());
+    }
+
+    private static <T> List<T> inChunks(List<Long> ids, Function<Collection<Long>, List<T>> query) {
+        if (ids.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return query.apply(ids);
+        }
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            result.addAll(query.apply(ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()))));
+        }
+        return result;
+    }
+}
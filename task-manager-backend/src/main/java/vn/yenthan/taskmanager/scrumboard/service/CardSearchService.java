@@ -0,0 +1,135 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
+import vn.yenthan.taskmanager.core.util.CursorCodec;
+import vn.yenthan.taskmanager.core.util.CursorPage;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardSearchResultDto;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+
+import java.util.List;
+
+/**
+ * Tìm kiếm card theo title/description bằng full-text search của Postgres (cột search_vector + GIN),
+ * kèm so khớp trigram trên title để tìm được theo một phần từ. Chỉ trả card thuộc board mà user là member.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class CardSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // ts_headline trả nguyên văn title/description của user: đánh dấu từ khóa bằng ký tự điều khiển
+    // (đã bị loại khỏi text), escape HTML ở Java rồi mới đổi dấu thành <b>...</b>
+    private static final char START_SEL = '\u0002';
+    private static final char STOP_SEL = '\u0003';
+    private static final String HEADLINE_OPTIONS = "StartSel=" + START_SEL + ", StopSel=" + STOP_SEL;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AuthzService authzService;
+
+    public CursorPage<CardSearchResultDto> searchCards(String query, Long boardId, String cursor, int size,
+                                                       Long currentUserId) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("query", query.trim())
+                .addValue("pattern", "%" + escapeLike(query.trim()) + "%")
+                .addValue("userId", currentUserId)
+                .addValue("limit", limit + 1)
+                .addValue("titleOptions", "HighlightAll=true, " + HEADLINE_OPTIONS)
+                .addValue("descOptions", "MaxFragments=2, MaxWords=20, MinWords=5, " + HEADLINE_OPTIONS);
+
+        // Lọc và sắp xếp chỉ trên id + rank, ts_headline (tốn CPU) chỉ chạy cho các dòng của trang hiện tại
+        StringBuilder matches = new StringBuilder("""
+                SELECT c.id, (ts_rank(c.search_vector, q.tsq) + similarity(c.title, :query))::real AS rank
+                FROM tbl_card c
+                JOIN tbl_list l ON l.id = c.laneId
+                CROSS JOIN (SELECT websearch_to_tsquery('simple', :query) AS tsq) q
+                WHERE (c.search_vector @@ q.tsq OR c.title ILIKE :pattern)
+                """);
+        if (!authzService.hasGlobalAdminRole(currentUserId)) {
+            matches.append(" AND EXISTS (SELECT 1 FROM tbl_board_member bm WHERE bm.board_id = l.board_id AND bm.user_id = :userId)");
+        }
+        if (boardId != null) {
+            matches.append(" AND l.board_id = :boardId");
+            params.addValue("boardId", boardId);
+        }
+
+        StringBuilder page = new StringBuilder("SELECT m.id, m.rank FROM (").append(matches).append(") m");
+        if (cursor != null && !cursor.isBlank()) {
+            SearchCursor after = decodeCursor(cursor);
+            page.append(" WHERE (m.rank, m.id) < (CAST(:cursorRank AS real), :cursorId)");
+            params.addValue("cursorRank", after.rank());
+            params.addValue("cursorId", after.id());
+        }
+        page.append(" ORDER BY m.rank DESC, m.id DESC LIMIT :limit");
+
+        String sql = "WITH page AS (" + page + ") " + """
+                SELECT c.id, c.laneId, l.board_id, b.name AS board_name, c.title, p.rank,
+                       ts_headline('simple', translate(c.title, chr(2) || chr(3), ''), q.tsq, :titleOptions) AS title_highlight,
+                       ts_headline('simple', translate(COALESCE(c.description, ''), chr(2) || chr(3), ''), q.tsq,
+                                   :descOptions) AS desc_highlight
+                FROM page p
+                JOIN tbl_card c ON c.id = p.id
+                JOIN tbl_list l ON l.id = c.laneId
+                JOIN tbl_board b ON b.id = l.board_id
+                CROSS JOIN (SELECT websearch_to_tsquery('simple', :query) AS tsq) q
+                ORDER BY p.rank DESC, p.id DESC
+                """;
+
+        List<CardSearchResultDto> results = jdbcTemplate.query(sql, params, (rs, rowNum) -> CardSearchResultDto.builder()
+                .id(rs.getLong("id"))
+                .laneId(rs.getLong("laneId"))
+                .boardId(rs.getLong("board_id"))
+                .boardName(rs.getString("board_name"))
+                .title(rs.getString("title"))
+                .titleHighlight(toHtml(rs.getString("title_highlight")))
+                .descHighlight(toHtml(rs.getString("desc_highlight")))
+                .rank(rs.getFloat("rank"))
+                .build());
+
+        if (results.size() <= limit) {
+            return new CursorPage<>(results, null);
+        }
+        List<CardSearchResultDto> content = results.subList(0, limit);
+        CardSearchResultDto last = content.get(limit - 1);
+        return new CursorPage<>(content, encodeCursor(new SearchCursor(last.getRank(), last.getId())));
+    }
+
+    /**
+     * Đoạn trích an toàn để render: escape toàn bộ text rồi mới bọc từ khóa trong <b>...</b>.
+     */
+    static String toHtml(String headline) {
+        if (headline == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(headline)
+                .replace(String.valueOf(START_SEL), "<b>")
+                .replace(String.valueOf(STOP_SEL), "</b>");
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record SearchCursor(float rank, long id) {
+    }
+
+    private static String encodeCursor(SearchCursor cursor) {
+        return CursorCodec.encode(cursor.rank(), cursor.id());
+    }
+
+    private static SearchCursor decodeCursor(String cursor) {
+        return CursorCodec.decode(cursor, 2, values -> new SearchCursor(Float.parseFloat(values[0]), Long.parseLong(values[1])));
+    }
+}
@@ -2,23 +2,41 @@ package vn.yenthan.taskmanager.scrumboard.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.exception.payload.ConflictException;
 import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.core.exception.payload.ValidationException;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardMemberView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView;
 import vn.yenthan.taskmanager.scrumboard.dto.request.CreateCardRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.request.MoveCardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateCardRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateCardCategoryRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.response.CardDto;
 import vn.yenthan.taskmanager.scrumboard.entity.*;
+import vn.yenthan.taskmanager.scrumboard.event.AttachmentsDeletedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.CardDueDateChangedEvent;
 import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
 import vn.yenthan.taskmanager.scrumboard.repository.*;
+import vn.yenthan.taskmanager.scrumboard.util.RankUtils;
 import vn.yenthan.taskmanager.core.auth.repository.UserRepository;
 import vn.yenthan.taskmanager.core.auth.entity.User;
+import vn.yenthan.taskmanager.notifications.payload.CardAssignedPayload;
+import vn.yenthan.taskmanager.notifications.payload.CardUpdatedPayload;
+import vn.yenthan.taskmanager.notifications.service.NotificationService;
+import vn.yenthan.taskmanager.websocket.service.WebSocketBroadcastService;
 
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,40 +50,23 @@ public class CardService {
     private final LabelRepository labelRepository;
     private final CardMemberRepository cardMemberRepository;
     private final CardLabelRepository cardLabelRepository;
+    private final AttachmentRepository attachmentRepository;
     private final ScrumboardMapper scrumboardMapper;
+    private final RankRebalanceService rankRebalanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BoardViewService boardViewService;
+    private final LabelCatalogService labelCatalogService;
+    private final NotificationService notificationService;
+    private final WebSocketBroadcastService webSocketBroadcastService;
 
     @Transactional(readOnly = true)
     public List<CardDto> getCardsByListId(Long listId) {
-        List<CardEntity> cards = cardRepository.findByListIdWithMembers(listId);
-        return scrumboardMapper.toCardDtoList(cards);
+        return boardViewService.getCardsByListId(listId);
     }
 
     @Transactional(readOnly = true)
     public CardDto getCardById(Long id) {
-        
-        // Fetch card with all related data using separate queries to avoid MultipleBagFetchException
-        CardEntity card = cardRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Card not found with id: " + id));
-        
-        // Load related data separately
-        cardRepository.findByIdWithMembers(id).ifPresent(c -> {
-            card.setMembers(c.getMembers());
-        });
-        
-        cardRepository.findByIdWithLabels(id).ifPresent(c -> {
-            card.setLabels(c.getLabels());
-        });
-        
-        cardRepository.findByIdWithAttachments(id).ifPresent(c -> {
-            card.setAttachments(c.getAttachments());
-        });
-        
-        cardRepository.findByIdWithComments(id).ifPresent(c -> {
-            card.setComments(c.getComments());
-        });
-        
-        
-        return scrumboardMapper.toCardDto(card);
+        return boardViewService.getCard(id);
     }
 
     public CardDto createCard(CreateCardRequest request) {
@@ -77,6 +78,7 @@ public class CardService {
         card.setTitle(request.getTitle());
         card.setDescription(request.getDescription());
         card.setList(list);
+        card.setPosition(nextPositionInList(list.getId()));
         
         if (request.getDate() != null && !request.getDate().isEmpty()) {
             try {
@@ -95,10 +97,19 @@ public class CardService {
         
         // Add labels if provided
         if (request.getLabelIds() != null && !request.getLabelIds().isEmpty()) {
-            addLabelsToCard(savedCard.getId(), request.getLabelIds());
+            addLabelsToCard(savedCard, request.getLabelIds());
         }
         
-        return scrumboardMapper.toCardDto(savedCard);
+        publishChange(savedCard, BoardChangedEvent.Action.CREATED);
+        if (request.getMemberIds() != null) {
+            notifyAssigned(savedCard, request.getMemberIds());
+        }
+        if (savedCard.getDate() != null) {
+            eventPublisher.publishEvent(new CardDueDateChangedEvent(savedCard.getId(), savedCard.getDate()));
+        }
+        CardDto createdCard = scrumboardMapper.toCardDto(savedCard);
+        webSocketBroadcastService.broadcastCardCreated(list.getBoard().getId(), savedCard.getId(), createdCard);
+        return createdCard;
     }
 
     public CardDto updateCard(UpdateCardRequest request) {
@@ -106,6 +117,9 @@ public class CardService {
         CardEntity card = cardRepository.findById(request.getId())
                 .orElseThrow(() -> new NotFoundException("Card not found with id: " + request.getId()));
 
+        checkVersion(card, request.getVersion());
+        Instant previousDate = card.getDate();
+
         card.setTitle(request.getTitle());
         card.setDescription(request.getDescription());
         
@@ -117,25 +131,57 @@ public class CardService {
             }
         }
         
-        if (request.getLaneId() != null) {
+        if (request.getLaneId() != null
+                && (card.getList() == null || !request.getLaneId().equals(card.getList().getId()))) {
             ListEntity list = listRepository.findById(request.getLaneId())
                     .orElseThrow(() -> new NotFoundException("List not found with id: " + request.getLaneId()));
+            checkSameBoard(card, list);
             card.setList(list);
+            card.setPosition(nextPositionInList(list.getId()));
         }
         
-        CardEntity updatedCard = cardRepository.save(card);
+        if (request.getMemberIds() != null || request.getLabelIds() != null) {
+            // Đổi member/label không làm dirty row card, chạm updatedAt để version vẫn tăng
+            card.setUpdatedAt(Instant.now());
+        }
+
+        CardEntity updatedCard = cardRepository.saveAndFlush(card);
+        Set<Long> previousMemberIds = cardMemberRepository.findViewsByCardIds(List.of(updatedCard.getId())).stream()
+                .map(CardMemberView::userId)
+                .collect(Collectors.toSet());
         
         // Update members if provided
         if (request.getMemberIds() != null) {
             updateCardMembers(updatedCard.getId(), request.getMemberIds());
+            notifyAssigned(updatedCard, request.getMemberIds().stream()
+                    .filter(memberId -> !previousMemberIds.contains(memberId))
+                    .toList());
         }
         
         // Update labels if provided
         if (request.getLabelIds() != null) {
-            updateCardLabels(updatedCard.getId(), request.getLabelIds());
+            updateCardLabels(updatedCard, request.getLabelIds());
         }
         
-        return scrumboardMapper.toCardDto(updatedCard);
+        publishChange(updatedCard, BoardChangedEvent.Action.UPDATED);
+        // Member vẫn còn trên card được báo card thay đổi; member mới đã nhận thông báo được giao
+        List<Long> remainingMemberIds = request.getMemberIds() == null
+                ? List.copyOf(previousMemberIds)
+                : request.getMemberIds().stream().filter(previousMemberIds::contains).toList();
+        if (updatedCard.getList() != null) {
+            notificationService.notifyUsers(NotificationService.TYPE_CARD_UPDATED, "Card updated",
+                    "Card \"" + updatedCard.getTitle() + "\" was updated", remainingMemberIds,
+                    updatedCard.getList().getBoard().getId(), updatedCard.getId(),
+                    new CardUpdatedPayload(List.of(updatedCard.getId()), 1));
+        }
+        if (!Objects.equals(previousDate, updatedCard.getDate())) {
+            eventPublisher.publishEvent(new CardDueDateChangedEvent(updatedCard.getId(), updatedCard.getDate()));
+        }
+        CardDto cardDto = scrumboardMapper.toCardDto(updatedCard);
+        if (updatedCard.getList() != null) {
+            webSocketBroadcastService.broadcastCardUpdated(updatedCard.getList().getBoard().getId(), updatedCard.getId(), cardDto);
+        }
+        return cardDto;
     }
 
     public CardDto updateCardCategory(UpdateCardCategoryRequest request) {
@@ -145,20 +191,137 @@ public class CardService {
         
         ListEntity newList = listRepository.findById(request.getLaneId())
                 .orElseThrow(() -> new NotFoundException("List not found with id: " + request.getLaneId()));
+        checkSameBoard(card, newList);
+        Long fromListId = card.getList() != null ? card.getList().getId() : null;
         
         card.setList(newList);
-        CardEntity updatedCard = cardRepository.save(card);
+        card.setPosition(nextPositionInList(newList.getId()));
+        CardEntity updatedCard = cardRepository.saveAndFlush(card);
         
-        return scrumboardMapper.toCardDto(updatedCard);
+        publishChange(updatedCard, BoardChangedEvent.Action.MOVED);
+        CardDto cardDto = scrumboardMapper.toCardDto(updatedCard);
+        webSocketBroadcastService.broadcastCardMoved(newList.getBoard().getId(), updatedCard.getId(), fromListId,
+                newList.getId(), cardDto);
+        return cardDto;
+    }
+
+    /**
+     * Di chuyển card tới vị trí ngay sau afterCardId (null = đầu list).
+     * Chỉ tính rank mới giữa hai card lân cận nên chỉ update đúng một row.
+     */
+    public CardDto moveCard(MoveCardRequest request) {
+
+        CardEntity card = cardRepository.findById(request.getCardId())
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + request.getCardId()));
+
+        ListEntity list = listRepository.findById(request.getLaneId())
+                .orElseThrow(() -> new NotFoundException("List not found with id: " + request.getLaneId()));
+        checkSameBoard(card, list);
+
+        listRepository.lockForRanking(list.getId());
+
+        String prev = null;
+        String next;
+        if (request.getAfterCardId() == null) {
+            next = cardRepository.findMinPositionByListId(list.getId(), card.getId());
+        } else {
+            // Anchor phải nằm trong chính list đích
+            CardEntity after = cardRepository.findByIdAndListId(request.getAfterCardId(), list.getId())
+                    .orElseThrow(() -> new NotFoundException("Card not found with id: " + request.getAfterCardId()
+                            + " in list " + list.getId()));
+            if (after.getId().equals(card.getId())) {
+                throw new ValidationException("Card " + card.getId() + " cannot be moved after itself");
+            }
+            prev = after.getPosition();
+            next = prev != null ? cardRepository.findNextPosition(list.getId(), prev, after.getId(), card.getId()) : null;
+            if (prev != null && prev.equals(next)) {
+                // Có card trùng rank với anchor: đánh lại rank cả list rồi tính lại hai card lân cận
+                rankRebalanceService.rebalanceListCards(list.getId());
+                prev = cardRepository.findPositionById(after.getId()).orElse(null);
+                next = cardRepository.findNextPosition(list.getId(), prev, after.getId(), card.getId());
+            }
+        }
+
+        String position;
+        if (request.getAfterCardId() != null && prev == null) {
+            // Dữ liệu cũ chưa có rank: tạm đưa xuống cuối list, rebalancer sẽ sắp xếp lại
+            position = RankUtils.between(cardRepository.findMaxPositionByListId(list.getId()), null);
+            rankRebalanceService.requestCardRebalance(list.getId());
+        } else {
+            position = RankUtils.between(prev, next);
+        }
+        if (rankRebalanceService.isTooLong(position)) {
+            rankRebalanceService.requestCardRebalance(list.getId());
+        }
+
+        Long fromListId = card.getList() != null ? card.getList().getId() : null;
+        card.setList(list);
+        card.setPosition(position);
+        CardEntity movedCard = cardRepository.saveAndFlush(card);
+
+        publishChange(movedCard, BoardChangedEvent.Action.MOVED);
+        CardDto cardDto = scrumboardMapper.toCardDto(movedCard);
+        webSocketBroadcastService.broadcastCardMoved(list.getBoard().getId(), movedCard.getId(), fromListId,
+                list.getId(), cardDto);
+        return cardDto;
     }
 
     public void deleteCard(Long id) {
         
-        if (!cardRepository.existsById(id)) {
-            throw new NotFoundException("Card not found with id: " + id);
-        }
+        CardEntity card = cardRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Card not found with id: " + id));
         
-        cardRepository.deleteById(id);
+        publishChange(card, BoardChangedEvent.Action.DELETED);
+        if (card.getDate() != null) {
+            eventPublisher.publishEvent(new CardDueDateChangedEvent(card.getId(), null));
+        }
+        List<String> attachmentKeys = attachmentRepository.findStorageKeysByCardId(card.getId());
+        if (!attachmentKeys.isEmpty()) {
+            eventPublisher.publishEvent(new AttachmentsDeletedEvent(attachmentKeys));
+        }
+        cardRepository.delete(card);
+        // Ghi sau lệnh xóa, cùng transaction: client chỉ nhận CARD_DELETED khi card đã thực sự bị xóa
+        if (card.getList() != null) {
+            webSocketBroadcastService.broadcastCardDeleted(card.getList().getBoard().getId(), id);
+        }
+    }
+
+    private void notifyAssigned(CardEntity card, List<Long> memberIds) {
+        if (card.getList() != null && !memberIds.isEmpty()) {
+            notificationService.notifyUsers(NotificationService.TYPE_CARD_ASSIGNED, "Card assigned",
+                    "You were assigned to card \"" + card.getTitle() + "\"", memberIds,
+                    card.getList().getBoard().getId(), card.getId(), new CardAssignedPayload(card.getTitle()));
+        }
+    }
+
+    private void publishChange(CardEntity card, BoardChangedEvent.Action action) {
+        if (card.getList() != null) {
+            eventPublisher.publishEvent(new BoardChangedEvent(card.getList().getBoard().getId(),
+                    BoardChangedEvent.EntityType.CARD, card.getId(), action));
+        }
+    }
+
+    // Quyền chỉ được kiểm tra trên board hiện tại của card, nên card không được chuyển sang board khác
+    private void checkSameBoard(CardEntity card, ListEntity list) {
+        if (card.getList() == null || !card.getList().getBoard().getId().equals(list.getBoard().getId())) {
+            throw new ValidationException("List " + list.getId() + " does not belong to the board of card " + card.getId());
+        }
+    }
+
+    private void checkVersion(CardEntity card, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(card.getVersion())) {
+            throw new ConflictException("Card " + card.getId() + " has version " + card.getVersion()
+                    + ", expected " + expectedVersion, scrumboardMapper.toCardDto(card));
+        }
+    }
+
+    private String nextPositionInList(Long listId) {
+        listRepository.lockForRanking(listId);
+        String position = RankUtils.between(cardRepository.findMaxPositionByListId(listId), null);
+        if (rankRebalanceService.isTooLong(position)) {
+            rankRebalanceService.requestCardRebalance(listId);
+        }
+        return position;
     }
 
     private void addMembersToCard(Long cardId, List<Long> memberIds) {
@@ -178,20 +341,20 @@ public class CardService {
         }
     }
 
-    private void addLabelsToCard(Long cardId, List<Long> labelIds) {
-        for (Long labelId : labelIds) {
-            if (!cardLabelRepository.existsByCardIdAndLabelId(cardId, labelId)) {
-                LabelEntity label = labelRepository.findById(labelId)
-                        .orElseThrow(() -> new NotFoundException("Label not found with id: " + labelId));
-                
-                CardEntity card = cardRepository.findById(cardId)
-                        .orElseThrow(() -> new NotFoundException("Card not found with id: " + cardId));
-                
-                CardLabelEntity cardLabel = new CardLabelEntity();
-                cardLabel.setCard(card);
-                cardLabel.setLabel(label);
-                cardLabelRepository.save(cardLabel);
+    // Label được kiểm tra trên catalog trong bộ nhớ, không query từng label
+    private void addLabelsToCard(CardEntity card, List<Long> labelIds) {
+        Long boardId = card.getList() != null ? card.getList().getBoard().getId() : null;
+        for (Long labelId : new LinkedHashSet<>(labelIds)) {
+            LabelView label = labelCatalogService.getLabel(labelId)
+                    .orElseThrow(() -> new NotFoundException("Label not found with id: " + labelId));
+            if (!labelCatalogService.isUsableOnBoard(label, boardId)) {
+                throw new IllegalArgumentException("Label " + labelId + " does not belong to board " + boardId);
             }
+
+            CardLabelEntity cardLabel = new CardLabelEntity();
+            cardLabel.setCard(card);
+            cardLabel.setLabel(labelRepository.getReferenceById(labelId));
+            cardLabelRepository.save(cardLabel);
         }
     }
 
@@ -205,13 +368,13 @@ public class CardService {
         }
     }
 
-    private void updateCardLabels(Long cardId, List<Long> labelIds) {
+    private void updateCardLabels(CardEntity card, List<Long> labelIds) {
         // Remove existing labels
-        cardLabelRepository.deleteByCardId(cardId);
+        cardLabelRepository.deleteByCardId(card.getId());
         
         // Add new labels
         if (!labelIds.isEmpty()) {
-            addLabelsToCard(cardId, labelIds);
+            addLabelsToCard(card, labelIds);
         }
     }
 }
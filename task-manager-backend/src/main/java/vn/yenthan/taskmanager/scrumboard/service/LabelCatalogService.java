@@ -0,0 +1,175 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView;
+import vn.yenthan.taskmanager.scrumboard.event.LabelChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.repository.LabelRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Catalog label giữ trong bộ nhớ: tra cứu theo id và gợi ý theo tiền tố tên không cần query DB.
+ * Catalog là snapshot bất biến, nạp lại toàn bộ sau mỗi thay đổi label (bảng label nhỏ).
+ * Node khác biết có thay đổi qua version trên Redis, kiểm tra định kỳ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LabelCatalogService {
+
+    private static final String VERSION_KEY = "label:catalog:version";
+
+    // Scope của label dùng chung (board_id null)
+    private static final long GLOBAL_SCOPE = 0L;
+
+    private final LabelRepository labelRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    private volatile Catalog catalog;
+
+    /**
+     * Label có id, tìm trong catalog trước; label vừa tạo ở node khác (catalog chưa kịp nạp lại) thì đọc DB.
+     */
+    public Optional<LabelView> getLabel(Long labelId) {
+        LabelView label = catalog().byId.get(labelId);
+        if (label != null) {
+            return Optional.of(label);
+        }
+        Optional<LabelView> fromDb = labelRepository.findViewById(labelId);
+        fromDb.ifPresent(found -> reload());
+        return fromDb;
+    }
+
+    /**
+     * Label có thể gắn vào card của board: label dùng chung và label riêng của board.
+     */
+    public boolean isUsableOnBoard(LabelView label, Long boardId) {
+        return label.boardId() == null || label.boardId().equals(boardId);
+    }
+
+    /**
+     * Label dùng chung có đúng tên và màu (phân biệt hoa thường như khi export).
+     */
+    public Optional<LabelView> findGlobal(String name, String color) {
+        String sameName = key(name) + '\u0000';
+        return catalog().byScope.getOrDefault(GLOBAL_SCOPE, new TreeMap<>())
+                .subMap(sameName, true, key(name) + '\u0001', false).values().stream()
+                .filter(label -> label.name().equals(name) && label.color().equals(color))
+                .findFirst();
+    }
+
+    /**
+     * Gợi ý label theo tiền tố tên (không phân biệt hoa thường), sắp theo tên.
+     * boardId = null: chỉ label dùng chung; ngược lại gồm cả label riêng của board.
+     */
+    public List<LabelView> search(String prefix, Long boardId, int limit) {
+        Catalog current = catalog();
+        String from = key(prefix == null ? "" : prefix.trim());
+        String to = from + Character.MAX_VALUE;
+        Iterator<Map.Entry<String, LabelView>> global = range(current, GLOBAL_SCOPE, from, to);
+        Iterator<Map.Entry<String, LabelView>> board = boardId != null
+                ? range(current, boardId, from, to)
+                : new TreeMap<String, LabelView>().entrySet().iterator();
+
+        // Trộn hai dãy đã sắp xếp, dừng khi đủ limit
+        List<LabelView> result = new ArrayList<>(limit);
+        Map.Entry<String, LabelView> nextGlobal = global.hasNext() ? global.next() : null;
+        Map.Entry<String, LabelView> nextBoard = board.hasNext() ? board.next() : null;
+        while (result.size() < limit && (nextGlobal != null || nextBoard != null)) {
+            if (nextBoard == null || (nextGlobal != null && nextGlobal.getKey().compareTo(nextBoard.getKey()) <= 0)) {
+                result.add(nextGlobal.getValue());
+                nextGlobal = global.hasNext() ? global.next() : null;
+            } else {
+                result.add(nextBoard.getValue());
+                nextBoard = board.hasNext() ? board.next() : null;
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLabelChanged(LabelChangedEvent event) {
+        try {
+            redisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("Cannot bump label catalog version: {}", e.getMessage());
+        }
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${scrumboard.label-catalog.refresh-interval-ms:5000}",
+            fixedDelayString = "${scrumboard.label-catalog.refresh-interval-ms:5000}")
+    public void refreshIfChanged() {
+        Catalog current = catalog;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (!Objects.equals(current.version, redisTemplate.opsForValue().get(VERSION_KEY))) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("Cannot check label catalog version: {}", e.getMessage());
+        }
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        return current != null ? current : reload();
+    }
+
+    private synchronized Catalog reload() {
+        String version = null;
+        try {
+            // Đọc version trước khi nạp: thay đổi xảy ra trong lúc nạp sẽ làm lệch version và được nạp lại
+            version = redisTemplate.opsForValue().get(VERSION_KEY);
+        } catch (Exception e) {
+            log.warn("Cannot read label catalog version: {}", e.getMessage());
+        }
+        Catalog loaded = new Catalog(version, labelRepository.findAllViews());
+        catalog = loaded;
+        log.debug("Loaded label catalog with {} labels", loaded.byId.size());
+        return loaded;
+    }
+
+    private static Iterator<Map.Entry<String, LabelView>> range(Catalog catalog, long scope, String from, String to) {
+        return catalog.byScope.getOrDefault(scope, new TreeMap<>())
+                .subMap(from, true, to, false).entrySet().iterator();
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Catalog {
+        private final String version;
+        private final Map<Long, LabelView> byId = new HashMap<>();
+        // Theo scope (board id, GLOBAL_SCOPE), key là tên viết thường + id để không trùng
+        private final Map<Long, NavigableMap<String, LabelView>> byScope = new HashMap<>();
+
+        private Catalog(String version, List<LabelView> labels) {
+            this.version = version;
+            for (LabelView label : labels) {
+                byId.put(label.id(), label);
+                long scope = label.boardId() != null ? label.boardId() : GLOBAL_SCOPE;
+                byScope.computeIfAbsent(scope, id -> new TreeMap<>())
+                        .put(key(label.name()) + '\u0000' + label.id(), label);
+            }
+        }
+    }
+}
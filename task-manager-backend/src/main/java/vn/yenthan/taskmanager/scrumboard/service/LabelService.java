@@ -0,0 +1,106 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.LabelView;
+import vn.yenthan.taskmanager.scrumboard.dto.request.CreateLabelRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.LabelDto;
+import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
+import vn.yenthan.taskmanager.scrumboard.entity.LabelEntity;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.LabelChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardLabelRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.LabelRepository;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class LabelService {
+
+    public static final int MAX_SEARCH_LIMIT = 50;
+
+    private final LabelRepository labelRepository;
+    private final BoardRepository boardRepository;
+    private final CardLabelRepository cardLabelRepository;
+    private final CardRepository cardRepository;
+    private final LabelCatalogService labelCatalogService;
+    private final AuthzService authzService;
+    private final ScrumboardMapper scrumboardMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Gợi ý label cho label picker, đọc từ catalog trong bộ nhớ.
+     */
+    @Transactional(readOnly = true)
+    public List<LabelDto> searchLabels(String query, Long boardId, int limit, Long currentUserId) {
+        if (boardId != null && !authzService.isBoardMember(currentUserId, boardId)) {
+            throw new AccessDeniedException("Access denied to board " + boardId);
+        }
+        return labelCatalogService.search(query, boardId, Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT))).stream()
+                .map(scrumboardMapper::toLabelDto)
+                .toList();
+    }
+
+    public LabelDto createLabel(CreateLabelRequest request, Long currentUserId) {
+        checkCanManage(request.getBoardId(), currentUserId);
+
+        LabelEntity label = new LabelEntity();
+        label.setName(request.getName().trim());
+        label.setColor(request.getColor());
+        if (request.getBoardId() != null) {
+            BoardEntity board = boardRepository.findById(request.getBoardId())
+                    .orElseThrow(() -> new NotFoundException("Board not found with id: " + request.getBoardId()));
+            label.setBoard(board);
+        }
+        LabelEntity savedLabel = labelRepository.save(label);
+
+        eventPublisher.publishEvent(new LabelChangedEvent(savedLabel.getId()));
+        log.info("Created label {} for board {}", savedLabel.getId(), request.getBoardId());
+        return scrumboardMapper.toLabelDto(new LabelView(savedLabel.getId(), request.getBoardId(),
+                savedLabel.getName(), savedLabel.getColor()));
+    }
+
+    public void deleteLabel(Long labelId, Long currentUserId) {
+        LabelView label = labelCatalogService.getLabel(labelId)
+                .orElseThrow(() -> new NotFoundException("Label not found with id: " + labelId));
+        checkCanManage(label.boardId(), currentUserId);
+
+        // Card mất label theo ON DELETE CASCADE, không qua CardService: lấy các board bị ảnh hưởng trước khi xóa
+        Set<Long> boardIds = new LinkedHashSet<>(cardLabelRepository.findBoardIdsByLabelId(labelId));
+        if (label.boardId() != null) {
+            boardIds.add(label.boardId());
+        }
+        cardRepository.incrementVersionByLabelId(labelId);
+        labelRepository.deleteById(labelId);
+        eventPublisher.publishEvent(new LabelChangedEvent(labelId));
+        boardIds.forEach(boardId -> eventPublisher.publishEvent(new BoardChangedEvent(boardId,
+                BoardChangedEvent.EntityType.LABEL, labelId, BoardChangedEvent.Action.DELETED)));
+        log.info("Deleted label {} used on {} board(s)", labelId, boardIds.size());
+    }
+
+    // Label riêng của board do người sửa được board quản lý, label dùng chung chỉ admin
+    private void checkCanManage(Long boardId, Long currentUserId) {
+        boolean allowed = boardId != null
+                ? authzService.canEditBoard(currentUserId, boardId)
+                : authzService.hasGlobalAdminRole(currentUserId);
+        if (!allowed) {
+            throw new AccessDeniedException(boardId != null
+                    ? "Access denied to labels of board " + boardId
+                    : "Only administrators can manage shared labels");
+        }
+    }
+}
@@ -2,17 +2,24 @@ package vn.yenthan.taskmanager.scrumboard.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import vn.yenthan.taskmanager.core.exception.payload.ConflictException;
 import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.core.exception.payload.ValidationException;
 import vn.yenthan.taskmanager.scrumboard.dto.request.CreateListRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.request.MoveListRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.request.UpdateListRequest;
 import vn.yenthan.taskmanager.scrumboard.dto.response.CardListDto;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
 import vn.yenthan.taskmanager.scrumboard.entity.ListEntity;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
 import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
 import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
 import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
+import vn.yenthan.taskmanager.scrumboard.util.RankUtils;
+import vn.yenthan.taskmanager.websocket.service.WebSocketBroadcastService;
 
 import java.util.List;
 
@@ -25,18 +32,19 @@ public class ListService {
     private final ListRepository listRepository;
     private final BoardRepository boardRepository;
     private final ScrumboardMapper scrumboardMapper;
+    private final RankRebalanceService rankRebalanceService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BoardViewService boardViewService;
+    private final WebSocketBroadcastService webSocketBroadcastService;
 
     @Transactional(readOnly = true)
     public List<CardListDto> getListsByBoardId(Long boardId) {
-        List<ListEntity> lists = listRepository.findByBoardIdWithCards(boardId);
-        return scrumboardMapper.toCardListDtoList(lists);
+        return boardViewService.getListsByBoardId(boardId);
     }
 
     @Transactional(readOnly = true)
     public CardListDto getListById(Long id) {
-        ListEntity list = listRepository.findByIdWithDetails(id)
-                .orElseThrow(() -> new NotFoundException("List not found with id: " + id));
-        return scrumboardMapper.toCardListDto(list);
+        return boardViewService.getList(id);
     }
 
     public CardListDto createList(CreateListRequest request) {
@@ -48,13 +56,23 @@ public class ListService {
             throw new IllegalArgumentException("List with name '" + request.getName() + "' already exists in this board");
         }
 
+        boardRepository.lockForRanking(board.getId());
+        String position = RankUtils.between(listRepository.findMaxPositionByBoardId(board.getId()), null);
+        if (rankRebalanceService.isTooLong(position)) {
+            rankRebalanceService.requestListRebalance(board.getId());
+        }
+
         ListEntity list = new ListEntity();
         list.setName(request.getName());
         list.setBoard(board);
+        list.setPosition(position);
         
         ListEntity savedList = listRepository.save(list);
         
-        return scrumboardMapper.toCardListDto(savedList);
+        publishChange(savedList, BoardChangedEvent.Action.CREATED);
+        CardListDto createdList = scrumboardMapper.toCardListDto(savedList);
+        webSocketBroadcastService.broadcastListCreated(board.getId(), savedList.getId(), createdList);
+        return createdList;
     }
 
     public CardListDto updateList(UpdateListRequest request) {
@@ -62,23 +80,91 @@ public class ListService {
         ListEntity list = listRepository.findById(request.getId())
                 .orElseThrow(() -> new NotFoundException("List not found with id: " + request.getId()));
 
+        if (request.getVersion() != null && !request.getVersion().equals(list.getVersion())) {
+            throw new ConflictException("List " + list.getId() + " has version " + list.getVersion()
+                    + ", expected " + request.getVersion(), scrumboardMapper.toCardListDto(list));
+        }
+
         if (!list.getName().equals(request.getName()) && 
             listRepository.existsByNameAndBoardId(request.getName(), list.getBoard().getId())) {
             throw new IllegalArgumentException("List with name '" + request.getName() + "' already exists in this board");
         }
 
         list.setName(request.getName());
-        ListEntity updatedList = listRepository.save(list);
+        ListEntity updatedList = listRepository.saveAndFlush(list);
         
-        return scrumboardMapper.toCardListDto(updatedList);
+        publishChange(updatedList, BoardChangedEvent.Action.UPDATED);
+        CardListDto listDto = scrumboardMapper.toCardListDto(updatedList);
+        webSocketBroadcastService.broadcastListUpdated(updatedList.getBoard().getId(), updatedList.getId(), listDto);
+        return listDto;
+    }
+
+    /**
+     * Di chuyển list tới vị trí ngay sau afterListId (null = đầu board), chỉ update một row.
+     */
+    public CardListDto moveList(MoveListRequest request) {
+
+        ListEntity list = listRepository.findById(request.getListId())
+                .orElseThrow(() -> new NotFoundException("List not found with id: " + request.getListId()));
+        Long boardId = list.getBoard().getId();
+
+        boardRepository.lockForRanking(boardId);
+
+        String prev = null;
+        String next;
+        if (request.getAfterListId() == null) {
+            next = listRepository.findMinPositionByBoardId(boardId, list.getId());
+        } else {
+            // Anchor phải nằm trong chính board của list
+            ListEntity after = listRepository.findByIdAndBoardId(request.getAfterListId(), boardId)
+                    .orElseThrow(() -> new NotFoundException("List not found with id: " + request.getAfterListId()
+                            + " in board " + boardId));
+            if (after.getId().equals(list.getId())) {
+                throw new ValidationException("List " + list.getId() + " cannot be moved after itself");
+            }
+            prev = after.getPosition();
+            next = prev != null ? listRepository.findNextPosition(boardId, prev, after.getId(), list.getId()) : null;
+            if (prev != null && prev.equals(next)) {
+                // Có list trùng rank với anchor: đánh lại rank cả board rồi tính lại hai list lân cận
+                rankRebalanceService.rebalanceBoardLists(boardId);
+                prev = listRepository.findPositionById(after.getId()).orElse(null);
+                next = listRepository.findNextPosition(boardId, prev, after.getId(), list.getId());
+            }
+        }
+
+        String position;
+        if (request.getAfterListId() != null && prev == null) {
+            // Dữ liệu cũ chưa có rank: tạm đưa xuống cuối board, rebalancer sẽ sắp xếp lại
+            position = RankUtils.between(listRepository.findMaxPositionByBoardId(boardId), null);
+            rankRebalanceService.requestListRebalance(boardId);
+        } else {
+            position = RankUtils.between(prev, next);
+        }
+        if (rankRebalanceService.isTooLong(position)) {
+            rankRebalanceService.requestListRebalance(boardId);
+        }
+
+        list.setPosition(position);
+        ListEntity movedList = listRepository.saveAndFlush(list);
+
+        publishChange(movedList, BoardChangedEvent.Action.MOVED);
+        CardListDto listDto = scrumboardMapper.toCardListDto(movedList);
+        webSocketBroadcastService.broadcastListUpdated(boardId, movedList.getId(), listDto);
+        return listDto;
     }
 
     public void deleteList(Long id) {
         
-        if (!listRepository.existsById(id)) {
-            throw new NotFoundException("List not found with id: " + id);
-        }
+        ListEntity list = listRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("List not found with id: " + id));
         
-        listRepository.deleteById(id);
+        publishChange(list, BoardChangedEvent.Action.DELETED);
+        listRepository.delete(list);
+        webSocketBroadcastService.broadcastListDeleted(list.getBoard().getId(), id);
+    }
+
+    private void publishChange(ListEntity list, BoardChangedEvent.Action action) {
+        eventPublisher.publishEvent(new BoardChangedEvent(list.getBoard().getId(),
+                BoardChangedEvent.EntityType.LIST, list.getId(), action));
     }
 }
@@ -2,13 +2,17 @@ package vn.yenthan.taskmanager.scrumboard.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.notifications.payload.BoardMemberAddedPayload;
+import vn.yenthan.taskmanager.notifications.service.NotificationService;
 import vn.yenthan.taskmanager.scrumboard.dto.response.MemberDto;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardMemberEntity;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardEntity;
 import vn.yenthan.taskmanager.scrumboard.entity.BoardRoleEntity;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
 import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
 import vn.yenthan.taskmanager.scrumboard.repository.BoardMemberRepository;
 import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
@@ -29,6 +33,8 @@ public class MemberService {
     private final BoardRoleRepository boardRoleRepository;
     private final UserRepository userRepository;
     private final ScrumboardMapper scrumboardMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NotificationService notificationService;
 
     @Transactional(readOnly = true)
     public List<MemberDto> getBoardMembers(Long boardId) {
@@ -84,6 +90,10 @@ public class MemberService {
 
         member.setJoinedAt(java.time.Instant.now());
         boardMemberRepository.save(member);
+        publishChange(boardId, userId, BoardChangedEvent.Action.CREATED);
+        notificationService.createNotification(NotificationService.TYPE_BOARD_MEMBER_ADDED, "Added to board",
+                "You were added to board \"" + board.getName() + "\"", userId, boardId, null, invitedById,
+                new BoardMemberAddedPayload(board.getName()));
     }
 
     public void removeMemberFromBoard(Long boardId, Long userId) {
@@ -92,6 +102,7 @@ public class MemberService {
                 .orElseThrow(() -> new NotFoundException("Member not found for board " + boardId + " and user " + userId));
         
         boardMemberRepository.delete(member);
+        publishChange(boardId, userId, BoardChangedEvent.Action.DELETED);
     }
 
     public void updateMemberRole(Long boardId, Long userId, String role) {
@@ -102,4 +113,8 @@ public class MemberService {
         // This would need to be implemented with proper board role entity
         // For now, we'll just log the action
     }
+
+    private void publishChange(Long boardId, Long userId, BoardChangedEvent.Action action) {
+        eventPublisher.publishEvent(new BoardChangedEvent(boardId, BoardChangedEvent.EntityType.MEMBER, userId, action));
+    }
 }
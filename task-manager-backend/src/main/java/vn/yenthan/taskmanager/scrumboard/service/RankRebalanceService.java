@@ -0,0 +1,139 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.util.RankUtils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Đánh lại rank (position) cho các list/board có rank quá dài hoặc còn null (dữ liệu cũ).
+ * Mỗi list/board được xử lý trong một transaction ngắn riêng, nên writer chỉ phải chờ vài ms.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RankRebalanceService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Set<Long> pendingListIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingBoardIds = ConcurrentHashMap.newKeySet();
+
+    @Value("${scrumboard.rank.max-length:24}")
+    private int maxRankLength;
+
+    @Value("${scrumboard.rank.batch-size:50}")
+    private int batchSize;
+
+    public boolean isTooLong(String rank) {
+        return rank != null && rank.length() > maxRankLength;
+    }
+
+    /**
+     * Đánh dấu list cần đánh lại rank cho các card
+     */
+    public void requestCardRebalance(Long listId) {
+        pendingListIds.add(listId);
+    }
+
+    /**
+     * Đánh dấu board cần đánh lại rank cho các list
+     */
+    public void requestListRebalance(Long boardId) {
+        pendingBoardIds.add(boardId);
+    }
+
+    @Scheduled(initialDelayString = "${scrumboard.rank.rebalance-interval-ms:30000}",
+            fixedDelayString = "${scrumboard.rank.rebalance-interval-ms:30000}")
+    public void rebalance() {
+        // Backfill dữ liệu cũ chưa có position
+        pendingBoardIds.addAll(jdbcTemplate.queryForList(
+                "SELECT DISTINCT board_id FROM tbl_list WHERE position IS NULL LIMIT ?", Long.class, batchSize));
+        pendingListIds.addAll(jdbcTemplate.queryForList(
+                "SELECT DISTINCT laneId FROM tbl_card WHERE position IS NULL AND laneId IS NOT NULL LIMIT ?",
+                Long.class, batchSize));
+
+        drain(pendingBoardIds, this::rebalanceBoardLists);
+        drain(pendingListIds, this::rebalanceListCards);
+    }
+
+    private void drain(Set<Long> pending, Consumer<Long> action) {
+        int processed = 0;
+        Iterator<Long> iterator = pending.iterator();
+        while (iterator.hasNext() && processed < batchSize) {
+            Long id = iterator.next();
+            iterator.remove();
+            try {
+                action.accept(id);
+            } catch (Exception e) {
+                log.error("Error rebalancing ranks for {}: {}", id, e.getMessage(), e);
+            }
+            processed++;
+        }
+    }
+
+    /**
+     * Đánh lại rank các card của list ngay, trong transaction hiện tại nếu có.
+     */
+    public void rebalanceListCards(Long listId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // FOR UPDATE trên list: các thao tác tạo/di chuyển card (lockForRanking) chờ đến khi xong
+            List<Long> boardIds = jdbcTemplate.queryForList(
+                    "SELECT board_id FROM tbl_list WHERE id = ? FOR UPDATE", Long.class, listId);
+            if (boardIds.isEmpty()) {
+                return;
+            }
+            List<Long> cardIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM tbl_card WHERE laneId = ? ORDER BY position NULLS LAST, created_at, id",
+                    Long.class, listId);
+            renumber("UPDATE tbl_card SET position = ? WHERE id = ?", cardIds);
+            eventPublisher.publishEvent(new BoardChangedEvent(boardIds.get(0),
+                    BoardChangedEvent.EntityType.LIST, listId, BoardChangedEvent.Action.REBALANCED));
+            log.info("Rebalanced {} card ranks in list {}", cardIds.size(), listId);
+        });
+    }
+
+    /**
+     * Đánh lại rank các list của board ngay, trong transaction hiện tại nếu có.
+     */
+    public void rebalanceBoardLists(Long boardId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jdbcTemplate.queryForList("SELECT id FROM tbl_board WHERE id = ? FOR UPDATE", Long.class, boardId).isEmpty()) {
+                return;
+            }
+            List<Long> listIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM tbl_list WHERE board_id = ? ORDER BY position NULLS LAST, created_at, id",
+                    Long.class, boardId);
+            renumber("UPDATE tbl_list SET position = ? WHERE id = ?", listIds);
+            eventPublisher.publishEvent(new BoardChangedEvent(boardId,
+                    BoardChangedEvent.EntityType.BOARD, boardId, BoardChangedEvent.Action.REBALANCED));
+            log.info("Rebalanced {} list ranks in board {}", listIds.size(), boardId);
+        });
+    }
+
+    private void renumber(String sql, List<Long> ids) {
+        List<String> ranks = RankUtils.evenlySpaced(ids.size());
+        List<Object[]> args = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            args.add(new Object[]{ranks.get(i), ids.get(i)});
+        }
+        for (int from = 0; from < args.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + batchSize, args.size())));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package vn.yenthan.taskmanager.scrumboard.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Nơi lưu nội dung file đính kèm, theo key (tương tự object storage: put/get theo khoảng byte/delete).
+ * Dữ liệu luôn đi theo stream, không đọc cả file vào heap.
+ */
+public interface AttachmentStorage {
+
+    /**
+     * Ghi toàn bộ stream vào key (ghi đè nếu đã có), trả về số byte đã ghi.
+     */
+    long store(String key, InputStream content) throws IOException;
+
+    long size(String key) throws IOException;
+
+    /**
+     * Stream nội dung bắt đầu từ byte position.
+     */
+    InputStream open(String key, long position) throws IOException;
+
+    /**
+     * Ghi count byte bắt đầu từ position ra target. Mặc định copy qua stream;
+     * store trên filesystem ghi đè bằng FileChannel.transferTo.
+     */
+    default void transferTo(String key, long position, long count, WritableByteChannel target) throws IOException {
+        try (InputStream in = open(key, position)) {
+            OutputStream out = Channels.newOutputStream(target);
+            byte[] buffer = new byte[8192];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    break;
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    void delete(String key) throws IOException;
+
+    /**
+     * File trên đĩa cục bộ chứa nội dung của key, nếu có (để server gửi thẳng bằng sendfile).
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,127 @@
+package vn.yenthan.taskmanager.scrumboard.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rank dạng chuỗi (LexoRank-style) để sắp xếp card/list.
+ * Rank chỉ gồm [0-9a-z], so sánh theo thứ tự byte (cột dùng COLLATE "C"),
+ * không bao giờ kết thúc bằng '0' nên luôn chèn được một rank nhỏ hơn.
+ */
+public final class RankUtils {
+
+    // Độ dài cột position
+    public static final int MAX_LENGTH = 64;
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+
+    private RankUtils() {
+    }
+
+    /**
+     * Sinh rank nằm giữa prev và next. prev = null nghĩa là đầu danh sách, next = null là cuối danh sách.
+     */
+    public static String between(String prev, String next) {
+        if (prev != null && next != null && prev.compareTo(next) >= 0) {
+            throw new IllegalArgumentException("Rank '" + prev + "' must be lower than '" + next + "'");
+        }
+        // Thêm vào cuối/đầu list: tăng/giảm digit đầu tiên còn chỗ để rank không dài ra
+        if (prev != null && next == null) {
+            for (int i = 0; i < prev.length(); i++) {
+                int d = digit(prev.charAt(i));
+                if (d < BASE - 1) {
+                    return prev.substring(0, i) + DIGITS.charAt(d + 1);
+                }
+            }
+        }
+        if (prev == null && next != null) {
+            for (int i = 0; i < next.length(); i++) {
+                int d = digit(next.charAt(i));
+                if (d > 1) {
+                    return next.substring(0, i) + DIGITS.charAt(d - 1);
+                }
+            }
+        }
+        StringBuilder rank = new StringBuilder();
+        int i = 0;
+        while (true) {
+            int low = prev != null && i < prev.length() ? digit(prev.charAt(i)) : 0;
+            int high = next != null && i < next.length() ? digit(next.charAt(i)) : BASE;
+            if (low == high) {
+                rank.append(DIGITS.charAt(low));
+                i++;
+                continue;
+            }
+            int mid = (low + high) / 2;
+            if (mid > low) {
+                return rank.append(DIGITS.charAt(mid)).toString();
+            }
+            // Hai digit liền kề: giữ digit thấp và tìm tiếp ở vị trí sau, cận trên không còn ràng buộc
+            rank.append(DIGITS.charAt(low));
+            next = null;
+            i++;
+        }
+    }
+
+    /**
+     * Rank dùng được với between và vừa cột position: chỉ gồm [0-9a-z], không kết thúc bằng '0'.
+     */
+    public static boolean isValid(String rank) {
+        if (rank == null || rank.isEmpty() || rank.length() > MAX_LENGTH || rank.endsWith("0")) {
+            return false;
+        }
+        for (int i = 0; i < rank.length(); i++) {
+            if (DIGITS.indexOf(rank.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sinh count rank cách đều nhau với độ dài cố định, dùng khi rebalance một list.
+     */
+    public static List<String> evenlySpaced(int count) {
+        List<String> ranks = new ArrayList<>(count);
+        if (count == 0) {
+            return ranks;
+        }
+        int width = 1;
+        long space = BASE;
+        while (space < (long) count * 4) {
+            width++;
+            space *= BASE;
+        }
+        long step = space / (count + 1);
+        for (int i = 1; i <= count; i++) {
+            ranks.add(stripTrailingZeros(encode(step * i, width)));
+        }
+        return ranks;
+    }
+
+    private static String encode(long value, int width) {
+        char[] chars = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            chars[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+
+    private static String stripTrailingZeros(String rank) {
+        int end = rank.length();
+        while (end > 1 && rank.charAt(end - 1) == '0') {
+            end--;
+        }
+        return rank.substring(0, end);
+    }
+
+    private static int digit(char c) {
+        int d = DIGITS.indexOf(c);
+        if (d < 0) {
+            throw new IllegalArgumentException("Invalid rank character: " + c);
+        }
+        return d;
+    }
+}
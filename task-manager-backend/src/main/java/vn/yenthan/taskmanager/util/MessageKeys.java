@@ -9,6 +9,8 @@ public final class MessageKeys {
     public static final String SYSTEM_VALIDATION_FAILED = "system.validation.failed";
     public static final String SYSTEM_METHOD_NOT_ALLOWED = "system.method.not.allowed";
     public static final String SYSTEM_NOT_FOUND = "system.not.found";
+    public static final String SYSTEM_CONFLICT = "system.conflict";
+    public static final String SYSTEM_PAYLOAD_TOO_LARGE = "system.payload.too.large";
 
     // --- AUTH / SECURITY
     public static final String AUTH_UNAUTHENTICATED = "auth.unauthenticated";
@@ -44,12 +46,15 @@ public final class MessageKeys {
     public static final String BOARD_DELETE_SUCCESS = "board.delete.success";
     public static final String BOARD_NOT_FOUND = "board.not.found";
     public static final String BOARD_NAME_EXISTS = "board.name.exists";
+    public static final String BOARD_IMPORT_SUCCESS = "board.import.success";
+    public static final String BOARD_CLONE_SUCCESS = "board.clone.success";
     
     public static final String LIST_GET_SUCCESS = "list.get.success";
     public static final String LIST_CREATE_SUCCESS = "list.create.success";
     public static final String LIST_UPDATE_SUCCESS = "list.update.success";
     public static final String LIST_DELETE_SUCCESS = "list.delete.success";
     public static final String LIST_NOT_FOUND = "list.not.found";
+    public static final String LIST_MOVE_SUCCESS = "list.move.success";
     
     public static final String CARD_GET_SUCCESS = "card.get.success";
     public static final String CARD_CREATE_SUCCESS = "card.create.success";
@@ -57,7 +62,17 @@ public final class MessageKeys {
     public static final String CARD_DELETE_SUCCESS = "card.delete.success";
     public static final String CARD_NOT_FOUND = "card.not.found";
     public static final String CARD_MOVE_SUCCESS = "card.move.success";
+    public static final String CARD_SEARCH_SUCCESS = "card.search.success";
+    public static final String CARD_FILTER_SUCCESS = "card.filter.success";
+    public static final String CARD_ASSIGNED_SUCCESS = "card.assigned.success";
     
+    public static final String LABEL_GET_SUCCESS = "label.get.success";
+    public static final String LABEL_CREATE_SUCCESS = "label.create.success";
+    public static final String LABEL_DELETE_SUCCESS = "label.delete.success";
+
+    public static final String ATTACHMENT_UPLOAD_SUCCESS = "attachment.upload.success";
+    public static final String ATTACHMENT_DELETE_SUCCESS = "attachment.delete.success";
+
     public static final String MEMBER_GET_SUCCESS = "member.get.success";
     public static final String MEMBER_ADD_SUCCESS = "member.add.success";
     public static final String MEMBER_REMOVE_SUCCESS = "member.remove.success";
@@ -68,4 +83,8 @@ public final class MessageKeys {
     public static final String NOTIFICATION_MARK_READ_SUCCESS = "notification.mark.read.success";
     public static final String NOTIFICATION_MARK_ALL_READ_SUCCESS = "notification.mark.all.read.success";
     public static final String NOTIFICATION_DELETE_SUCCESS = "notification.delete.success";
+    public static final String NOTIFICATION_MARK_READ_UP_TO_SUCCESS = "notification.mark.read.up.to.success";
+    public static final String NOTIFICATION_BULK_DELETE_SUCCESS = "notification.bulk.delete.success";
+    public static final String NOTIFICATION_PREFERENCES_GET_SUCCESS = "notification.preferences.get.success";
+    public static final String NOTIFICATION_PREFERENCES_UPDATE_SUCCESS = "notification.preferences.update.success";
 }
@@ -0,0 +1,70 @@
+package vn.yenthan.taskmanager.websocket.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+import vn.yenthan.taskmanager.core.auth.entity.User;
+import vn.yenthan.taskmanager.core.auth.service.JwtService;
+
+import java.util.Map;
+
+import static vn.yenthan.taskmanager.core.auth.enums.TokenType.ACCESS_TOKEN;
+
+/**
+ * Xác thực handshake của kênh theo user bằng access token.
+ * Trình duyệt không gửi được header khi mở WebSocket nên token được nhận qua query ?token=,
+ * header Authorization vẫn được dùng nếu có.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String USER_ID_ATTRIBUTE = "userId";
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        String token = extractToken(request);
+        if (token != null) {
+            try {
+                String username = jwtService.extractUsername(token, ACCESS_TOKEN);
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                if (jwtService.isValidToken(token, ACCESS_TOKEN, userDetails) && userDetails instanceof User user) {
+                    attributes.put(USER_ID_ATTRIBUTE, user.getId());
+                    return true;
+                }
+            } catch (Exception e) {
+                log.debug("Rejected WebSocket handshake: {}", e.getMessage());
+            }
+        }
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        return false;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private static String extractToken(ServerHttpRequest request) {
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring("Bearer ".length());
+        }
+        String token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        return token == null || token.isBlank() ? null : token;
+    }
+}
@@ -0,0 +1,57 @@
+package vn.yenthan.taskmanager.websocket.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import vn.yenthan.taskmanager.core.util.StripedExecutor;
+import vn.yenthan.taskmanager.websocket.service.BoardBroadcastRelayHandler;
+import vn.yenthan.taskmanager.websocket.service.NotificationPushService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Một listener container cho mọi kênh Redis pub/sub tới WebSocket (board, thông báo của user).
+ * Container chỉ chuyển message sang pubSubExecutor theo key ở đầu message ("boardId:json", "userId:json"):
+ * message của cùng board/user được gửi tuần tự theo thứ tự nhận, số thread và hàng đợi có giới hạn.
+ */
+@Configuration
+@Slf4j
+public class RedisPubSubConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       @Qualifier("pubSubExecutor") StripedExecutor pubSubExecutor,
+                                                                       BoardBroadcastRelayHandler boardBroadcastRelayHandler,
+                                                                       NotificationPushService notificationPushService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Mặc định mỗi message một thread mới; ở đây listener chỉ xếp message vào hàng đợi của key
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(
+                (message, pattern) -> dispatch(pubSubExecutor, message.getBody(), boardBroadcastRelayHandler::deliver),
+                new ChannelTopic(BoardBroadcastRelayHandler.CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> dispatch(pubSubExecutor, message.getBody(), notificationPushService::deliver),
+                new ChannelTopic(NotificationPushService.CHANNEL));
+        return container;
+    }
+
+    private static void dispatch(StripedExecutor executor, byte[] body, Consumer<String> deliver) {
+        String payload = new String(body, StandardCharsets.UTF_8);
+        int separator = payload.indexOf(':');
+        String key = separator > 0 ? payload.substring(0, separator) : "";
+        try {
+            executor.execute(key, () -> deliver.accept(payload));
+        } catch (RejectedExecutionException e) {
+            // Client bỏ lỡ message sẽ đồng bộ lại qua change feed/số chưa đọc khi kết nối lại
+            log.warn("Pub/sub queue is full, dropping message for {}", key);
+        }
+    }
+}
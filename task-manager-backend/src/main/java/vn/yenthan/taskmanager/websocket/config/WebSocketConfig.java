@@ -6,6 +6,7 @@ import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
 import vn.yenthan.taskmanager.websocket.handler.BoardWebSocketHandler;
+import vn.yenthan.taskmanager.websocket.handler.NotificationWebSocketHandler;
 
 @Configuration
 @EnableWebSocket
@@ -13,10 +14,15 @@ import vn.yenthan.taskmanager.websocket.handler.BoardWebSocketHandler;
 public class WebSocketConfig implements WebSocketConfigurer {
 
     private final BoardWebSocketHandler boardWebSocketHandler;
+    private final NotificationWebSocketHandler notificationWebSocketHandler;
+    private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
 
     @Override
     public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
         registry.addHandler(boardWebSocketHandler, "/ws/board/{boardId}")
                 .setAllowedOrigins("*"); // Có thể cấu hình CORS cụ thể hơn
+        registry.addHandler(notificationWebSocketHandler, "/ws/notifications")
+                .addInterceptors(jwtHandshakeInterceptor)
+                .setAllowedOrigins("*");
     }
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import vn.yenthan.taskmanager.core.util.Versioned;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -23,6 +24,8 @@ public class WebSocketMessage {
     private String fromListId;
     private String toListId;
     private Object data;
+    // Version của entity trong data, client bỏ qua message có version cũ hơn bản đang giữ
+    private Long version;
     private LocalDateTime timestamp;
     private Map<String, Object> metadata;
     
@@ -33,6 +36,7 @@ public class WebSocketMessage {
                 .boardId(boardId)
                 .cardId(cardId)
                 .data(cardData)
+                .version(versionOf(cardData))
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -45,6 +49,7 @@ public class WebSocketMessage {
                 .fromListId(fromListId)
                 .toListId(toListId)
                 .data(cardData)
+                .version(versionOf(cardData))
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -55,6 +60,7 @@ public class WebSocketMessage {
                 .boardId(boardId)
                 .cardId(cardId)
                 .data(cardData)
+                .version(versionOf(cardData))
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -75,6 +81,7 @@ public class WebSocketMessage {
                 .boardId(boardId)
                 .listId(listId)
                 .data(listData)
+                .version(versionOf(listData))
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -85,6 +92,7 @@ public class WebSocketMessage {
                 .boardId(boardId)
                 .listId(listId)
                 .data(listData)
+                .version(versionOf(listData))
                 .timestamp(LocalDateTime.now())
                 .build();
     }
@@ -97,5 +105,35 @@ public class WebSocketMessage {
                 .timestamp(LocalDateTime.now())
                 .build();
     }
-    
+
+    // Factory methods cho kênh thông báo của user
+    public static WebSocketMessage notificationCreated(Object notification) {
+        return WebSocketMessage.builder()
+                .type("NOTIFICATION_CREATED")
+                .data(notification)
+                .metadata(Map.of("unreadDelta", 1))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    // Digest đã có được gộp thêm: client thay dòng cùng id, số chưa đọc không đổi
+    public static WebSocketMessage notificationUpdated(Object notification) {
+        return WebSocketMessage.builder()
+                .type("NOTIFICATION_UPDATED")
+                .data(notification)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    public static WebSocketMessage unreadCountChanged(long delta) {
+        return WebSocketMessage.builder()
+                .type("UNREAD_COUNT_CHANGED")
+                .metadata(Map.of("unreadDelta", delta))
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static Long versionOf(Object data) {
+        return data instanceof Versioned versioned ? versioned.getVersion() : null;
+    }
 }
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 import vn.yenthan.taskmanager.websocket.dto.WebSocketMessage;
 
@@ -17,6 +18,9 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class BoardWebSocketHandler extends TextWebSocketHandler {
 
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT = 512 * 1024;
+
     private final ObjectMapper objectMapper;
     
     // Map để lưu trữ các session theo boardId
@@ -26,10 +30,13 @@ public class BoardWebSocketHandler extends TextWebSocketHandler {
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         String boardId = extractBoardIdFromUri(session.getUri().toString());
         String sessionId = session.getId();
-        
+        // Gửi từ nhiều thread (welcome, listener pub/sub), decorator tuần tự hóa việc gửi trên từng session
+        WebSocketSession concurrentSession =
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT);
+
         // Thêm session vào map theo boardId
         boardSessions.computeIfAbsent(boardId, k -> new ConcurrentHashMap<>())
-                .put(sessionId, session);
+                .put(sessionId, concurrentSession);
         
         log.info("WebSocket connection established for board: {}, session: {}", boardId, sessionId);
         
@@ -40,7 +47,7 @@ public class BoardWebSocketHandler extends TextWebSocketHandler {
                 .timestamp(java.time.LocalDateTime.now())
                 .build();
         
-        sendMessage(session, welcomeMessage);
+        sendMessage(concurrentSession, welcomeMessage);
     }
 
     @Override
@@ -67,24 +74,25 @@ public class BoardWebSocketHandler extends TextWebSocketHandler {
     }
 
     /**
-     * Broadcast message đến tất cả sessions của một board
+     * Broadcast message đã serialize sẵn (từ outbox qua Redis) đến các session của board trên node này
      */
-    public void broadcastToBoard(String boardId, WebSocketMessage message) {
+    public void broadcastToBoard(String boardId, String jsonMessage) {
         Map<String, WebSocketSession> sessions = boardSessions.get(boardId);
-        if (sessions != null && !sessions.isEmpty()) {
-            sessions.values().forEach(session -> {
-                try {
-                    sendMessage(session, message);
-                } catch (Exception e) {
-                    log.error("Error broadcasting to session {}: {}", session.getId(), e.getMessage());
-                    // Remove invalid session
-                    removeSession(session);
-                }
-            });
-            log.info("Broadcasted message to {} sessions for board: {}", sessions.size(), boardId);
-        } else {
-            log.warn("No active sessions found for board: {}", boardId);
+        if (sessions == null || sessions.isEmpty()) {
+            return;
         }
+        TextMessage textMessage = new TextMessage(jsonMessage);
+        sessions.values().forEach(session -> {
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(textMessage);
+                }
+            } catch (Exception e) {
+                log.error("Error broadcasting to session {}: {}", session.getId(), e.getMessage());
+                removeSession(session);
+            }
+        });
+        log.debug("Broadcasted message to {} sessions for board: {}", sessions.size(), boardId);
     }
 
     /**
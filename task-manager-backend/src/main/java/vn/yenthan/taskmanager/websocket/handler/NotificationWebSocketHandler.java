@@ -0,0 +1,101 @@
+package vn.yenthan.taskmanager.websocket.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import vn.yenthan.taskmanager.notifications.service.UnreadCounterService;
+import vn.yenthan.taskmanager.websocket.config.JwtHandshakeInterceptor;
+import vn.yenthan.taskmanager.websocket.dto.WebSocketMessage;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kênh thông báo của user (/ws/notifications): nhận thông báo mới và thay đổi số chưa đọc,
+ * thay cho việc client poll /notifications/count.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationWebSocketHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT = 512 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final UnreadCounterService unreadCounterService;
+
+    // Một user có thể mở nhiều tab/thiết bị
+    private final Map<Long, Set<WebSocketSession>> userSessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Long userId = userId(session);
+        // Gửi từ nhiều thread (listener Redis), decorator tuần tự hóa việc gửi trên từng session
+        WebSocketSession concurrentSession =
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT);
+        userSessions.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(concurrentSession);
+        log.info("Notification WebSocket connected for user: {}, session: {}", userId, session.getId());
+
+        // Số chưa đọc ban đầu, sau đó client chỉ cộng dồn delta
+        WebSocketMessage welcomeMessage = WebSocketMessage.builder()
+                .type("CONNECTION_ESTABLISHED")
+                .metadata(Map.of("unreadCount", unreadCounterService.getUnreadCount(userId)))
+                .timestamp(LocalDateTime.now())
+                .build();
+        concurrentSession.sendMessage(new TextMessage(objectMapper.writeValueAsString(welcomeMessage)));
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.error("Notification WebSocket transport error for session {}: {}", session.getId(), exception.getMessage());
+        removeSession(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) {
+        log.info("Notification WebSocket closed for session: {}, status: {}", session.getId(), closeStatus);
+        removeSession(session);
+    }
+
+    /**
+     * Gửi message (JSON đã serialize) tới mọi session của user trên node này.
+     */
+    public void sendToUser(Long userId, String payload) {
+        Set<WebSocketSession> sessions = userSessions.get(userId);
+        if (sessions == null) {
+            return;
+        }
+        TextMessage message = new TextMessage(payload);
+        for (WebSocketSession session : sessions) {
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(message);
+                }
+            } catch (Exception e) {
+                log.warn("Error sending notification to session {}: {}", session.getId(), e.getMessage());
+                removeSession(session);
+            }
+        }
+    }
+
+    private void removeSession(WebSocketSession session) {
+        Long userId = userId(session);
+        userSessions.computeIfPresent(userId, (id, sessions) -> {
+            sessions.removeIf(candidate -> candidate.getId().equals(session.getId()));
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
+    private static Long userId(WebSocketSession session) {
+        return (Long) session.getAttributes().get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE);
+    }
+}
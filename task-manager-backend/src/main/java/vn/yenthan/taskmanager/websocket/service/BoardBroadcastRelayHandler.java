@@ -0,0 +1,53 @@
+package vn.yenthan.taskmanager.websocket.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import vn.yenthan.taskmanager.core.outbox.OutboxHandler;
+import vn.yenthan.taskmanager.core.outbox.OutboxMessage;
+import vn.yenthan.taskmanager.websocket.handler.BoardWebSocketHandler;
+
+import java.util.List;
+
+/**
+ * Gửi broadcast của board lấy từ outbox. Session của board nằm rải rác ở các node,
+ * nên message đi qua Redis pub/sub ("boardId:json") và mỗi node gửi cho các session nó đang giữ.
+ * JSON đã được serialize lúc ghi outbox, ở đây chỉ chuyển tiếp.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoardBroadcastRelayHandler implements OutboxHandler {
+
+    public static final String DESTINATION = "board.broadcast";
+    public static final String CHANNEL = "board:broadcast";
+
+    private final StringRedisTemplate redisTemplate;
+    private final BoardWebSocketHandler boardWebSocketHandler;
+
+    @Override
+    public String destination() {
+        return DESTINATION;
+    }
+
+    @Override
+    public void handle(List<OutboxMessage> messages) {
+        // Redis lỗi thì ném ra để relay thử lại cả batch
+        for (OutboxMessage message : messages) {
+            redisTemplate.convertAndSend(CHANNEL, message.aggregateKey() + ":" + message.payload());
+        }
+    }
+
+    /**
+     * Message nhận từ Redis, dạng "boardId:json".
+     */
+    public void deliver(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed board broadcast message");
+            return;
+        }
+        boardWebSocketHandler.broadcastToBoard(payload.substring(0, separator), payload.substring(separator + 1));
+    }
+}
@@ -0,0 +1,108 @@
+package vn.yenthan.taskmanager.websocket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.event.NotificationsCreatedEvent;
+import vn.yenthan.taskmanager.notifications.event.NotificationsUpdatedEvent;
+import vn.yenthan.taskmanager.notifications.event.UnreadCountChangedEvent;
+import vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService;
+import vn.yenthan.taskmanager.websocket.dto.WebSocketMessage;
+import vn.yenthan.taskmanager.websocket.handler.NotificationWebSocketHandler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Đẩy thông báo tới kênh của user. Session của user có thể nằm ở node khác,
+ * nên message đi qua Redis pub/sub và mỗi node gửi cho các session nó đang giữ.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationPushService {
+
+    public static final String CHANNEL = "notification:push";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final NotificationWebSocketHandler notificationWebSocketHandler;
+    private final NotificationPreferenceService notificationPreferenceService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsCreated(NotificationsCreatedEvent event) {
+        Map<Long, Integer> masks = preferenceMasks(event.getNotifications());
+        for (NotificationDto notification : event.getNotifications()) {
+            if (allowsPush(masks, notification.getUserId())) {
+                publish(notification.getUserId(), WebSocketMessage.notificationCreated(notification));
+            } else {
+                // Tắt push: không gửi nội dung nhưng badge số chưa đọc vẫn phải đúng
+                publish(notification.getUserId(), WebSocketMessage.unreadCountChanged(1));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationsUpdated(NotificationsUpdatedEvent event) {
+        Map<Long, Integer> masks = preferenceMasks(event.getNotifications());
+        for (NotificationDto notification : event.getNotifications()) {
+            if (allowsPush(masks, notification.getUserId())) {
+                publish(notification.getUserId(), WebSocketMessage.notificationUpdated(notification));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUnreadCountChanged(UnreadCountChangedEvent event) {
+        publish(event.getUserId(), WebSocketMessage.unreadCountChanged(event.getDelta()));
+    }
+
+    /**
+     * Message nhận từ Redis, dạng "userId:json".
+     */
+    public void deliver(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed notification push message");
+            return;
+        }
+        notificationWebSocketHandler.sendToUser(Long.valueOf(payload.substring(0, separator)),
+                payload.substring(separator + 1));
+    }
+
+    private Map<Long, Integer> preferenceMasks(List<NotificationDto> notifications) {
+        try {
+            return notificationPreferenceService.getMasks(
+                    notifications.stream().map(NotificationDto::getUserId).distinct().toList());
+        } catch (Exception e) {
+            log.warn("Cannot load notification preferences for push: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static boolean allowsPush(Map<Long, Integer> masks, Long userId) {
+        return (masks.getOrDefault(userId, NotificationPreferenceService.ALL) & NotificationPreferenceService.PUSH) != 0;
+    }
+
+    private void publish(Long userId, WebSocketMessage message) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(message);
+        } catch (Exception e) {
+            log.error("Error serializing notification push for user {}: {}", userId, e.getMessage());
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, userId + ":" + json);
+        } catch (Exception e) {
+            // Redis lỗi: ít nhất các session trên node này vẫn nhận được
+            log.warn("Cannot publish notification push for user {}: {}", userId, e.getMessage());
+            notificationWebSocketHandler.sendToUser(userId, json);
+        }
+    }
+}
@@ -3,152 +3,82 @@ package vn.yenthan.taskmanager.websocket.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import vn.yenthan.taskmanager.core.outbox.OutboxService;
 import vn.yenthan.taskmanager.websocket.dto.WebSocketMessage;
 import vn.yenthan.taskmanager.websocket.handler.BoardWebSocketHandler;
 
+/**
+ * Broadcast thay đổi của board tới client. Phải gọi trong transaction của thay đổi:
+ * message được ghi vào outbox, chỉ gửi sau khi commit (BoardBroadcastRelayHandler).
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WebSocketBroadcastService {
 
     private final BoardWebSocketHandler boardWebSocketHandler;
+    private final OutboxService outboxService;
 
     /**
      * Broadcast khi card được update
      */
     public void broadcastCardUpdated(Long boardId, Long cardId, Object cardData) {
-        try {
-            WebSocketMessage message = WebSocketMessage.cardUpdated(
-                    String.valueOf(boardId), 
-                    String.valueOf(cardId), 
-                    cardData
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted card updated event for board: {}, card: {}", boardId, cardId);
-        } catch (Exception e) {
-            log.error("Error broadcasting card updated event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.cardUpdated(String.valueOf(boardId), String.valueOf(cardId), cardData));
     }
 
     /**
      * Broadcast khi card được move giữa các list
      */
     public void broadcastCardMoved(Long boardId, Long cardId, Long fromListId, Long toListId, Object cardData) {
-        try {
-            WebSocketMessage message = WebSocketMessage.cardMoved(
-                    String.valueOf(boardId),
-                    String.valueOf(cardId),
-                    String.valueOf(fromListId),
-                    String.valueOf(toListId),
-                    cardData
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted card moved event for board: {}, card: {} from list: {} to list: {}", 
-                    boardId, cardId, fromListId, toListId);
-        } catch (Exception e) {
-            log.error("Error broadcasting card moved event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.cardMoved(String.valueOf(boardId), String.valueOf(cardId),
+                String.valueOf(fromListId), String.valueOf(toListId), cardData));
     }
 
     /**
      * Broadcast khi card được tạo mới
      */
     public void broadcastCardCreated(Long boardId, Long cardId, Object cardData) {
-        try {
-            WebSocketMessage message = WebSocketMessage.cardCreated(
-                    String.valueOf(boardId),
-                    String.valueOf(cardId),
-                    cardData
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted card created event for board: {}, card: {}", boardId, cardId);
-        } catch (Exception e) {
-            log.error("Error broadcasting card created event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.cardCreated(String.valueOf(boardId), String.valueOf(cardId), cardData));
     }
 
     /**
      * Broadcast khi card bị xóa
      */
     public void broadcastCardDeleted(Long boardId, Long cardId) {
-        try {
-            WebSocketMessage message = WebSocketMessage.cardDeleted(
-                    String.valueOf(boardId),
-                    String.valueOf(cardId)
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted card deleted event for board: {}, card: {}", boardId, cardId);
-        } catch (Exception e) {
-            log.error("Error broadcasting card deleted event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.cardDeleted(String.valueOf(boardId), String.valueOf(cardId)));
     }
 
     /**
      * Broadcast custom message
      */
     public void broadcastCustomMessage(Long boardId, String messageType, Object data) {
-        try {
-            WebSocketMessage message = WebSocketMessage.builder()
-                    .type(messageType)
-                    .boardId(String.valueOf(boardId))
-                    .data(data)
-                    .timestamp(java.time.LocalDateTime.now())
-                    .build();
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted custom message for board: {}, type: {}", boardId, messageType);
-        } catch (Exception e) {
-            log.error("Error broadcasting custom message: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.builder()
+                .type(messageType)
+                .boardId(String.valueOf(boardId))
+                .data(data)
+                .timestamp(java.time.LocalDateTime.now())
+                .build());
     }
 
     /**
      * Broadcast khi list được tạo mới
      */
     public void broadcastListCreated(Long boardId, Long listId, Object listData) {
-        try {
-            WebSocketMessage message = WebSocketMessage.listCreated(
-                    String.valueOf(boardId),
-                    String.valueOf(listId),
-                    listData
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted list created event for board: {}, list: {}", boardId, listId);
-        } catch (Exception e) {
-            log.error("Error broadcasting list created event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.listCreated(String.valueOf(boardId), String.valueOf(listId), listData));
     }
 
     /**
      * Broadcast khi list được update
      */
     public void broadcastListUpdated(Long boardId, Long listId, Object listData) {
-        try {
-            WebSocketMessage message = WebSocketMessage.listUpdated(
-                    String.valueOf(boardId),
-                    String.valueOf(listId),
-                    listData
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted list updated event for board: {}, list: {}", boardId, listId);
-        } catch (Exception e) {
-            log.error("Error broadcasting list updated event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.listUpdated(String.valueOf(boardId), String.valueOf(listId), listData));
     }
 
     /**
      * Broadcast khi list bị xóa
      */
     public void broadcastListDeleted(Long boardId, Long listId) {
-        try {
-            WebSocketMessage message = WebSocketMessage.listDeleted(
-                    String.valueOf(boardId),
-                    String.valueOf(listId)
-            );
-            boardWebSocketHandler.broadcastToBoard(String.valueOf(boardId), message);
-            log.info("Broadcasted list deleted event for board: {}, list: {}", boardId, listId);
-        } catch (Exception e) {
-            log.error("Error broadcasting list deleted event: {}", e.getMessage());
-        }
+        enqueue(boardId, WebSocketMessage.listDeleted(String.valueOf(boardId), String.valueOf(listId)));
     }
 
     /**
@@ -157,4 +87,9 @@ public class WebSocketBroadcastService {
     public int getActiveConnectionCount(Long boardId) {
         return boardWebSocketHandler.getActiveSessionCount(String.valueOf(boardId));
     }
+
+    private void enqueue(Long boardId, WebSocketMessage message) {
+        outboxService.record(BoardBroadcastRelayHandler.DESTINATION, boardId, message);
+        log.debug("Queued {} broadcast for board {}", message.getType(), boardId);
+    }
 }
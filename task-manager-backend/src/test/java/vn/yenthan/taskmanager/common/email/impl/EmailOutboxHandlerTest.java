@@ -0,0 +1,99 @@
+package vn.yenthan.taskmanager.common.email.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.yenthan.taskmanager.core.outbox.OutboxMessage;
+import vn.yenthan.taskmanager.core.outbox.OutboxRetryException;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxHandlerTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private EmailOutboxHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new EmailOutboxHandler(mailSender, objectMapper);
+        ReflectionTestUtils.setField(handler, "fromAddress", "noreply@example.com");
+    }
+
+    @Test
+    void batchIsSentOverOneConnection() throws Exception {
+        handler.handle(List.of(message(1, "a@example.com"), message(2, "b@example.com")));
+
+        ArgumentCaptor<SimpleMailMessage[]> sent = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender).send(sent.capture());
+        assertThat(sent.getValue()).extracting(mail -> mail.getTo()[0])
+                .containsExactlyInAnyOrder("a@example.com", "b@example.com");
+        assertThat(sent.getValue()).allSatisfy(mail -> {
+            assertThat(mail.getFrom()).isEqualTo("noreply@example.com");
+            assertThat(mail.getSubject()).isEqualTo("Subject");
+        });
+    }
+
+    @Test
+    void rejectedRecipientsAreRetriedAlone() {
+        doAnswer(inv -> {
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (SimpleMailMessage mail : (SimpleMailMessage[]) inv.getRawArguments()[0]) {
+                if ("bad@example.com".equals(mail.getTo()[0])) {
+                    failed.put(mail, new IllegalStateException("550 mailbox unavailable"));
+                }
+            }
+            throw new MailSendException(failed);
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        assertThatThrownBy(() -> handler.handle(List.of(message(1, "a@example.com"), message(2, "bad@example.com"))))
+                .isInstanceOf(OutboxRetryException.class)
+                .satisfies(e -> assertThat(((OutboxRetryException) e).getFailedIds()).containsExactly(2L));
+    }
+
+    @Test
+    void connectionFailureRetriesWholeBatch() {
+        doThrow(new MailAuthenticationException("bad credentials")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        assertThatThrownBy(() -> handler.handle(List.of(message(1, "a@example.com"))))
+                .isInstanceOf(MailAuthenticationException.class);
+    }
+
+    @Test
+    void withoutSenderAddressEmailsAreOnlyLogged() throws Exception {
+        ReflectionTestUtils.setField(handler, "fromAddress", "");
+
+        handler.handle(List.of(message(1, "a@example.com")));
+
+        verifyNoInteractions(mailSender);
+    }
+
+    private OutboxMessage message(long id, String recipient) throws Exception {
+        String payload = objectMapper.writeValueAsString(new EmailOutboxHandler.Email(recipient, "Subject", "Body"));
+        return new OutboxMessage(id, EmailOutboxHandler.DESTINATION, null, payload, 0, Instant.now());
+    }
+}
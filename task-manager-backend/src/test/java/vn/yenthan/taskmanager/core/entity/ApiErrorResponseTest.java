@@ -0,0 +1,25 @@
+package vn.yenthan.taskmanager.core.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiErrorResponseTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void dataIsOmittedWhenAbsent() throws Exception {
+        String json = objectMapper.writeValueAsString(ApiErrorResponse.builder().code(409).message("Conflict").build());
+
+        assertThat(json).doesNotContain("\"data\"").contains("\"code\":409");
+    }
+
+    @Test
+    void dataIsWrittenWhenPresent() throws Exception {
+        String json = objectMapper.writeValueAsString(ApiErrorResponse.builder().code(409).data(1L).build());
+
+        assertThat(json).contains("\"data\":1");
+    }
+}
@@ -0,0 +1,179 @@
+package vn.yenthan.taskmanager.core.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private OutboxHandler broadcastHandler;
+
+    @Mock
+    private OutboxHandler notificationHandler;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(broadcastHandler.destination()).thenReturn("board.broadcast");
+        when(notificationHandler.destination()).thenReturn("notification.request");
+        relay = new OutboxRelay(jdbcTemplate, transactionTemplate, List.of(broadcastHandler, notificationHandler),
+                new SyncTaskExecutor(), 2);
+        ReflectionTestUtils.setField(relay, "batchSize", 200);
+        ReflectionTestUtils.setField(relay, "leaseSeconds", 60);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 10);
+        ReflectionTestUtils.setField(relay, "backoffSeconds", 2);
+        ReflectionTestUtils.setField(relay, "maxBackoffSeconds", 300);
+        lenient().doAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null))
+                .when(transactionTemplate).execute(any());
+    }
+
+    @Test
+    void deletesHandledMessages() throws Exception {
+        claim(message(1, "board.broadcast", "5"), message(3, "board.broadcast", "5"));
+
+        relay.wakeUp("board.broadcast");
+
+        verify(broadcastHandler).handle(List.of(message(1, "board.broadcast", "5"), message(3, "board.broadcast", "5")));
+        Map<String, List<Long>> statements = statements();
+        assertThat(statements.get("DELETE")).containsExactly(1L, 3L);
+        assertThat(statements).doesNotContainKey("RETRY");
+    }
+
+    @Test
+    void failedBatchIsRetried() throws Exception {
+        claim(message(2, "notification.request", null));
+        doThrow(new IllegalStateException("db down")).when(notificationHandler).handle(any());
+
+        relay.wakeUp("notification.request");
+
+        Map<String, List<Long>> statements = statements();
+        assertThat(statements.get("RETRY")).containsExactly(2L);
+        assertThat(statements).doesNotContainKey("DELETE");
+    }
+
+    @Test
+    void claimsOnlyMessagesOfWokenDestination() throws Exception {
+        claim();
+
+        relay.wakeUp("board.broadcast");
+
+        verify(jdbcTemplate).query(eq("SELECT pg_advisory_xact_lock(?, hashtext(?))"),
+                any(RowCallbackHandler.class), any(), eq("board.broadcast"));
+        verify(jdbcTemplate).query(contains("c.destination = ?"), ArgumentMatchers.<RowMapper<OutboxMessage>>any(),
+                eq(60), eq("board.broadcast"), eq(200));
+        verify(notificationHandler, never()).handle(any());
+    }
+
+    @Test
+    void unknownDestinationIsLeftForOtherNodes() {
+        relay.wakeUp("unknown");
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void retriedMessageHoldsBackLaterMessagesOfItsAggregate() throws Exception {
+        claim(message(4, "board.broadcast", "7"), message(5, "board.broadcast", "7"),
+                message(6, "board.broadcast", "8"));
+        doThrow(new OutboxRetryException("rejected", List.of(4L))).when(broadcastHandler).handle(any());
+
+        relay.wakeUp("board.broadcast");
+
+        Map<String, List<Long>> statements = statements();
+        assertThat(statements.get("RETRY")).containsExactly(4L);
+        assertThat(statements.get("RELEASE")).containsExactly(5L);
+        assertThat(statements.get("DELETE")).containsExactly(6L);
+    }
+
+    @Test
+    void claimKeepsAggregateOrder() {
+        claim();
+
+        relay.wakeUp("notification.request");
+
+        verify(jdbcTemplate).query(contains("e.aggregate_key = c.aggregate_key"),
+                ArgumentMatchers.<RowMapper<OutboxMessage>>any(), any(), any(), any());
+    }
+
+    private void claim(OutboxMessage... batch) {
+        when(jdbcTemplate.query(contains("FOR UPDATE SKIP LOCKED"), ArgumentMatchers.<RowMapper<OutboxMessage>>any(),
+                any(), any(), any())).thenReturn(List.of(batch));
+    }
+
+    // Câu lệnh cập nhật đã chạy: "DELETE", "RELEASE" hoặc "RETRY" -> id
+    private Map<String, List<Long>> statements() {
+        ArgumentCaptor<PreparedStatementCreator> captor = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        verify(jdbcTemplate, atLeastOnce()).update(captor.capture());
+        Map<String, List<Long>> statements = new HashMap<>();
+        for (PreparedStatementCreator creator : captor.getAllValues()) {
+            List<String> sql = new ArrayList<>();
+            List<Long> ids = new ArrayList<>();
+            try {
+                Connection connection = mock(Connection.class);
+                when(connection.prepareStatement(anyString())).thenAnswer(inv -> {
+                    sql.add(inv.getArgument(0));
+                    return mock(PreparedStatement.class);
+                });
+                when(connection.createArrayOf(anyString(), any())).thenAnswer(inv -> {
+                    Arrays.stream(inv.<Object[]>getArgument(1)).forEach(id -> ids.add((Long) id));
+                    return null;
+                });
+                creator.createPreparedStatement(connection);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            String statement = sql.get(0).startsWith("DELETE") ? "DELETE"
+                    : sql.get(0).contains("attempts - 1") ? "RELEASE" : "RETRY";
+            statements.put(statement, ids);
+        }
+        return statements;
+    }
+
+    private static OutboxMessage message(long id, String destination, String aggregateKey) {
+        return new OutboxMessage(id, destination, aggregateKey, "{}", 1, Instant.parse("2026-01-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,47 @@
+package vn.yenthan.taskmanager.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripsValues() {
+        Instant createdAt = Instant.parse("2026-03-01T10:15:30.123456Z");
+
+        String cursor = CursorCodec.encode(createdAt, 42L);
+        Object[] decoded = CursorCodec.decode(cursor, 2,
+                values -> new Object[]{Instant.parse(values[0]), Long.parseLong(values[1])});
+
+        assertThat(decoded).containsExactly(createdAt, 42L);
+    }
+
+    @Test
+    void roundTripsSearchRankExactly() {
+        float rank = 0.0607927f;
+
+        String cursor = CursorCodec.encode(rank, 7L);
+        float decoded = CursorCodec.decode(cursor, 2, values -> Float.parseFloat(values[0]));
+
+        assertThat(decoded).isEqualTo(rank);
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        assertThat(CursorCodec.encode("???>>>", 1L)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThatThrownBy(() -> CursorCodec.decode("not base64!", 2, values -> values))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(CursorCodec.encode(1L), 2, values -> values))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(CursorCodec.encode("x", "y"), 2, values -> Long.parseLong(values[1])))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
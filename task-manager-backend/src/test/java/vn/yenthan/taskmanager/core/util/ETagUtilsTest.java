@@ -0,0 +1,58 @@
+package vn.yenthan.taskmanager.core.util;
+
+import org.junit.jupiter.api.Test;
+import vn.yenthan.taskmanager.core.exception.payload.ValidationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ETagUtilsTest {
+
+    @Test
+    void versionRoundTrips() {
+        String etag = ETagUtils.fromVersion(7L);
+
+        assertThat(etag).isEqualTo("\"7\"");
+        assertThat(ETagUtils.parseVersion(etag)).isEqualTo(7L);
+        assertThat(ETagUtils.parseVersion("W/\"7\"")).isEqualTo(7L);
+        assertThat(ETagUtils.parseVersion("7")).isEqualTo(7L);
+    }
+
+    @Test
+    void missingOrWildcardIfMatchIsIgnored() {
+        assertThat(ETagUtils.parseVersion(null)).isNull();
+        assertThat(ETagUtils.parseVersion(" ")).isNull();
+        assertThat(ETagUtils.parseVersion("*")).isNull();
+        assertThat(ETagUtils.parseBoardVersion("*", 1L)).isNull();
+    }
+
+    @Test
+    void boardETagCarriesBoardVersion() {
+        String etag = ETagUtils.fromBoardRevision(12L, 1700000000000L, 3L);
+
+        assertThat(etag).isEqualTo("\"b12-r1700000000000-v3\"");
+        assertThat(ETagUtils.parseBoardVersion(etag, 12L)).isEqualTo(3L);
+        assertThat(ETagUtils.parseBoardVersion("W/" + etag, 12L)).isEqualTo(3L);
+        assertThat(ETagUtils.parseBoardVersion("\"3\"", 12L)).isEqualTo(3L);
+    }
+
+    @Test
+    void listsETagCannotBeUsedAsPrecondition() {
+        String etag = ETagUtils.fromBoardRevision(12L, 5L, null);
+
+        assertThat(etag).isEqualTo("\"b12-r5\"");
+        assertThatThrownBy(() -> ETagUtils.parseBoardVersion(etag, 12L)).isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> ETagUtils.parseVersion(etag)).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void boardETagOfAnotherBoardIsRejected() {
+        assertThatThrownBy(() -> ETagUtils.parseBoardVersion("\"b13-r5-v2\"", 12L))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void malformedVersionIsRejected() {
+        assertThatThrownBy(() -> ETagUtils.parseVersion("\"abc\"")).isInstanceOf(ValidationException.class);
+    }
+}
@@ -0,0 +1,149 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardReminderView;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardReminderServiceTest {
+
+    private static final String MARK_REMINDED_SQL = "UPDATE tbl_card SET reminded_due_date = date WHERE id = ? AND date = ?";
+    private static final Instant DUE = Instant.parse("2026-10-20T09:00:00Z");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CardMemberRepository cardMemberRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CardReminderService cardReminderService;
+
+    @BeforeEach
+    void setUp() {
+        cardReminderService = new CardReminderService(redisTemplate, jdbcTemplate, cardMemberRepository,
+                notificationService, transactionTemplate);
+        ReflectionTestUtils.setField(cardReminderService, "leadMs", 3600000L);
+        ReflectionTestUtils.setField(cardReminderService, "batchSize", 200);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void claimedCardsAreRemindedAndMarkedOncePerCard() {
+        claim("5", String.valueOf((double) DUE.toEpochMilli()));
+        List<CardReminderView> reminders = List.of(
+                new CardReminderView(5L, 1L, "Release", DUE, 10L),
+                new CardReminderView(5L, 1L, "Release", DUE, 11L));
+        when(cardMemberRepository.findReminderViewsByCardIds(List.of(5L))).thenReturn(reminders);
+
+        cardReminderService.sendDueReminders();
+
+        verify(notificationService).createDueDateReminders(reminders);
+        // Đánh dấu theo due date đã đọc: due date bị đổi trong lúc gửi thì không bị coi là đã nhắc
+        verify(jdbcTemplate).batchUpdate(eq(MARK_REMINDED_SQL), ArgumentMatchers.<List<Object[]>>argThat(args ->
+                args.size() == 1 && args.get(0)[0].equals(5L) && args.get(0)[1].equals(Timestamp.from(DUE))));
+    }
+
+    @Test
+    void failedRequestPutsClaimedCardsBackWithoutMarking() {
+        claim("5", "1000.0");
+        when(cardMemberRepository.findReminderViewsByCardIds(List.of(5L)))
+                .thenReturn(List.of(new CardReminderView(5L, 1L, "Release", DUE, 10L)));
+        doThrow(new IllegalStateException("db down")).when(notificationService).createDueDateReminders(any());
+
+        cardReminderService.sendDueReminders();
+
+        verify(zSetOperations).addIfAbsent("card:due", Set.of(new DefaultTypedTuple<>("5", 1000.0)));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), ArgumentMatchers.<List<Object[]>>any());
+    }
+
+    @Test
+    void nothingDueSendsNothing() {
+        claim();
+
+        cardReminderService.sendDueReminders();
+
+        verifyNoInteractions(cardMemberRepository, notificationService, transactionTemplate);
+    }
+
+    @Test
+    void reloadSkipsCardsAlreadyRemindedForTheirDueDate() {
+        when(redisTemplate.hasKey("card:due:loaded")).thenReturn(false);
+        when(valueOperations.setIfAbsent(eq("card:due:loading"), eq("1"), any(Duration.class))).thenReturn(true);
+
+        cardReminderService.loadSchedule();
+
+        verify(jdbcTemplate).query(contains("c.reminded_due_date IS DISTINCT FROM c.date"),
+                any(RowCallbackHandler.class), any(Timestamp.class));
+        verify(valueOperations).set(eq("card:due:loaded"), anyString());
+        verify(redisTemplate).delete("card:due:loading");
+    }
+
+    @Test
+    void loadedScheduleIsNotReloaded() {
+        when(redisTemplate.hasKey("card:due:loaded")).thenReturn(true);
+
+        cardReminderService.loadSchedule();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void claim(String... entries) {
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<String>>>any(), eq(List.of("card:due")),
+                anyString(), eq("200"))).thenReturn(List.of(entries));
+    }
+}
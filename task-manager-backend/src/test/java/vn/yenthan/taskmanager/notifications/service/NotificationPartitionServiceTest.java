@@ -0,0 +1,105 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPartitionServiceTest {
+
+    private static final String EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private NotificationPartitionService partitionService;
+
+    @BeforeEach
+    void setUp() {
+        partitionService = new NotificationPartitionService(jdbcTemplate, transactionTemplate, redisTemplate);
+        ReflectionTestUtils.setField(partitionService, "readRetentionMonths", 3);
+        ReflectionTestUtils.setField(partitionService, "maxRetentionMonths", 12);
+    }
+
+    @Test
+    void movesRowsOutOfDefaultPartitionBeforeAttaching() {
+        when(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, "tbl_notification_p202703")).thenReturn(false);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        partitionService.createPartition(YearMonth.of(2027, 3));
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute(startsWith("CREATE TABLE tbl_notification_p202703 (LIKE tbl_notification"));
+        order.verify(jdbcTemplate).execute("LOCK TABLE tbl_notification_default IN ACCESS EXCLUSIVE MODE");
+        order.verify(jdbcTemplate).update(contains("DELETE FROM tbl_notification_default"), any(), any());
+        order.verify(jdbcTemplate).execute("ALTER TABLE tbl_notification ATTACH PARTITION tbl_notification_p202703"
+                + " FOR VALUES FROM ('2027-03-01') TO ('2027-04-01')");
+    }
+
+    @Test
+    void existingPartitionIsLeftAlone() {
+        when(jdbcTemplate.queryForObject(EXISTS_SQL, Boolean.class, "tbl_notification_p202703")).thenReturn(true);
+
+        partitionService.createPartition(YearMonth.of(2027, 3));
+
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void dropsExpiredPartitionsAndKeepsUnreadOnesWithinMaxRetention() {
+        String pastMax = partition(14);
+        String unread = partition(5);
+        String read = partition(6);
+        String recent = partition(1);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("tbl_notification")))
+                .thenReturn(List.of(pastMax, unread, read, recent, "tbl_notification_default"));
+        when(jdbcTemplate.queryForObject(contains("FROM " + unread + " "), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("FROM " + read + " "), eq(Boolean.class))).thenReturn(false);
+
+        partitionService.dropExpiredPartitions();
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + pastMax);
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + read);
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS " + unread);
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS " + recent);
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS tbl_notification_default");
+    }
+
+    private static String partition(int monthsAgo) {
+        YearMonth month = YearMonth.now().minusMonths(monthsAgo);
+        return String.format("tbl_notification_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+}
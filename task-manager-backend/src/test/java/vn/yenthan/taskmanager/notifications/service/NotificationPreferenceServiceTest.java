@@ -0,0 +1,93 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService.ALL;
+import static vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService.BOARD_UPDATES;
+import static vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService.CARD_UPDATES;
+import static vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService.IN_APP;
+import static vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService.MEMBER_UPDATES;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPreferenceServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private NotificationPreferenceService preferenceService;
+
+    @BeforeEach
+    void setUp() {
+        preferenceService = new NotificationPreferenceService(jdbcTemplate, redisTemplate, new ObjectMapper());
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void filtersByInAppAndCategoryOfType() {
+        when(valueOperations.multiGet(List.of("notification:prefs:1", "notification:prefs:2", "notification:prefs:3")))
+                .thenReturn(List.of(String.valueOf(ALL), String.valueOf(ALL & ~CARD_UPDATES), String.valueOf(ALL & ~IN_APP)));
+
+        assertThat(preferenceService.filterRecipients(NotificationService.TYPE_CARD_UPDATED, List.of(1L, 2L, 3L)))
+                .containsExactly(1L);
+    }
+
+    @Test
+    void otherCategoriesAreNotAffectedByCardOptOut() {
+        when(valueOperations.multiGet(List.of("notification:prefs:1", "notification:prefs:2")))
+                .thenReturn(List.of(String.valueOf(ALL), String.valueOf(ALL & ~CARD_UPDATES)));
+
+        assertThat(preferenceService.filterRecipients(NotificationService.TYPE_BOARD_MEMBER_ADDED, List.of(1L, 2L)))
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void uncachedUsersAreLoadedAndDefaultToEverything() throws Exception {
+        when(valueOperations.multiGet(List.of("notification:prefs:1", "notification:prefs:2")))
+                .thenReturn(Arrays.asList(null, null));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("user_id")).thenReturn(1L);
+        when(rs.getString("notifications")).thenReturn("{\"cardUpdates\": false}");
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        // User 2 chưa có dòng tùy chọn: nhận mọi thứ
+        assertThat(preferenceService.filterRecipients(NotificationService.TYPE_CARD_DUE_SOON, List.of(1L, 2L)))
+                .containsExactly(2L);
+    }
+
+    @Test
+    void mapsTypesToCategories() {
+        assertThat(NotificationPreferenceService.categoryOf(NotificationService.TYPE_CARD_DUE_SOON)).isEqualTo(CARD_UPDATES);
+        assertThat(NotificationPreferenceService.categoryOf(NotificationService.TYPE_CARD_ASSIGNED)).isEqualTo(MEMBER_UPDATES);
+        assertThat(NotificationPreferenceService.categoryOf("BOARD_RENAMED")).isEqualTo(BOARD_UPDATES);
+        assertThat(NotificationPreferenceService.categoryOf("SYSTEM")).isZero();
+    }
+}
@@ -0,0 +1,191 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import vn.yenthan.taskmanager.core.outbox.OutboxService;
+import vn.yenthan.taskmanager.core.util.CursorCodec;
+import vn.yenthan.taskmanager.core.util.CursorPage;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.entity.NotificationEntity;
+import vn.yenthan.taskmanager.notifications.event.UnreadCountChangedEvent;
+import vn.yenthan.taskmanager.notifications.mapper.NotificationMapper;
+import vn.yenthan.taskmanager.notifications.payload.NotificationPayloadCodec;
+import vn.yenthan.taskmanager.notifications.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final Long USER_ID = 3L;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationMapper notificationMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UnreadCounterService unreadCounterService;
+
+    @Mock
+    private NotificationPreferenceService notificationPreferenceService;
+
+    @Mock
+    private NotificationPayloadCodec notificationPayloadCodec;
+
+    @Mock
+    private OutboxService outboxService;
+
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(notificationRepository, notificationMapper, eventPublisher,
+                unreadCounterService, notificationPreferenceService, notificationPayloadCodec, outboxService);
+    }
+
+    @Test
+    void markAllReadIsOneUpdateAndResetsCounter() {
+        when(notificationRepository.markAllReadByUserId(any(), any(Instant.class))).thenReturn(42);
+
+        notificationService.markAllNotificationsAsRead(USER_ID);
+
+        verify(notificationRepository).markAllReadByUserId(any(), any(Instant.class));
+        UnreadCountChangedEvent event = publishedUnreadChange();
+        assertThat(event.getUserId()).isEqualTo(USER_ID);
+        assertThat(event.getDelta()).isEqualTo(-42);
+        assertThat(event.isReset()).isTrue();
+    }
+
+    @Test
+    void markReadUpToIdLeavesLaterNotificationsUnread() {
+        when(notificationRepository.markReadUpToId(any(), any(), any(Instant.class))).thenReturn(5);
+
+        assertThat(notificationService.markNotificationsAsReadUpTo(USER_ID, 100L, null)).isEqualTo(5);
+
+        verify(notificationRepository).markReadUpToId(any(), any(), any(Instant.class));
+        assertThat(publishedUnreadChange().getDelta()).isEqualTo(-5);
+    }
+
+    @Test
+    void markReadUpToNeedsExactlyOneBound() {
+        assertThatThrownBy(() -> notificationService.markNotificationsAsReadUpTo(USER_ID, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> notificationService.markNotificationsAsReadUpTo(USER_ID, 1L, Instant.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void bulkDeleteCountsOnlyUnreadRowsForCounter() {
+        Instant from = Instant.parse("2026-03-10T00:00:00Z");
+        Instant lowerBound = from.minus(Duration.ofDays(1));
+        when(notificationRepository.deleteUnreadByUserIdAndIds(USER_ID, List.of(1L, 2L, 3L), lowerBound)).thenReturn(1);
+        when(notificationRepository.deleteByUserIdAndIds(USER_ID, List.of(1L, 2L, 3L), lowerBound)).thenReturn(2);
+
+        assertThat(notificationService.deleteNotifications(USER_ID, List.of(1L, 2L, 3L), from)).isEqualTo(3);
+
+        UnreadCountChangedEvent event = publishedUnreadChange();
+        assertThat(event.getDelta()).isEqualTo(-1);
+        assertThat(event.isReset()).isFalse();
+    }
+
+    @Test
+    void bulkDeleteWithoutUnreadRowsLeavesCounter() {
+        when(notificationRepository.deleteUnreadByUserIdAndIds(USER_ID, List.of(1L), Instant.EPOCH)).thenReturn(0);
+        when(notificationRepository.deleteByUserIdAndIds(USER_ID, List.of(1L), Instant.EPOCH)).thenReturn(1);
+
+        notificationService.deleteNotifications(USER_ID, List.of(1L), null);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void bulkDeleteIsBounded() {
+        List<Long> ids = LongStream.rangeClosed(1, NotificationService.MAX_BULK_IDS + 1).boxed().toList();
+
+        assertThatThrownBy(() -> notificationService.deleteNotifications(USER_ID, ids, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(notificationService.deleteNotifications(USER_ID, List.of(), null)).isZero();
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void firstFeedPageReturnsCursorOfLastShownNotification() {
+        Instant newest = Instant.parse("2026-03-10T10:00:00Z");
+        List<NotificationEntity> rows = List.of(notification(9, newest), notification(8, newest),
+                notification(7, newest.minusSeconds(60)));
+        when(notificationRepository.findFeed(USER_ID, PageRequest.of(0, 3))).thenReturn(rows);
+        when(notificationMapper.toNotificationDtoList(rows.subList(0, 2))).thenReturn(List.of());
+
+        CursorPage<NotificationDto> page = notificationService.getNotificationFeed(USER_ID, null, 2, false);
+
+        assertThat(page.nextCursor()).isEqualTo(CursorCodec.encode(newest, 8L));
+    }
+
+    @Test
+    void unreadFeedContinuesBeforeCursor() {
+        Instant createdAt = Instant.parse("2026-03-10T10:00:00Z");
+        when(notificationRepository.findUnreadFeedBefore(USER_ID, createdAt, 8L, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+        when(notificationMapper.toNotificationDtoList(List.of())).thenReturn(List.of());
+
+        CursorPage<NotificationDto> page = notificationService.getNotificationFeed(USER_ID,
+                CursorCodec.encode(createdAt, 8L), 2, true);
+
+        assertThat(page.nextCursor()).isNull();
+        verify(notificationRepository, never()).findFeedBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    void feedPageSizeIsClamped() {
+        when(notificationRepository.findFeed(USER_ID, PageRequest.of(0, NotificationService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of());
+        when(notificationMapper.toNotificationDtoList(List.of())).thenReturn(List.of());
+
+        notificationService.getNotificationFeed(USER_ID, null, 10_000, false);
+
+        verify(notificationRepository).findFeed(USER_ID, PageRequest.of(0, NotificationService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void malformedFeedCursorIsRejected() {
+        assertThatThrownBy(() -> notificationService.getNotificationFeed(USER_ID, "not-a-cursor", 20, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    private static NotificationEntity notification(long id, Instant createdAt) {
+        NotificationEntity notification = new NotificationEntity();
+        notification.setId(id);
+        notification.setCreatedAt(createdAt);
+        return notification;
+    }
+
+    private UnreadCountChangedEvent publishedUnreadChange() {
+        ArgumentCaptor<UnreadCountChangedEvent> event = ArgumentCaptor.forClass(UnreadCountChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        return event.getValue();
+    }
+}
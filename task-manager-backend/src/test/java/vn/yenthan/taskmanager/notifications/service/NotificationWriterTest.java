@@ -0,0 +1,147 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import vn.yenthan.taskmanager.core.outbox.OutboxMessage;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.event.NotificationRequestedEvent;
+import vn.yenthan.taskmanager.notifications.event.NotificationsCreatedEvent;
+import vn.yenthan.taskmanager.notifications.payload.NotificationPayloadCodec;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationWriterTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T10:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private NotificationPreferenceService notificationPreferenceService;
+
+    @Mock
+    private NotificationPayloadCodec notificationPayloadCodec;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NotificationWriter notificationWriter;
+
+    @BeforeEach
+    void setUp() {
+        notificationWriter = new NotificationWriter(jdbcTemplate, transactionTemplate, objectMapper, eventPublisher,
+                notificationPreferenceService, notificationPayloadCodec);
+        lenient().when(notificationPreferenceService.filterRecipients(any(), any())).thenAnswer(inv -> inv.getArgument(1));
+        lenient().doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void failedEventIsRetriedInsteadOfDropped() throws Exception {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<NotificationDto>>any()))
+                .thenThrow(new DataIntegrityViolationException("batch"))
+                .thenThrow(new DataIntegrityViolationException("card deleted"))
+                .thenReturn(List.of());
+
+        assertThatThrownBy(() -> notificationWriter.handle(List.of(message(1L, 20L), message(2L, 21L))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        // Cả batch, rồi từng event một
+        verify(jdbcTemplate, times(3))
+                .query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<NotificationDto>>any());
+    }
+
+    @Test
+    void rowsCarryOutboxKeySoRedeliveryIsIgnored() throws Exception {
+        ArgumentCaptor<PreparedStatementCreator> statement = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        when(jdbcTemplate.query(statement.capture(), ArgumentMatchers.<RowMapper<NotificationDto>>any()))
+                .thenReturn(List.of());
+
+        notificationWriter.handle(List.of(message(7L, 20L)));
+
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(any())).thenReturn(mock(PreparedStatement.class));
+        statement.getValue().createPreparedStatement(connection);
+        verify(connection).prepareStatement(contains("ON CONFLICT (outbox_id, user_id, created_at) DO NOTHING"));
+        verify(connection).createArrayOf(eq("bigint"), aryEq(new Object[]{7L}));
+        verify(connection).createArrayOf(eq("timestamp"), aryEq(new Object[]{Timestamp.from(CREATED_AT)}));
+    }
+
+    @Test
+    void batchFansOutEveryRecipientInOneStatement() throws Exception {
+        ArgumentCaptor<PreparedStatementCreator> statement = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        when(jdbcTemplate.query(statement.capture(), ArgumentMatchers.<RowMapper<NotificationDto>>any()))
+                .thenReturn(List.of(NotificationDto.builder().id(1L).userId(20L).build()));
+
+        notificationWriter.handle(List.of(message(1L, 20L, 21L), message(2L, 22L)));
+
+        verify(jdbcTemplate).query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<NotificationDto>>any());
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(any())).thenReturn(mock(PreparedStatement.class));
+        statement.getValue().createPreparedStatement(connection);
+        // Cột user_id: một dòng cho mỗi (event, người nhận)
+        verify(connection).createArrayOf(eq("bigint"), aryEq(new Object[]{20L, 21L, 22L}));
+        verify(eventPublisher).publishEvent(any(NotificationsCreatedEvent.class));
+    }
+
+    @Test
+    void optedOutRecipientsGetNoRow() throws Exception {
+        when(notificationPreferenceService.filterRecipients(NotificationService.TYPE_CARD_ASSIGNED, List.of(20L)))
+                .thenReturn(List.of());
+
+        notificationWriter.handle(List.of(message(1L, 20L)));
+
+        verifyNoInteractions(jdbcTemplate, transactionTemplate, eventPublisher);
+    }
+
+    private OutboxMessage message(long id, Long... recipientIds) throws Exception {
+        NotificationRequestedEvent event = NotificationRequestedEvent.builder()
+                .type(NotificationService.TYPE_CARD_ASSIGNED)
+                .title("Card assigned")
+                .message("You were assigned")
+                .cardId(100L + id)
+                .recipientIds(List.of(recipientIds))
+                .auditor("system")
+                .build();
+        return new OutboxMessage(id, NotificationWriter.DESTINATION, null, objectMapper.writeValueAsString(event),
+                1, CREATED_AT);
+    }
+}
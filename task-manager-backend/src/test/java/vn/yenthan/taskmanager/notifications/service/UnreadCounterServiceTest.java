@@ -0,0 +1,92 @@
+package vn.yenthan.taskmanager.notifications.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.yenthan.taskmanager.notifications.repository.NotificationRepository;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private UnreadCounterService unreadCounterService;
+
+    @BeforeEach
+    void setUp() {
+        unreadCounterService = new UnreadCounterService(redisTemplate, notificationRepository);
+        ReflectionTestUtils.setField(unreadCounterService, "reconcileLimit", 10000);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), eq("1"), any(Duration.class))).thenReturn(true);
+    }
+
+    @Test
+    void dropsOnlyDriftedCountersAndNeverWritesCounts() {
+        scan("notification:unread:1", "notification:unread:2");
+        when(valueOperations.multiGet(List.of("notification:unread:1", "notification:unread:2")))
+                .thenReturn(List.of("5", "3"));
+        when(notificationRepository.countUnreadByUserIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new Object[]{1L, 5L}, new Object[]{2L, 4L}));
+
+        unreadCounterService.reconcile();
+
+        // Xóa có điều kiện theo giá trị đã đọc: counter đã bị cộng/trừ xen giữa thì giữ nguyên
+        verify(redisTemplate).execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(List.of("notification:unread:2")),
+                eq("3"));
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<Long>>any(),
+                eq(List.of("notification:unread:1")), any());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void userWithoutUnreadRowsCountsAsZero() {
+        scan("notification:unread:3");
+        when(valueOperations.multiGet(List.of("notification:unread:3"))).thenReturn(List.of("2"));
+        when(notificationRepository.countUnreadByUserIds(List.of(3L))).thenReturn(List.of());
+
+        unreadCounterService.reconcile();
+
+        verify(redisTemplate).execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(List.of("notification:unread:3")),
+                eq("2"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void scan(String... keys) {
+        Cursor<String> cursor = mock(Cursor.class);
+        Boolean[] more = new Boolean[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            more[i] = i < keys.length - 1;
+        }
+        when(cursor.hasNext()).thenReturn(true, more);
+        when(cursor.next()).thenReturn(keys[0], Arrays.copyOfRange(keys, 1, keys.length));
+        when(redisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+    }
+}
@@ -0,0 +1,77 @@
+package vn.yenthan.taskmanager.scrumboard.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardCardIndexTest {
+
+    private static final CardFilter ALL = new CardFilter(null, null, null, null);
+
+    @Test
+    void filtersByMemberLabelAndDueDate() {
+        BoardCardIndex index = new BoardCardIndex(1L);
+        index.putCard(1L, Instant.parse("2026-01-01T00:00:00Z"), List.of(10L), List.of(100L));
+        index.putCard(2L, Instant.parse("2026-02-01T00:00:00Z"), List.of(10L, 11L), List.of());
+        index.putCard(3L, null, List.of(11L), List.of(100L));
+
+        assertThat(index.filter(new CardFilter(Set.of(10L), null, null, null))).containsExactly(1L, 2L);
+        assertThat(index.filter(new CardFilter(Set.of(11L), Set.of(100L), null, null))).containsExactly(3L);
+        assertThat(index.filter(new CardFilter(null, null, Instant.parse("2026-01-15T00:00:00Z"), null)))
+                .containsExactly(2L);
+    }
+
+    @Test
+    void reusesOrdinalOfRemovedCard() {
+        BoardCardIndex index = new BoardCardIndex(1L);
+        index.putCard(1L, null, List.of(), List.of());
+        index.putCard(2L, null, List.of(), List.of());
+        index.putCard(3L, null, List.of(), List.of());
+
+        index.removeCard(2L);
+        index.putCard(4L, null, List.of(), List.of());
+
+        // Card 4 nhận lại ordinal của card 2
+        assertThat(index.filter(ALL)).containsExactly(1L, 4L, 3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void reusedOrdinalDoesNotKeepOldMembershipsOrDueDate() {
+        BoardCardIndex index = new BoardCardIndex(1L);
+        index.putCard(1L, Instant.parse("2026-01-01T00:00:00Z"), List.of(10L), List.of(100L));
+        index.removeCard(1L);
+        index.putCard(2L, null, List.of(), List.of());
+
+        assertThat(index.filter(new CardFilter(Set.of(10L), null, null, null))).isEmpty();
+        assertThat(index.filter(new CardFilter(null, Set.of(100L), null, null))).isEmpty();
+        assertThat(index.filter(new CardFilter(null, null, Instant.parse("2025-01-01T00:00:00Z"), null))).isEmpty();
+        assertThat(index.filter(ALL)).containsExactly(2L);
+    }
+
+    @Test
+    void updatingCardReplacesItsMemberships() {
+        BoardCardIndex index = new BoardCardIndex(1L);
+        index.putCard(1L, null, List.of(10L), List.of());
+
+        index.putCard(1L, null, List.of(11L), List.of());
+
+        assertThat(index.filter(new CardFilter(Set.of(10L), null, null, null))).isEmpty();
+        assertThat(index.filter(new CardFilter(Set.of(11L), null, null, null))).containsExactly(1L);
+    }
+
+    @Test
+    void removedLabelNoLongerMatches() {
+        BoardCardIndex index = new BoardCardIndex(1L);
+        index.putCard(1L, null, List.of(), List.of(100L, 101L));
+
+        index.removeLabel(100L);
+
+        assertThat(index.filter(new CardFilter(null, Set.of(100L), null, null))).isEmpty();
+        assertThat(index.filter(new CardFilter(null, Set.of(101L), null, null))).containsExactly(1L);
+    }
+}
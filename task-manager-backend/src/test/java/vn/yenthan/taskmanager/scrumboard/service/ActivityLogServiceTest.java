@@ -0,0 +1,137 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardChangesDto;
+import vn.yenthan.taskmanager.scrumboard.entity.ActivityLogEntity;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapper;
+import vn.yenthan.taskmanager.scrumboard.repository.ActivityLogRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActivityLogServiceTest {
+
+    private static final long BOARD_ID = 7L;
+
+    @Mock
+    private ActivityLogRepository activityLogRepository;
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Mock
+    private ListRepository listRepository;
+
+    @Mock
+    private BoardViewService boardViewService;
+
+    @Mock
+    private MemberService memberService;
+
+    @Mock
+    private ScrumboardMapper scrumboardMapper;
+
+    private ActivityLogService activityLogService;
+
+    @BeforeEach
+    void setUp() {
+        activityLogService = new ActivityLogService(activityLogRepository, boardRepository, listRepository,
+                boardViewService, memberService, scrumboardMapper);
+        ReflectionTestUtils.setField(activityLogService, "maxEntries", 3);
+        ReflectionTestUtils.setField(activityLogService, "settleMs", 5000L);
+        lenient().when(boardViewService.getCards(anyList())).thenReturn(List.of());
+    }
+
+    @Test
+    void cursorAdvancesToLastEntryWhenAllSettled() {
+        page(10L, settled(11), settled(12));
+
+        BoardChangesDto changes = activityLogService.getBoardChanges(BOARD_ID, 10L);
+
+        assertThat(changes.getCursor()).isEqualTo(12L);
+        assertThat(changes.isHasMore()).isFalse();
+    }
+
+    @Test
+    void cursorStopsBeforeFirstUnsettledEntry() {
+        // 13 còn mới: có thể có transaction chưa commit với id nhỏ hơn, 14 đã ổn định nhưng nằm sau 13
+        page(10L, settled(11), settled(12), fresh(13), settled(14));
+
+        BoardChangesDto changes = activityLogService.getBoardChanges(BOARD_ID, 10L);
+
+        assertThat(changes.getCursor()).isEqualTo(12L);
+        assertThat(changes.isHasMore()).isFalse();
+    }
+
+    @Test
+    void fullPageOfSettledEntriesReportsMore() {
+        page(10L, settled(11), settled(12), settled(13), settled(14));
+
+        BoardChangesDto changes = activityLogService.getBoardChanges(BOARD_ID, 10L);
+
+        assertThat(changes.getCursor()).isEqualTo(13L);
+        assertThat(changes.isHasMore()).isTrue();
+    }
+
+    @Test
+    void fullPageDoesNotMoveCursorPastUnsettledEntries() {
+        page(10L, fresh(11), fresh(12), fresh(13), fresh(14));
+
+        BoardChangesDto changes = activityLogService.getBoardChanges(BOARD_ID, 10L);
+
+        assertThat(changes.getCursor()).isEqualTo(10L);
+        assertThat(changes.isHasMore()).isFalse();
+    }
+
+    @Test
+    void firstSyncStartsFromLatestSettledEntry() {
+        when(activityLogRepository.findLatestIdByBoardIdBefore(eq(BOARD_ID), any(Instant.class))).thenReturn(42L);
+
+        BoardChangesDto changes = activityLogService.getBoardChanges(BOARD_ID, null);
+
+        assertThat(changes.getCursor()).isEqualTo(42L);
+        assertThat(changes.isFullResync()).isTrue();
+    }
+
+    private void page(Long since, ActivityLogEntity... entries) {
+        when(activityLogRepository.findByBoardIdAfter(BOARD_ID, since, PageRequest.of(0, 4)))
+                .thenReturn(List.of(entries));
+    }
+
+    private static ActivityLogEntity settled(long id) {
+        return entry(id, Instant.now().minusSeconds(60));
+    }
+
+    private static ActivityLogEntity fresh(long id) {
+        return entry(id, Instant.now());
+    }
+
+    private static ActivityLogEntity entry(long id, Instant createdAt) {
+        ActivityLogEntity entry = ActivityLogEntity.builder()
+                .boardId(BOARD_ID)
+                .entityType(BoardChangedEvent.EntityType.CARD.name())
+                .entityId(100L + id)
+                .action(BoardChangedEvent.Action.UPDATED.name())
+                .build();
+        entry.setId(id);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+}
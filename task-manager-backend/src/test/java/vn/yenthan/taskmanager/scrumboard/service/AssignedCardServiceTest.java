@@ -0,0 +1,96 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import vn.yenthan.taskmanager.core.util.CursorCodec;
+import vn.yenthan.taskmanager.core.util.CursorPage;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.AssignedCardView;
+import vn.yenthan.taskmanager.scrumboard.dto.response.AssignedCardDto;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapperImpl;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AssignedCardServiceTest {
+
+    private static final Long USER_ID = 3L;
+    private static final Instant DUE = Instant.parse("2026-11-01T09:00:00Z");
+
+    @Mock
+    private CardMemberRepository cardMemberRepository;
+
+    private AssignedCardService assignedCardService;
+
+    @BeforeEach
+    void setUp() {
+        assignedCardService = new AssignedCardService(cardMemberRepository, new ScrumboardMapperImpl());
+    }
+
+    @Test
+    void fullPageOfDatedCardsEndsWithCursorOnLastDatedCard() {
+        when(cardMemberRepository.findAssignedViews(USER_ID, PageRequest.of(0, 3)))
+                .thenReturn(List.of(card(1, DUE), card(2, DUE), card(3, DUE.plusSeconds(60))));
+
+        CursorPage<AssignedCardDto> page = assignedCardService.getAssignedCards(USER_ID, null, 2);
+
+        assertThat(page.content()).extracting(AssignedCardDto::getId).containsExactly(1L, 2L);
+        assertThat(page.nextCursor()).isEqualTo(CursorCodec.encode(DUE, 2L));
+        verify(cardMemberRepository, never()).findUndatedAssignedViewsAfter(any(), anyLong(), any());
+    }
+
+    @Test
+    void undatedCardsFollowDatedCardsOnTheSamePage() {
+        when(cardMemberRepository.findAssignedViews(USER_ID, PageRequest.of(0, 3))).thenReturn(List.of(card(1, DUE)));
+        when(cardMemberRepository.findUndatedAssignedViewsAfter(USER_ID, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(card(7, null), card(9, null)));
+
+        CursorPage<AssignedCardDto> page = assignedCardService.getAssignedCards(USER_ID, null, 2);
+
+        assertThat(page.content()).extracting(AssignedCardDto::getId).containsExactly(1L, 7L);
+        assertThat(page.nextCursor()).isEqualTo(CursorCodec.encode("-", 7L));
+    }
+
+    @Test
+    void datedCursorContinuesAfterDateAndId() {
+        when(cardMemberRepository.findAssignedViewsAfter(USER_ID, DUE, 2L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(card(3, DUE.plusSeconds(60))));
+        when(cardMemberRepository.findUndatedAssignedViewsAfter(USER_ID, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of());
+
+        CursorPage<AssignedCardDto> page = assignedCardService.getAssignedCards(USER_ID,
+                CursorCodec.encode(DUE, 2L), 2);
+
+        assertThat(page.content()).extracting(AssignedCardDto::getId).containsExactly(3L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void undatedCursorSkipsDatedCards() {
+        when(cardMemberRepository.findUndatedAssignedViewsAfter(USER_ID, 7L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(card(9, null)));
+
+        CursorPage<AssignedCardDto> page = assignedCardService.getAssignedCards(USER_ID,
+                CursorCodec.encode("-", 7L), 2);
+
+        assertThat(page.content()).extracting(AssignedCardDto::getId).containsExactly(9L);
+        verify(cardMemberRepository, never()).findAssignedViews(any(), any());
+        verify(cardMemberRepository, never()).findAssignedViewsAfter(any(), any(), any(), any());
+    }
+
+    private static AssignedCardView card(long id, Instant date) {
+        return new AssignedCardView(id, 1L, "Board", 10L, "Todo", "Card " + id, date, 0L);
+    }
+}
@@ -0,0 +1,135 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.security.access.AccessDeniedException;
+import vn.yenthan.taskmanager.scrumboard.dto.request.CloneBoardRequest;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
+import vn.yenthan.taskmanager.scrumboard.event.BoardChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.event.LabelChangedEvent;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoardCloneServiceTest {
+
+    private static final Long USER_ID = 3L;
+    private static final Long SOURCE_ID = 1L;
+    private static final Long TARGET_ID = 2L;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Mock
+    private AuthzService authzService;
+
+    @Mock
+    private BoardViewService boardViewService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private BoardCloneService boardCloneService;
+
+    @BeforeEach
+    void setUp() {
+        boardCloneService = new BoardCloneService(jdbcTemplate, boardRepository, authzService, boardViewService,
+                eventPublisher);
+    }
+
+    @Test
+    void cloneRunsFixedNumberOfStatements() {
+        allowClone(3);
+
+        BoardDto board = boardCloneService.cloneBoard(SOURCE_ID, request(true), USER_ID);
+
+        assertThat(board.getId()).isEqualTo(TARGET_ID);
+        // Số câu lệnh không phụ thuộc số list/card: board, role, role mặc định, quyền, owner, nội dung
+        verify(jdbcTemplate, times(4)).update(anyString(), any(SqlParameterSource.class));
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).queryForMap(contains("WITH source_list"), params.capture());
+        assertThat(params.getValue().getValue("sourceBoardId")).isEqualTo(SOURCE_ID);
+        assertThat(params.getValue().getValue("targetBoardId")).isEqualTo(TARGET_ID);
+        assertThat(params.getValue().getValue("includeCards")).isEqualTo(true);
+
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues().get(0)).isInstanceOfSatisfying(BoardChangedEvent.class, event -> {
+            assertThat(event.getBoardId()).isEqualTo(TARGET_ID);
+            assertThat(event.getAction()).isEqualTo(BoardChangedEvent.Action.CREATED);
+        });
+        assertThat(events.getAllValues().get(1)).isInstanceOf(LabelChangedEvent.class);
+    }
+
+    @Test
+    void templateCloneSkipsCards() {
+        allowClone(0);
+
+        boardCloneService.cloneBoard(SOURCE_ID, request(false), USER_ID);
+
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).queryForMap(anyString(), params.capture());
+        assertThat(params.getValue().getValue("includeCards")).isEqualTo(false);
+        verify(eventPublisher, never()).publishEvent(any(LabelChangedEvent.class));
+    }
+
+    @Test
+    void nonMemberCannotClone() {
+        when(authzService.isBoardMember(USER_ID, SOURCE_ID)).thenReturn(false);
+
+        assertThatThrownBy(() -> boardCloneService.cloneBoard(SOURCE_ID, request(true), USER_ID))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(jdbcTemplate, eventPublisher);
+    }
+
+    @Test
+    void duplicateNameIsRejectedBeforeWriting() {
+        when(authzService.isBoardMember(USER_ID, SOURCE_ID)).thenReturn(true);
+        when(boardRepository.existsById(SOURCE_ID)).thenReturn(true);
+        when(boardRepository.existsByName("Copy")).thenReturn(true);
+
+        assertThatThrownBy(() -> boardCloneService.cloneBoard(SOURCE_ID, request(true), USER_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void allowClone(long labels) {
+        when(authzService.isBoardMember(USER_ID, SOURCE_ID)).thenReturn(true);
+        when(boardRepository.existsById(SOURCE_ID)).thenReturn(true);
+        when(boardRepository.existsByName("Copy")).thenReturn(false);
+        when(jdbcTemplate.queryForObject(anyString(), any(MapSqlParameterSource.class), eq(Long.class)))
+                .thenReturn(TARGET_ID);
+        when(jdbcTemplate.queryForMap(anyString(), any(SqlParameterSource.class)))
+                .thenReturn(Map.of("lists", 2L, "cards", 5L, "labels", labels));
+        when(boardViewService.getBoardSummary(TARGET_ID)).thenReturn(BoardDto.builder().id(TARGET_ID).build());
+    }
+
+    private static CloneBoardRequest request(boolean includeCards) {
+        return CloneBoardRequest.builder().name("Copy").includeCards(includeCards).build();
+    }
+}
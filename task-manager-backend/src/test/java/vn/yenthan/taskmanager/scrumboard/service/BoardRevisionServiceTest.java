@@ -0,0 +1,59 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import vn.yenthan.taskmanager.core.util.ETagUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoardRevisionServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private BoardRevisionService boardRevisionService;
+
+    @BeforeEach
+    void setUp() {
+        boardRevisionService = new BoardRevisionService(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void boardETagFromGetMapsToBoardVersion() {
+        when(valueOperations.get("board:revision:5")).thenReturn("42");
+
+        String etag = boardRevisionService.getBoardETag(5L, 3L);
+
+        assertThat(etag).isEqualTo("\"b5-r42-v3\"");
+        assertThat(ETagUtils.parseBoardVersion(etag, 5L)).isEqualTo(3L);
+    }
+
+    @Test
+    void revisionChangeFromOtherEntitiesDoesNotChangeBoardVersion() {
+        when(valueOperations.get("board:revision:5")).thenReturn("42", "43");
+
+        String before = boardRevisionService.getBoardETag(5L, 3L);
+        String after = boardRevisionService.getBoardETag(5L, 3L);
+
+        assertThat(after).isNotEqualTo(before);
+        assertThat(ETagUtils.parseBoardVersion(after, 5L)).isEqualTo(ETagUtils.parseBoardVersion(before, 5L));
+    }
+
+    @Test
+    void noETagWithoutRedis() {
+        when(valueOperations.get("board:revision:5")).thenThrow(new IllegalStateException("redis down"));
+
+        assertThat(boardRevisionService.getBoardETag(5L)).isNull();
+    }
+}
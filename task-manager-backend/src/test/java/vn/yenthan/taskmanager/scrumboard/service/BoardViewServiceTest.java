@@ -0,0 +1,157 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import vn.yenthan.taskmanager.core.exception.payload.NotFoundException;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.AttachmentView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.BoardView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardLabelView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardMemberView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.CardView;
+import vn.yenthan.taskmanager.scrumboard.dto.projection.ListView;
+import vn.yenthan.taskmanager.scrumboard.dto.response.BoardDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardDto;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardListDto;
+import vn.yenthan.taskmanager.scrumboard.mapper.ScrumboardMapperImpl;
+import vn.yenthan.taskmanager.scrumboard.repository.BoardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardLabelRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardMemberRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.CardRepository;
+import vn.yenthan.taskmanager.scrumboard.repository.ListRepository;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BoardViewServiceTest {
+
+    @Mock
+    private BoardRepository boardRepository;
+
+    @Mock
+    private ListRepository listRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private CardMemberRepository cardMemberRepository;
+
+    @Mock
+    private CardLabelRepository cardLabelRepository;
+
+    private BoardViewService boardViewService;
+
+    @BeforeEach
+    void setUp() {
+        boardViewService = new BoardViewService(boardRepository, listRepository, cardRepository, cardMemberRepository,
+                cardLabelRepository, new ScrumboardMapperImpl());
+    }
+
+    @Test
+    void boardIsAssembledFromProjectionsWithOneQueryPerKind() {
+        when(boardRepository.findViewById(1L)).thenReturn(Optional.of(new BoardView(1L, "Board", 4L)));
+        when(listRepository.findViewsByBoardIds(List.of(1L))).thenReturn(List.of(
+                new ListView(10L, 1L, "Todo", "a", 0L),
+                new ListView(11L, 1L, "Done", "b", 0L)));
+        when(cardRepository.findViewsByBoardIds(List.of(1L))).thenReturn(List.of(
+                new CardView(100L, 10L, "First", null, null, "a", 2L),
+                new CardView(101L, 10L, "Second", null, null, "b", 0L)));
+        when(cardMemberRepository.findViewsByCardIds(List.of(100L, 101L))).thenReturn(List.of(
+                new CardMemberView(101L, 5L, "Alice", "alice@example.com", null)));
+        when(cardLabelRepository.findViewsByCardIds(List.of(100L, 101L))).thenReturn(List.of(
+                new CardLabelView(100L, 7L, "Bug", "red")));
+        when(cardRepository.findAttachmentViewsByCardIds(List.of(100L, 101L))).thenReturn(List.of(
+                new AttachmentView(50L, 100L, "cards/100/x", "x.png", null, null, "image/png", 10L, null, null)));
+
+        BoardDto board = boardViewService.getBoard(1L);
+
+        assertThat(board.getVersion()).isEqualTo(4L);
+        assertThat(board.getList()).extracting(CardListDto::getId).containsExactly(10L, 11L);
+        List<CardDto> cards = board.getList().get(0).getCards();
+        assertThat(cards).extracting(CardDto::getId).containsExactly(100L, 101L);
+        assertThat(cards.get(0).getLabel()).hasSize(1);
+        assertThat(cards.get(0).getAttachments()).hasSize(1);
+        assertThat(cards.get(0).getMembers()).isEmpty();
+        assertThat(cards.get(1).getMembers()).hasSize(1);
+        assertThat(board.getList().get(1).getCards()).isEmpty();
+    }
+
+    @Test
+    void emptyListSkipsCardChildQueries() {
+        when(listRepository.findViewById(11L)).thenReturn(Optional.of(new ListView(11L, 1L, "Done", "b", 0L)));
+        when(cardRepository.findViewsByListId(11L)).thenReturn(List.of());
+
+        CardListDto list = boardViewService.getList(11L);
+
+        assertThat(list.getCards()).isEmpty();
+        verifyNoInteractions(cardMemberRepository, cardLabelRepository);
+    }
+
+    @Test
+    void largeCardSetsAreLoadedInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 1500).boxed().toList();
+        when(cardRepository.findViewsByIds(anyCollection())).thenReturn(List.of());
+
+        boardViewService.getCards(ids);
+
+        // Mệnh đề IN tối đa 1000 tham số
+        verify(cardRepository).findViewsByIds(ids.subList(0, 1000));
+        verify(cardRepository).findViewsByIds(ids.subList(1000, 1500));
+        verify(cardRepository, times(2)).findViewsByIds(anyCollection());
+    }
+
+    @Test
+    void streamedBoardHasSameShapeAsBoardDto() throws Exception {
+        when(boardRepository.findViewById(1L)).thenReturn(Optional.of(new BoardView(1L, "Board", 4L)));
+        when(listRepository.findViewsByBoardIds(List.of(1L))).thenReturn(List.of(
+                new ListView(10L, 1L, "Todo", "a", 0L),
+                new ListView(11L, 1L, "Doing", "b", 0L),
+                new ListView(12L, 1L, "Done", "c", 0L)));
+        // Card theo thứ tự list; card 201 thuộc list tạo sau snapshot nên bị bỏ qua
+        when(cardRepository.streamViewsByBoardId(1L)).thenReturn(Stream.of(
+                new CardView(200L, 10L, "First", null, null, "a", 0L),
+                new CardView(201L, 99L, "Orphan", null, null, "a", 0L),
+                new CardView(202L, 12L, "Last", null, null, "a", 0L)));
+        when(cardMemberRepository.findViewsByCardIds(anyCollection())).thenReturn(List.of());
+        when(cardLabelRepository.findViewsByCardIds(anyCollection())).thenReturn(List.of());
+        when(cardRepository.findAttachmentViewsByCardIds(anyCollection())).thenReturn(List.of());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            boardViewService.writeBoard(1L, generator);
+        }
+
+        BoardDto board = objectMapper.readValue(out.toString(), BoardDto.class);
+        assertThat(board.getId()).isEqualTo(1L);
+        assertThat(board.getVersion()).isEqualTo(4L);
+        assertThat(board.getList()).extracting(CardListDto::getId).containsExactly(10L, 11L, 12L);
+        assertThat(board.getList().get(0).getCards()).extracting(CardDto::getId).containsExactly(200L);
+        assertThat(board.getList().get(1).getCards()).isEmpty();
+        assertThat(board.getList().get(2).getCards()).extracting(CardDto::getId).containsExactly(202L);
+    }
+
+    @Test
+    void missingBoardIsNotFound() {
+        when(boardRepository.findViewById(1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> boardViewService.getBoard(1L)).isInstanceOf(NotFoundException.class);
+    }
+}
@@ -0,0 +1,150 @@
+package vn.yenthan.taskmanager.scrumboard.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import vn.yenthan.taskmanager.core.util.CursorCodec;
+import vn.yenthan.taskmanager.core.util.CursorPage;
+import vn.yenthan.taskmanager.scrumboard.dto.response.CardSearchResultDto;
+import vn.yenthan.taskmanager.scrumboard.security.AuthzService;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CardSearchServiceTest {
+
+    private static final Long USER_ID = 3L;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private AuthzService authzService;
+
+    private CardSearchService cardSearchService;
+
+    @BeforeEach
+    void setUp() {
+        cardSearchService = new CardSearchService(jdbcTemplate, authzService);
+        lenient().when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class),
+                ArgumentMatchers.<RowMapper<CardSearchResultDto>>any())).thenReturn(List.of());
+    }
+
+    @Test
+    void memberSearchMatchesFullTextOrTitlePatternWithinMemberBoards() {
+        cardSearchService.searchCards("  50%_done\\ ", null, null, 20, USER_ID);
+
+        Query query = captureQuery();
+        assertThat(query.sql())
+                .contains("c.search_vector @@ q.tsq OR c.title ILIKE :pattern")
+                .contains("bm.user_id = :userId")
+                .doesNotContain(":boardId")
+                .doesNotContain(":cursorRank")
+                .contains("ORDER BY m.rank DESC, m.id DESC LIMIT :limit");
+        assertThat(query.params().getValue("query")).isEqualTo("50%_done\\");
+        // Ký tự đặc biệt của LIKE trong từ khóa được so khớp nguyên văn
+        assertThat(query.params().getValue("pattern")).isEqualTo("%50\\%\\_done\\\\%");
+        assertThat(query.params().getValue("userId")).isEqualTo(USER_ID);
+        assertThat(query.params().getValue("limit")).isEqualTo(21);
+    }
+
+    @Test
+    void adminSearchSkipsMembershipFilter() {
+        when(authzService.hasGlobalAdminRole(USER_ID)).thenReturn(true);
+
+        cardSearchService.searchCards("deploy", 9L, null, 20, USER_ID);
+
+        Query query = captureQuery();
+        assertThat(query.sql()).doesNotContain("tbl_board_member").contains("l.board_id = :boardId");
+        assertThat(query.params().getValue("boardId")).isEqualTo(9L);
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        cardSearchService.searchCards("deploy", null, null, 1000, USER_ID);
+
+        assertThat(captureQuery().params().getValue("limit")).isEqualTo(CardSearchService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void cursorContinuesAfterLastRankAndId() {
+        String cursor = CursorCodec.encode(0.5f, 42L);
+
+        cardSearchService.searchCards("deploy", null, cursor, 20, USER_ID);
+
+        Query query = captureQuery();
+        assertThat(query.sql()).contains("(m.rank, m.id) < (CAST(:cursorRank AS real), :cursorId)");
+        assertThat(query.params().getValue("cursorRank")).isEqualTo(0.5f);
+        assertThat(query.params().getValue("cursorId")).isEqualTo(42L);
+    }
+
+    @Test
+    void extraRowProducesNextCursorFromLastReturnedRow() {
+        List<CardSearchResultDto> rows = LongStream.rangeClosed(1, 3)
+                .mapToObj(id -> CardSearchResultDto.builder().id(10 - id).rank(1f / id).build())
+                .toList();
+        when(jdbcTemplate.query(anyString(), any(SqlParameterSource.class),
+                ArgumentMatchers.<RowMapper<CardSearchResultDto>>any())).thenReturn(rows);
+
+        CursorPage<CardSearchResultDto> page = cardSearchService.searchCards("deploy", null, null, 2, USER_ID);
+
+        assertThat(page.content()).extracting(CardSearchResultDto::getId).containsExactly(9L, 8L);
+        assertThat(page.nextCursor()).isEqualTo(CursorCodec.encode(0.5f, 8L));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<CardSearchResultDto> page = cardSearchService.searchCards("deploy", null, null, 2, USER_ID);
+
+        assertThat(page.content()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void blankQueryIsRejected() {
+        assertThatThrownBy(() -> cardSearchService.searchCards(" ", null, null, 20, USER_ID))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void highlightEscapesUserTextAndMarksMatches() {
+        String headline = "<img src=x onerror=alert(1)> \u0002deploy\u0003 & \"ship\"";
+
+        assertThat(CardSearchService.toHtml(headline))
+                .isEqualTo("&lt;img src=x onerror=alert(1)&gt; <b>deploy</b> &amp; &quot;ship&quot;");
+    }
+
+    @Test
+    void highlightKeepsNull() {
+        assertThat(CardSearchService.toHtml(null)).isNull();
+    }
+
+    private Query captureQuery() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<SqlParameterSource> params = ArgumentCaptor.forClass(SqlParameterSource.class);
+        verify(jdbcTemplate).query(sql.capture(), params.capture(), ArgumentMatchers.<RowMapper<CardSearchResultDto>>any());
+        return new Query(sql.getValue(), (MapSqlParameterSource) params.getValue());
+    }
+
+    private record Query(String sql, MapSqlParameterSource params) {
+    }
+}
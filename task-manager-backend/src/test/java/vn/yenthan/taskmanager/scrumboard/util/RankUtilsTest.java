@@ -0,0 +1,98 @@
+package vn.yenthan.taskmanager.scrumboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RankUtilsTest {
+
+    @Test
+    void betweenNullsReturnsValidRank() {
+        String rank = RankUtils.between(null, null);
+
+        assertThat(rank).isNotEmpty().matches("[0-9a-z]*[1-9a-z]");
+    }
+
+    @Test
+    void appendAndPrependDoNotGrowRank() {
+        assertThat(RankUtils.between("h", null)).isEqualTo("i");
+        assertThat(RankUtils.between(null, "h")).isEqualTo("g");
+        assertThat(RankUtils.between("zzz", null)).isGreaterThan("zzz");
+        assertThat(RankUtils.between(null, "01")).isLessThan("01");
+    }
+
+    @Test
+    void betweenIsStrictlyInsideBounds() {
+        String rank = RankUtils.between("a", "b");
+
+        assertThat(rank).isGreaterThan("a").isLessThan("b");
+        assertThat(rank).doesNotEndWith("0");
+    }
+
+    @Test
+    void repeatedInsertsAfterSameAnchorStayOrdered() {
+        String prev = "a";
+        String next = "b";
+        for (int i = 0; i < 500; i++) {
+            String rank = RankUtils.between(prev, next);
+            assertThat(rank).isGreaterThan(prev).isLessThan(next).doesNotEndWith("0");
+            next = rank;
+        }
+    }
+
+    @Test
+    void repeatedAppendsStayOrdered() {
+        String last = null;
+        for (int i = 0; i < 500; i++) {
+            String rank = RankUtils.between(last, null);
+            if (last != null) {
+                assertThat(rank).isGreaterThan(last);
+            }
+            last = rank;
+        }
+    }
+
+    @Test
+    void rejectsOutOfOrderBounds() {
+        assertThatThrownBy(() -> RankUtils.between("b", "a")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RankUtils.between("a", "a")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsCharactersOutsideAlphabet() {
+        assertThatThrownBy(() -> RankUtils.between("A", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evenlySpacedRanksAreDistinctAndSorted() {
+        List<String> ranks = RankUtils.evenlySpaced(1000);
+
+        assertThat(ranks).hasSize(1000).doesNotHaveDuplicates();
+        List<String> sorted = new ArrayList<>(ranks);
+        sorted.sort(null);
+        assertThat(ranks).isEqualTo(sorted);
+        assertThat(ranks).allSatisfy(rank -> assertThat(rank).doesNotEndWith("0"));
+    }
+
+    @Test
+    void evenlySpacedOfZeroIsEmpty() {
+        assertThat(RankUtils.evenlySpaced(0)).isEmpty();
+    }
+
+    @Test
+    void validatesImportedRanks() {
+        assertThat(RankUtils.isValid("a1z")).isTrue();
+        assertThat(RankUtils.isValid(RankUtils.between(null, null))).isTrue();
+        assertThat(RankUtils.isValid(null)).isFalse();
+        assertThat(RankUtils.isValid("")).isFalse();
+        assertThat(RankUtils.isValid("A1")).isFalse();
+        assertThat(RankUtils.isValid("a-b")).isFalse();
+        assertThat(RankUtils.isValid("a0")).isFalse();
+        assertThat(RankUtils.isValid("a".repeat(RankUtils.MAX_LENGTH))).isTrue();
+        assertThat(RankUtils.isValid("a".repeat(RankUtils.MAX_LENGTH + 1))).isFalse();
+    }
+}
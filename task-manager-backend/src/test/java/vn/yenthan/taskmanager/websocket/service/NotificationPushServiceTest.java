@@ -0,0 +1,97 @@
+package vn.yenthan.taskmanager.websocket.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import vn.yenthan.taskmanager.notifications.dto.response.NotificationDto;
+import vn.yenthan.taskmanager.notifications.event.NotificationsCreatedEvent;
+import vn.yenthan.taskmanager.notifications.event.UnreadCountChangedEvent;
+import vn.yenthan.taskmanager.notifications.service.NotificationPreferenceService;
+import vn.yenthan.taskmanager.websocket.handler.NotificationWebSocketHandler;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPushServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private NotificationWebSocketHandler notificationWebSocketHandler;
+
+    @Mock
+    private NotificationPreferenceService notificationPreferenceService;
+
+    private NotificationPushService notificationPushService;
+
+    @BeforeEach
+    void setUp() {
+        notificationPushService = new NotificationPushService(redisTemplate, new ObjectMapper().findAndRegisterModules(),
+                notificationWebSocketHandler, notificationPreferenceService);
+    }
+
+    @Test
+    void newNotificationIsPublishedToRecipientChannel() {
+        when(notificationPreferenceService.getMasks(List.of(20L))).thenReturn(Map.of(20L, NotificationPreferenceService.ALL));
+
+        notificationPushService.onNotificationsCreated(new NotificationsCreatedEvent(List.of(notification(20L))));
+
+        verify(redisTemplate).convertAndSend(eq(NotificationPushService.CHANNEL),
+                argThat((String message) -> message.startsWith("20:") && message.contains("\"NOTIFICATION_CREATED\"")));
+    }
+
+    @Test
+    void pushDisabledStillUpdatesUnreadBadge() {
+        when(notificationPreferenceService.getMasks(List.of(20L)))
+                .thenReturn(Map.of(20L, NotificationPreferenceService.ALL & ~NotificationPreferenceService.PUSH));
+
+        notificationPushService.onNotificationsCreated(new NotificationsCreatedEvent(List.of(notification(20L))));
+
+        verify(redisTemplate).convertAndSend(eq(NotificationPushService.CHANNEL),
+                argThat((String message) -> message.startsWith("20:") && message.contains("\"UNREAD_COUNT_CHANGED\"")
+                        && !message.contains("Card assigned")));
+    }
+
+    @Test
+    void redisFailureFallsBackToLocalSessions() {
+        doThrow(new RedisConnectionFailureException("down"))
+                .when(redisTemplate).convertAndSend(eq(NotificationPushService.CHANNEL), anyString());
+
+        notificationPushService.onUnreadCountChanged(new UnreadCountChangedEvent(20L, -3, false));
+
+        verify(notificationWebSocketHandler).sendToUser(eq(20L), argThat(json -> json.contains("\"unreadDelta\":-3")));
+    }
+
+    @Test
+    void deliveredMessageGoesToUserSessionsOnThisNode() {
+        notificationPushService.deliver("20:{\"type\":\"UNREAD_COUNT_CHANGED\"}");
+
+        verify(notificationWebSocketHandler).sendToUser(20L, "{\"type\":\"UNREAD_COUNT_CHANGED\"}");
+    }
+
+    @Test
+    void malformedMessageIsIgnored() {
+        notificationPushService.deliver("garbage");
+
+        verifyNoInteractions(notificationWebSocketHandler);
+    }
+
+    private static NotificationDto notification(Long userId) {
+        return NotificationDto.builder().id(1L).userId(userId).type("CARD_ASSIGNED").title("Card assigned").build();
+    }
+}